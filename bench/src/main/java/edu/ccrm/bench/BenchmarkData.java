@@ -0,0 +1,86 @@
+// File: bench/src/main/java/edu/ccrm/bench/BenchmarkData.java
+package edu.ccrm.bench;
+
+import edu.ccrm.config.DataStore;
+import edu.ccrm.domain.Course;
+import edu.ccrm.domain.Instructor;
+import edu.ccrm.domain.Semester;
+import edu.ccrm.domain.Student;
+
+import java.io.OutputStream;
+import java.io.PrintStream;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Fills the DataStore with a synthetic dataset for the benchmarks.
+ * Every student takes COURSES_PER_STUDENT courses, spread evenly, so rosters grow with the dataset.
+ */
+final class BenchmarkData {
+
+    static final int COURSE_COUNT = 500;
+    static final int COURSES_PER_STUDENT = 3;
+    static final int INSTRUCTOR_ID_BASE = 10_000_000; // Above every student id
+
+    final List<Student> students;
+    final List<Course> courses;
+
+    private BenchmarkData(List<Student> students, List<Course> courses) {
+        this.students = students;
+        this.courses = courses;
+    }
+
+    /**
+     * Replaces the store's contents with studentCount students, COURSE_COUNT courses and their enrollments.
+     */
+    static BenchmarkData populate(DataStore dataStore, int studentCount) {
+        dataStore.clear();
+
+        List<Course> courses = new ArrayList<>(COURSE_COUNT);
+        Semester[] semesters = Semester.values();
+        for (int c = 0; c < COURSE_COUNT; c++) {
+            Instructor instructor = new Instructor(INSTRUCTOR_ID_BASE + c, "Instructor " + c,
+                    "instructor" + c + "@example.com", LocalDate.of(1970, 1, 1), "Department " + (c % 20), "Professor");
+            dataStore.addInstructor(instructor);
+            Course course = new Course.Builder(courseCode(c), "Course " + c)
+                    .credits(3)
+                    .department("Department " + (c % 20))
+                    .instructor(instructor)
+                    .semester(semesters[c % semesters.length])
+                    .build();
+            dataStore.addCourse(course);
+            courses.add(course);
+        }
+
+        List<Student> students = new ArrayList<>(studentCount);
+        LocalDate dob = LocalDate.of(2002, 1, 1);
+        for (int s = 0; s < studentCount; s++) {
+            Student student = new Student(s + 1, "Student " + s, "student" + s + "@example.com",
+                    dob.plusDays(s % 3650), regNo(s));
+            dataStore.addStudent(student);
+            for (int k = 0; k < COURSES_PER_STUDENT; k++) {
+                Course course = courses.get((s * COURSES_PER_STUDENT + k) % COURSE_COUNT);
+                student.enrollInCourse(course);
+                dataStore.recordEnrollment(student, course);
+            }
+            students.add(student);
+        }
+        return new BenchmarkData(students, courses);
+    }
+
+    static String regNo(int index) {
+        return "S" + index;
+    }
+
+    static String courseCode(int index) {
+        return "C" + index;
+    }
+
+    /**
+     * The services print progress messages; keep them out of the benchmark's output and timing.
+     */
+    static void silenceConsole() {
+        System.setOut(new PrintStream(OutputStream.nullOutputStream()));
+    }
+}
@@ -0,0 +1,113 @@
+// File: bench/src/main/java/edu/ccrm/bench/EnrollmentBenchmark.java
+package edu.ccrm.bench;
+
+import edu.ccrm.config.DataStore;
+import edu.ccrm.domain.Course;
+import edu.ccrm.domain.Semester;
+import edu.ccrm.domain.Student;
+import edu.ccrm.exception.CourseFullException;
+import edu.ccrm.exception.DuplicateEnrollmentException;
+import edu.ccrm.exception.MaxCreditLimitExceededException;
+import edu.ccrm.exception.PrerequisiteNotMetException;
+import edu.ccrm.exception.ScheduleConflictException;
+import edu.ccrm.service.EnrollmentService;
+import edu.ccrm.service.EnrollmentServiceImpl;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * EnrollmentServiceImpl hot paths: the enrollment rule checks and the roster / course lookups.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = {"-Xms4g", "-Xmx4g"})
+public class EnrollmentBenchmark {
+
+    @Param({"1000", "10000", "100000", "1000000"})
+    public int studentCount;
+
+    private EnrollmentService enrollmentService;
+    private BenchmarkData data;
+    private Course extraCourse; // Nobody is enrolled in it, so enrolling always passes the rules
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        BenchmarkData.silenceConsole();
+        DataStore dataStore = DataStore.getInstance();
+        data = BenchmarkData.populate(dataStore, studentCount);
+        extraCourse = new Course.Builder("BENCH1", "Benchmark Course").credits(3).semester(Semester.FALL).build();
+        dataStore.addCourse(extraCourse);
+        enrollmentService = new EnrollmentServiceImpl(dataStore);
+    }
+
+    // Each thread walks its own way through the students
+    @State(Scope.Thread)
+    public static class Cursor {
+        int next;
+
+        int next(int bound) {
+            next = next + 1 == bound ? 0 : next + 1;
+            return next;
+        }
+    }
+
+    /**
+     * A successful enrollment followed by its unenrollment, so the dataset stays the same size.
+     */
+    @Benchmark
+    public Student enrollAndUnenroll(Cursor cursor)
+            throws MaxCreditLimitExceededException, DuplicateEnrollmentException, PrerequisiteNotMetException,
+            ScheduleConflictException, CourseFullException {
+        Student student = data.students.get(cursor.next(studentCount));
+        enrollmentService.enrollStudent(student, extraCourse);
+        enrollmentService.unenrollStudent(student, extraCourse);
+        return student;
+    }
+
+    /**
+     * An enrollment that is rejected as a duplicate, i.e. the cost of the rule check and the exception.
+     */
+    @Benchmark
+    public Object enrollDuplicate(Cursor cursor) {
+        int s = cursor.next(studentCount);
+        Course alreadyTaken = data.courses.get((s * BenchmarkData.COURSES_PER_STUDENT) % BenchmarkData.COURSE_COUNT);
+        try {
+            enrollmentService.enrollStudent(data.students.get(s), alreadyTaken);
+            return null;
+        } catch (DuplicateEnrollmentException | MaxCreditLimitExceededException | PrerequisiteNotMetException
+                | ScheduleConflictException | CourseFullException e) {
+            return e;
+        }
+    }
+
+    @Benchmark
+    public List<Student> findStudentsByCourse(Cursor cursor) {
+        return enrollmentService.findStudentsByCourse(BenchmarkData.courseCode(cursor.next(BenchmarkData.COURSE_COUNT)));
+    }
+
+    @Benchmark
+    public int countStudentsByCourse(Cursor cursor) {
+        return enrollmentService.countStudentsByCourse(BenchmarkData.courseCode(cursor.next(BenchmarkData.COURSE_COUNT)));
+    }
+
+    @Benchmark
+    public List<Course> findCoursesByStudent(Cursor cursor) {
+        return enrollmentService.findCoursesByStudent(BenchmarkData.regNo(cursor.next(studentCount)));
+    }
+}
@@ -0,0 +1,86 @@
+// File: bench/src/main/java/edu/ccrm/bench/LookupBenchmark.java
+package edu.ccrm.bench;
+
+import edu.ccrm.config.DataStore;
+import edu.ccrm.domain.Course;
+import edu.ccrm.domain.Person;
+import edu.ccrm.domain.Student;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.Locale;
+import java.util.Optional;
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * The DataStore lookups behind the CLI's find helpers (by regNo, course code and person id).
+ * Registration numbers are looked up in mixed case, as users type them.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = {"-Xms4g", "-Xmx4g"})
+public class LookupBenchmark {
+
+    private static final int KEYS = 4096; // Power of two, so the cursor can wrap with a mask
+
+    @Param({"1000", "10000", "100000", "1000000"})
+    public int studentCount;
+
+    private DataStore dataStore;
+    private String[] regNos;
+    private String[] courseCodes;
+    private int[] personIds;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        BenchmarkData.silenceConsole();
+        dataStore = DataStore.getInstance();
+        BenchmarkData.populate(dataStore, studentCount);
+
+        // Precompute the keys so the benchmarks measure the lookup, not string building
+        regNos = new String[KEYS];
+        courseCodes = new String[KEYS];
+        personIds = new int[KEYS];
+        SplittableRandom random = new java.util.SplittableRandom(42);
+        for (int i = 0; i < KEYS; i++) {
+            String regNo = BenchmarkData.regNo(random.nextInt(studentCount));
+            regNos[i] = (i & 1) == 0 ? regNo : regNo.toLowerCase(Locale.ROOT);
+            courseCodes[i] = BenchmarkData.courseCode(random.nextInt(BenchmarkData.COURSE_COUNT));
+            personIds[i] = 1 + random.nextInt(studentCount);
+        }
+    }
+
+    @State(Scope.Thread)
+    public static class Cursor {
+        int next;
+    }
+
+    @Benchmark
+    public Optional<Student> findStudentByRegNo(Cursor cursor) {
+        return dataStore.findStudentByRegNo(regNos[cursor.next++ & (KEYS - 1)]);
+    }
+
+    @Benchmark
+    public Optional<Course> findCourseByCode(Cursor cursor) {
+        return dataStore.findCourseByCode(courseCodes[cursor.next++ & (KEYS - 1)]);
+    }
+
+    @Benchmark
+    public Optional<Person> findPersonById(Cursor cursor) {
+        return dataStore.findPersonById(personIds[cursor.next++ & (KEYS - 1)]);
+    }
+}
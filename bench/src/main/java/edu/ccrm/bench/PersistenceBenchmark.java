@@ -0,0 +1,71 @@
+// File: bench/src/main/java/edu/ccrm/bench/PersistenceBenchmark.java
+package edu.ccrm.bench;
+
+import edu.ccrm.config.DataStore;
+import edu.ccrm.io.DataPersistenceService;
+import edu.ccrm.io.ImportReport;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Whole-file CSV export and streaming import of the students. Each operation handles the whole
+ * dataset, so results are reported as time per operation. Files go to the data folder of the
+ * directory the benchmarks are run from.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2)
+@Measurement(iterations = 5)
+@Fork(value = 1, jvmArgsAppend = {"-Xms4g", "-Xmx4g"})
+public class PersistenceBenchmark {
+
+    private static final String EXPORT_FILE = "bench_students_export.csv";
+    private static final String IMPORT_FILE = "bench_students_import.csv";
+
+    @Param({"1000", "10000", "100000", "1000000"})
+    public int studentCount;
+
+    private DataStore dataStore;
+    private DataPersistenceService persistenceService;
+
+    @Setup(Level.Trial)
+    public void setUp() throws IOException {
+        BenchmarkData.silenceConsole();
+        Files.createDirectories(Paths.get("data"));
+        dataStore = DataStore.getInstance();
+        persistenceService = new DataPersistenceService();
+        BenchmarkData.populate(dataStore, studentCount);
+        persistenceService.exportStudents(dataStore.getStudents(), IMPORT_FILE); // Input for importStudents
+    }
+
+    @Benchmark
+    public Path exportStudents() {
+        persistenceService.exportStudents(dataStore.getStudents(), EXPORT_FILE);
+        return Paths.get("data", EXPORT_FILE);
+    }
+
+    /**
+     * Replaces every student with the exported file's contents, so each iteration starts from the same state.
+     */
+    @Benchmark
+    public ImportReport importStudents() {
+        return persistenceService.importStudentsStreaming(IMPORT_FILE, dataStore, true);
+    }
+}
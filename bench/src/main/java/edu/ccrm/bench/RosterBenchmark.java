@@ -0,0 +1,81 @@
+// File: bench/src/main/java/edu/ccrm/bench/RosterBenchmark.java
+package edu.ccrm.bench;
+
+import edu.ccrm.config.DataStore;
+import edu.ccrm.config.EnrollmentIndex;
+import edu.ccrm.domain.Student;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * The roster reads of the hash and bitmap enrollment indexes: walking a roster, counting it,
+ * and counting the students two courses share. Adjacent courses share most of their students.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = {"-Xms4g", "-Xmx4g"})
+public class RosterBenchmark {
+
+    @Param({"1000", "10000", "100000", "1000000"})
+    public int studentCount;
+
+    @Param({"hash", "bitmap"})
+    public String enrollmentIndex;
+
+    private DataStore dataStore;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        BenchmarkData.silenceConsole();
+        // Each trial runs in its own fork, so the singleton is created after the property is set
+        System.setProperty(EnrollmentIndex.PROPERTY, enrollmentIndex);
+        dataStore = DataStore.getInstance();
+        BenchmarkData.populate(dataStore, studentCount);
+    }
+
+    @State(Scope.Thread)
+    public static class Cursor {
+        int next;
+
+        String nextCode() {
+            next = next + 1 == BenchmarkData.COURSE_COUNT ? 0 : next + 1;
+            return BenchmarkData.courseCode(next);
+        }
+    }
+
+    @Benchmark
+    public long walkRoster(Cursor cursor) {
+        long sum = 0;
+        for (Student student : dataStore.getRoster(cursor.nextCode())) {
+            sum += student.getId();
+        }
+        return sum;
+    }
+
+    @Benchmark
+    public int countRoster(Cursor cursor) {
+        return dataStore.getEnrollmentCount(cursor.nextCode());
+    }
+
+    @Benchmark
+    public int countCommonStudents(Cursor cursor) {
+        String first = cursor.nextCode();
+        String second = BenchmarkData.courseCode((cursor.next + 1) % BenchmarkData.COURSE_COUNT);
+        return dataStore.countCommonStudents(first, second);
+    }
+}
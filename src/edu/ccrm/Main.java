@@ -1,20 +1,207 @@
 // File: src/edu.ccrm/Main.java
 package edu.ccrm;
 
+import edu.ccrm.api.ApiServer;
+import edu.ccrm.cli.BatchCommandRunner;
 import edu.ccrm.cli.CliHandler;
 import edu.ccrm.config.DataStore;
 import edu.ccrm.domain.*;
+import edu.ccrm.io.BackupService;
+import edu.ccrm.io.DataPersistenceService;
+import edu.ccrm.io.EnrollmentEventLog;
+import edu.ccrm.io.Journal;
+import edu.ccrm.io.SnapshotService;
+import edu.ccrm.service.EnrollmentEventBus;
 import edu.ccrm.service.EnrollmentService;
 import edu.ccrm.service.EnrollmentServiceImpl;
+import edu.ccrm.service.InstrumentedEnrollmentService;
+import java.io.FileDescriptor;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.Reader;
+import java.net.InetAddress;
+import java.net.UnknownHostException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Paths;
 import java.time.LocalDate;
 
 public class Main {
+
+    private static final String USAGE = "Usage: java edu.ccrm.Main [--batch <file> | --batch -] [--http [port]] [--http-bind <address>]";
+
     public static void main(String[] args){
+        // In batch mode stdout carries only command results; progress messages go to stderr
+        String batchSource = batchSource(args);
+        if (batchSource != null) {
+            System.setOut(System.err);
+        }
         System.out.println("Starting CCRM Application...");
 
         // Use the Singleton DataStore to get our lists
         DataStore dataStore = DataStore.getInstance();
         
+        Journal journal = openJournal();
+        SnapshotService snapshotService = new SnapshotService(journal);
+
+        // Fast start from the binary snapshot if one was saved, otherwise seed the demo data
+        long snapshotSequence = snapshotService.loadSnapshot(dataStore, SnapshotService.DEFAULT_SNAPSHOT);
+        if (snapshotSequence < 0) {
+            seedDemoData(dataStore);
+            snapshotSequence = 0;
+        }
+
+        // Re-apply every change made since that snapshot, then journal all new changes
+        if (journal != null) {
+            try {
+                long replayed = journal.replay(snapshotSequence, dataStore);
+                if (replayed > 0) {
+                    System.out.println("Replayed " + replayed + " journaled changes.");
+                }
+                dataStore.setMutationLog(journal);
+            } catch (IOException e) {
+                System.err.println("Failed to replay journal, changes will not be journaled: " + e.getMessage());
+            }
+        }
+
+        // Enrollment events go to a background dispatcher; the log and the CLI subscribe to them
+        EnrollmentEventBus eventBus = new EnrollmentEventBus();
+        EnrollmentEventLog eventLog = openEventLog();
+        if (eventLog != null) {
+            eventBus.subscribe(eventLog);
+        }
+
+        // Initialize the services with the data from the DataStore, measured for the metrics menu and JMX
+        InstrumentedEnrollmentService enrollmentService =
+                new InstrumentedEnrollmentService(new EnrollmentServiceImpl(dataStore, eventBus));
+        enrollmentService.registerMBeans();
+
+        // Optionally serve the same store over HTTP while the menu or script runs
+        ApiServer apiServer = startApiServer(args, dataStore, enrollmentService);
+
+        // Either run a command script headless, or start the interactive command-line interface
+        int exitCode = 0;
+        if (batchSource != null) {
+            exitCode = runBatch(batchSource, dataStore, enrollmentService);
+        } else {
+            CliHandler cli = new CliHandler(enrollmentService, snapshotService, eventBus);
+            cli.start();
+        }
+
+        if (apiServer != null) {
+            apiServer.stop(2); // Lets in-flight requests finish
+        }
+        eventBus.close(); // Delivers the remaining events first
+        if (eventLog != null) {
+            try {
+                eventLog.close();
+            } catch (IOException e) {
+                System.err.println("Failed to close enrollment event log: " + e.getMessage());
+            }
+        }
+
+        if (journal != null) {
+            try {
+                journal.close();
+            } catch (IOException e) {
+                System.err.println("Failed to close journal: " + e.getMessage());
+            }
+        }
+        if (exitCode != 0) {
+            System.exit(exitCode);
+        }
+    }
+
+    // "--batch <file>" or "--batch -" for stdin; without a path it exits with the usage message,
+    // rather than waiting on stdin or taking the next option for a file name
+    private static String batchSource(String[] args) {
+        for (int i = 0; i < args.length; i++) {
+            if (args[i].equals("--batch")) {
+                if (i + 1 == args.length || args[i + 1].startsWith("--")) {
+                    System.err.println("--batch needs a file name, or - to read commands from stdin.");
+                    System.err.println(USAGE);
+                    System.exit(2);
+                }
+                return args[i + 1];
+            }
+        }
+        return null;
+    }
+
+    // "--http" on the default port, or "--http <port>"; localhost only unless "--http-bind <address>" is given
+    private static ApiServer startApiServer(String[] args, DataStore dataStore, EnrollmentService enrollmentService) {
+        for (int i = 0; i < args.length; i++) {
+            if (!args[i].equals("--http")) continue;
+            int port = ApiServer.DEFAULT_PORT;
+            if (i + 1 < args.length && !args[i + 1].startsWith("--")) {
+                try {
+                    port = Integer.parseInt(args[i + 1]);
+                } catch (NumberFormatException e) {
+                    System.err.println("Invalid HTTP port '" + args[i + 1] + "', using " + port + ".");
+                }
+            }
+            InetAddress bindAddress = InetAddress.getLoopbackAddress();
+            String bind = optionValue(args, "--http-bind");
+            if (bind != null) {
+                try {
+                    bindAddress = InetAddress.getByName(bind);
+                } catch (UnknownHostException e) {
+                    System.err.println("Unknown HTTP bind address '" + bind + "', HTTP API not started.");
+                    return null;
+                }
+            }
+            ApiServer server = new ApiServer(dataStore, enrollmentService);
+            try {
+                server.start(bindAddress, port);
+                return server;
+            } catch (IOException e) {
+                System.err.println("Could not start HTTP API on port " + port + ": " + e.getMessage());
+                return null;
+            }
+        }
+        return null;
+    }
+
+    private static String optionValue(String[] args, String option) {
+        for (int i = 0; i + 1 < args.length; i++) {
+            if (args[i].equals(option)) return args[i + 1];
+        }
+        return null;
+    }
+
+    private static int runBatch(String source, DataStore dataStore, EnrollmentService enrollmentService) {
+        BatchCommandRunner runner = new BatchCommandRunner(dataStore, enrollmentService,
+                new DataPersistenceService(), new BackupService());
+        try (Reader input = source.equals("-")
+                ? new InputStreamReader(System.in, StandardCharsets.UTF_8)
+                : Files.newBufferedReader(Paths.get(source))) {
+            return runner.run(input, new FileOutputStream(FileDescriptor.out));
+        } catch (IOException e) {
+            System.err.println("Cannot read batch file " + source + ": " + e.getMessage());
+            return 2;
+        }
+    }
+
+    private static Journal openJournal() {
+        try {
+            return Journal.open(Journal.DEFAULT_DIRECTORY);
+        } catch (IOException e) {
+            System.err.println("Could not open journal, running without durability: " + e.getMessage());
+            return null;
+        }
+    }
+
+    private static EnrollmentEventLog openEventLog() {
+        try {
+            return new EnrollmentEventLog(EnrollmentEventLog.DEFAULT_LOG);
+        } catch (IOException e) {
+            System.err.println("Could not open enrollment event log: " + e.getMessage());
+            return null;
+        }
+    }
+
+    private static void seedDemoData(DataStore dataStore) {
         // --- Setup initial data for testing ---
         Student student1 = new Student(1, "Alice Johnson", "alice@example.com", LocalDate.of(2002, 5, 20), "S001");
         Instructor profDavis = new Instructor(101, "Prof. Robert Davis", "davis@example.com", LocalDate.of(1975, 11, 30), "Computer Science", "Professor");
@@ -27,14 +214,8 @@ public class Main {
                 .semester(Semester.FALL)
                 .build();
         
-        dataStore.getStudents().add(student1);
-        dataStore.getCourses().add(cs101);
-
-        // Initialize the services with the data from the DataStore
-        EnrollmentService enrollmentService = new EnrollmentServiceImpl(dataStore.getStudents(), dataStore.getCourses());
-
-        // Initialize and start the command-line interface
-        CliHandler cli = new CliHandler(enrollmentService);
-        cli.start();
+        dataStore.addStudent(student1);
+        dataStore.addInstructor(profDavis);
+        dataStore.addCourse(cs101);
     }
 }
\ No newline at end of file
@@ -0,0 +1,684 @@
+// File: src/edu/ccrm/api/ApiServer.java
+package edu.ccrm.api;
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+import edu.ccrm.config.DataStore;
+import edu.ccrm.domain.Course;
+import edu.ccrm.domain.Instructor;
+import edu.ccrm.domain.Person;
+import edu.ccrm.domain.RequisiteType;
+import edu.ccrm.domain.Semester;
+import edu.ccrm.domain.Student;
+import edu.ccrm.domain.StudentStatus;
+import edu.ccrm.domain.TimeSlot;
+import edu.ccrm.exception.CourseFullException;
+import edu.ccrm.exception.DuplicateEnrollmentException;
+import edu.ccrm.exception.MaxCreditLimitExceededException;
+import edu.ccrm.exception.PrerequisiteNotMetException;
+import edu.ccrm.exception.ScheduleConflictException;
+import edu.ccrm.service.CourseQuery;
+import edu.ccrm.service.EnrollmentService;
+import edu.ccrm.service.Page;
+import edu.ccrm.service.QueryService;
+import edu.ccrm.service.ScheduleConflict;
+import edu.ccrm.service.StudentQuery;
+import edu.ccrm.service.TimetableService;
+import edu.ccrm.util.JsonParser;
+import edu.ccrm.util.JsonWriter;
+
+import java.io.BufferedWriter;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStreamWriter;
+import java.lang.reflect.Method;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.net.URLDecoder;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.time.format.DateTimeParseException;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * An embedded HTTP/JSON API over the shared DataStore, on the JDK's built-in HTTP server.
+ * <pre>
+ *   GET    /students?status&department&semester&course&minGpa&limit&after
+ *                                         POST /students   {id, regNo, fullName, email, dateOfBirth}
+ *   GET    /students/{regNo}              DELETE /students/{regNo}
+ *   GET    /students/{regNo}/courses
+ *   GET    /courses?department&semester&instructorId&maxCredits&openTo&limit&after
+ *                                         POST /courses    {code, title, credits, department, semester[, instructorId, capacity, timeSlots]}
+ *   GET    /courses/{code}                DELETE /courses/{code}
+ *   GET    /courses/{code}/roster
+ *   GET    /courses/{code}/requisites     POST /courses/{code}/requisites   {code[, type]}
+ *   DELETE /courses/{code}/requisites/{requiredCode}
+ *   POST   /enrollments {regNo, courseCode}  (202 with the waitlist position if the course is full)
+ *   DELETE /enrollments/{regNo}/{courseCode}
+ *   GET    /conflicts                    (every student's overlapping courses)
+ * </pre>
+ * A course's timeSlots are strings like "MON 09:00-10:30", as an array or one ';'-separated string.
+ * The two list routes are paged searches: every filter is optional, and the response is
+ * {@code {"items": [...], "nextCursor": cursor-or-null}}; pass the cursor as {@code after} for the next page.
+ * <p>
+ * Each request runs on its own virtual thread when the JVM has them (Java 21+), otherwise on a
+ * fixed pool of platform threads. There is no authentication, so it listens on the loopback
+ * interface unless started with another bind address. Responses are streamed with chunked encoding as they are encoded,
+ * so listing a million students never builds the whole document in memory. Errors are
+ * {@code {"error": message, "type": errorType}} with a 4xx status.
+ */
+public class ApiServer {
+
+    public static final int DEFAULT_PORT = 8080;
+
+    private static final int ACCEPT_BACKLOG = 4096; // Room for bursts of thousands of local clients
+    private static final int MAX_BODY_BYTES = 64 * 1024;
+    private static final int IO_BUFFER_SIZE = 8 * 1024;
+
+    private final DataStore dataStore;
+    private final EnrollmentService enrollmentService;
+    private final QueryService queryService;
+    private final TimetableService timetableService;
+    private HttpServer server;
+    private ExecutorService executor;
+
+    public ApiServer(DataStore dataStore, EnrollmentService enrollmentService) {
+        this.dataStore = dataStore;
+        this.enrollmentService = enrollmentService;
+        this.queryService = new QueryService(dataStore);
+        this.timetableService = new TimetableService(dataStore);
+    }
+
+    /**
+     * Starts on the loopback interface only. The API has no authentication, so it is not
+     * reachable from other machines unless a bind address is given explicitly.
+     */
+    public void start(int port) throws IOException {
+        start(InetAddress.getLoopbackAddress(), port);
+    }
+
+    public synchronized void start(InetAddress bindAddress, int port) throws IOException {
+        if (server != null) {
+            throw new IllegalStateException("API server already started");
+        }
+        HttpServer httpServer = HttpServer.create(new InetSocketAddress(bindAddress, port), ACCEPT_BACKLOG);
+        httpServer.createContext("/", this::handle);
+        executor = newRequestExecutor();
+        httpServer.setExecutor(executor);
+        httpServer.start();
+        server = httpServer;
+        System.out.println("HTTP API listening on " + bindAddress.getHostAddress() + ":" + getPort() + ".");
+    }
+
+    public synchronized int getPort() {
+        return server == null ? -1 : server.getAddress().getPort();
+    }
+
+    /**
+     * Stops accepting connections, gives in-flight requests up to the delay to finish, then stops.
+     */
+    public synchronized void stop(int delaySeconds) {
+        if (server == null) return;
+        server.stop(delaySeconds);
+        executor.shutdown();
+        try {
+            executor.awaitTermination(delaySeconds, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        server = null;
+    }
+
+    // Executors.newVirtualThreadPerTaskExecutor() is looked up reflectively so the code still builds for Java 11
+    static ExecutorService newRequestExecutor() {
+        try {
+            Method factory = Executors.class.getMethod("newVirtualThreadPerTaskExecutor");
+            return (ExecutorService) factory.invoke(null);
+        } catch (ReflectiveOperationException e) {
+            int threads = Math.max(64, Runtime.getRuntime().availableProcessors() * 16);
+            AtomicInteger counter = new AtomicInteger();
+            ThreadFactory threadFactory = r -> {
+                Thread t = new Thread(r, "http-worker-" + counter.incrementAndGet());
+                t.setDaemon(true);
+                return t;
+            };
+            return Executors.newFixedThreadPool(threads, threadFactory);
+        }
+    }
+
+    // --- Routing ---
+
+    private void handle(HttpExchange exchange) throws IOException {
+        try {
+            String[] path = segments(exchange.getRequestURI().getRawPath());
+            String method = exchange.getRequestMethod().toUpperCase(Locale.ROOT);
+            if (path.length == 0) {
+                throw new ApiException(404, "NotFound", "No such resource");
+            }
+            switch (path[0]) {
+                case "students":
+                    routeStudents(exchange, method, path);
+                    break;
+                case "courses":
+                    routeCourses(exchange, method, path);
+                    break;
+                case "enrollments":
+                    routeEnrollments(exchange, method, path);
+                    break;
+                case "conflicts":
+                    if (path.length != 1) throw new ApiException(404, "NotFound", "No such resource");
+                    if (!method.equals("GET")) throw methodNotAllowed(exchange, "GET");
+                    listConflicts(exchange);
+                    break;
+                default:
+                    throw new ApiException(404, "NotFound", "No such resource");
+            }
+        } catch (ApiException e) {
+            sendError(exchange, e.status, e.type, e.getMessage());
+        } catch (IllegalArgumentException e) {
+            sendError(exchange, 400, "BadRequest", e.getMessage());
+        } catch (RuntimeException e) {
+            System.err.println("HTTP API request failed: " + e);
+            sendError(exchange, 500, e.getClass().getSimpleName(), "Internal error");
+        } finally {
+            exchange.close();
+        }
+    }
+
+    private void routeStudents(HttpExchange exchange, String method, String[] path) throws IOException {
+        if (path.length == 1) {
+            if (method.equals("GET")) listStudents(exchange);
+            else if (method.equals("POST")) createStudent(exchange);
+            else throw methodNotAllowed(exchange, "GET, POST");
+        } else if (path.length == 2) {
+            if (method.equals("GET")) sendStudent(exchange, 200, requireStudent(path[1]));
+            else if (method.equals("DELETE")) deleteStudent(exchange, path[1]);
+            else throw methodNotAllowed(exchange, "GET, DELETE");
+        } else if (path.length == 3 && path[2].equals("courses")) {
+            if (!method.equals("GET")) throw methodNotAllowed(exchange, "GET");
+            listStudentCourses(exchange, requireStudent(path[1]));
+        } else {
+            throw new ApiException(404, "NotFound", "No such resource");
+        }
+    }
+
+    private void routeCourses(HttpExchange exchange, String method, String[] path) throws IOException {
+        if (path.length == 1) {
+            if (method.equals("GET")) listCourses(exchange);
+            else if (method.equals("POST")) createCourse(exchange);
+            else throw methodNotAllowed(exchange, "GET, POST");
+        } else if (path.length == 2) {
+            if (method.equals("GET")) sendCourse(exchange, 200, requireCourse(path[1]));
+            else if (method.equals("DELETE")) deleteCourse(exchange, path[1]);
+            else throw methodNotAllowed(exchange, "GET, DELETE");
+        } else if (path.length == 3 && path[2].equals("roster")) {
+            if (!method.equals("GET")) throw methodNotAllowed(exchange, "GET");
+            listRoster(exchange, requireCourse(path[1]));
+        } else if (path.length == 3 && path[2].equals("requisites")) {
+            if (method.equals("GET")) sendRequisites(exchange, 200, requireCourse(path[1]));
+            else if (method.equals("POST")) addRequisite(exchange, requireCourse(path[1]));
+            else throw methodNotAllowed(exchange, "GET, POST");
+        } else if (path.length == 4 && path[2].equals("requisites")) {
+            if (!method.equals("DELETE")) throw methodNotAllowed(exchange, "DELETE");
+            removeRequisite(exchange, requireCourse(path[1]), requireCourse(path[3]));
+        } else {
+            throw new ApiException(404, "NotFound", "No such resource");
+        }
+    }
+
+    private void routeEnrollments(HttpExchange exchange, String method, String[] path) throws IOException {
+        if (path.length == 1) {
+            if (!method.equals("POST")) throw methodNotAllowed(exchange, "POST");
+            enroll(exchange);
+        } else if (path.length == 3) {
+            if (!method.equals("DELETE")) throw methodNotAllowed(exchange, "DELETE");
+            unenroll(exchange, path[1], path[2]);
+        } else {
+            throw new ApiException(404, "NotFound", "No such resource");
+        }
+    }
+
+    // --- Students ---
+
+    private void listStudents(HttpExchange exchange) throws IOException {
+        Map<String, String> params = queryParameters(exchange);
+        StudentQuery.Builder query = new StudentQuery.Builder()
+                .department(params.get("department"))
+                .courseCode(params.get("course"))
+                .after(params.get("after"));
+        if (params.containsKey("status")) query.status(StudentStatus.valueOf(params.get("status").toUpperCase(Locale.ROOT)));
+        if (params.containsKey("semester")) query.semester(Semester.valueOf(params.get("semester").toUpperCase(Locale.ROOT)));
+        if (params.containsKey("minGpa")) query.minGpa(parseNumber(params, "minGpa"));
+        if (params.containsKey("limit")) query.limit(parseNumber(params, "limit").intValue());
+        Page<Student> page = queryService.findStudents(query.build());
+        try (JsonResponse response = new JsonResponse(exchange, 200)) {
+            response.json.beginObject().name("items").beginArray();
+            for (Student s : page.getItems()) {
+                writeStudent(response.json, s);
+            }
+            response.json.endArray().field("nextCursor", page.getNextCursor()).endObject();
+        }
+    }
+
+    private void createStudent(HttpExchange exchange) throws IOException {
+        Map<String, Object> body = readBody(exchange);
+        String regNo = requireString(body, "regNo");
+        Student student = new Student(requireInt(body, "id"), requireString(body, "fullName"),
+                requireString(body, "email"), parseDate(requireString(body, "dateOfBirth")), regNo);
+        if (!dataStore.addStudent(student)) {
+            throw new ApiException(409, "DuplicateStudent", "A student with that ID or Registration Number already exists");
+        }
+        sendStudent(exchange, 201, student);
+    }
+
+    private void deleteStudent(HttpExchange exchange, String regNo) throws IOException {
+        Student removed = enrollmentService.removeStudent(regNo)
+                .orElseThrow(() -> new ApiException(404, "NotFound", "Student " + regNo + " not found"));
+        sendStudent(exchange, 200, removed);
+    }
+
+    private void listStudentCourses(HttpExchange exchange, Student student) throws IOException {
+        try (JsonResponse response = new JsonResponse(exchange, 200)) {
+            response.json.beginArray();
+            for (Course c : enrollmentService.findCoursesByStudent(student.getRegNo())) {
+                writeCourse(response.json, c);
+            }
+            response.json.endArray();
+        }
+    }
+
+    private void sendStudent(HttpExchange exchange, int status, Student student) throws IOException {
+        try (JsonResponse response = new JsonResponse(exchange, status)) {
+            writeStudent(response.json, student);
+        }
+    }
+
+    // --- Courses ---
+
+    private void listCourses(HttpExchange exchange) throws IOException {
+        Map<String, String> params = queryParameters(exchange);
+        CourseQuery.Builder query = new CourseQuery.Builder()
+                .department(params.get("department"))
+                .after(params.get("after"));
+        if (params.containsKey("semester")) query.semester(Semester.valueOf(params.get("semester").toUpperCase(Locale.ROOT)));
+        if (params.containsKey("instructorId")) query.instructorId(parseNumber(params, "instructorId").intValue());
+        if (params.containsKey("maxCredits")) query.maxCredits(parseNumber(params, "maxCredits").intValue());
+        if (params.containsKey("openTo")) query.openTo(requireStudent(params.get("openTo")));
+        if (params.containsKey("limit")) query.limit(parseNumber(params, "limit").intValue());
+        Page<Course> page = queryService.findCourses(query.build());
+        try (JsonResponse response = new JsonResponse(exchange, 200)) {
+            response.json.beginObject().name("items").beginArray();
+            for (Course c : page.getItems()) {
+                writeCourse(response.json, c);
+            }
+            response.json.endArray().field("nextCursor", page.getNextCursor()).endObject();
+        }
+    }
+
+    private void createCourse(HttpExchange exchange) throws IOException {
+        Map<String, Object> body = readBody(exchange);
+        int credits = requireInt(body, "credits");
+        if (credits <= 0) {
+            throw new IllegalArgumentException("Field 'credits' must be positive");
+        }
+        Course.Builder builder = new Course.Builder(requireString(body, "code"), requireString(body, "title"))
+                .credits(credits)
+                .department(requireString(body, "department"))
+                .semester(Semester.valueOf(requireString(body, "semester").toUpperCase(Locale.ROOT)));
+        if (body.get("capacity") != null) {
+            builder.capacity(requireInt(body, "capacity"));
+        }
+        if (body.get("timeSlots") != null) {
+            builder.timeSlots(parseTimeSlots(body.get("timeSlots")));
+        }
+        if (body.get("instructorId") != null) {
+            int instructorId = requireInt(body, "instructorId");
+            Optional<Person> instructor = dataStore.findPersonById(instructorId);
+            if (instructor.isEmpty() || !(instructor.get() instanceof Instructor)) {
+                throw new ApiException(404, "NotFound", "Instructor " + instructorId + " not found");
+            }
+            builder.instructor((Instructor) instructor.get());
+        }
+        Course course = builder.build();
+        if (!dataStore.addCourse(course)) {
+            throw new ApiException(409, "DuplicateCourse", "A course with that code already exists");
+        }
+        sendCourse(exchange, 201, course);
+    }
+
+    // The store unenrolls the roster and drops the waitlist as part of the removal
+    private void deleteCourse(HttpExchange exchange, String code) throws IOException {
+        Course removed = dataStore.removeCourse(code)
+                .orElseThrow(() -> new ApiException(404, "NotFound", "Course " + code + " not found"));
+        sendCourse(exchange, 200, removed);
+    }
+
+    private void listRoster(HttpExchange exchange, Course course) throws IOException {
+        try (JsonResponse response = new JsonResponse(exchange, 200)) {
+            response.json.beginArray();
+            for (Student s : dataStore.getRoster(course.getCode())) {
+                writeStudent(response.json, s);
+            }
+            response.json.endArray();
+        }
+    }
+
+    // A cycle or a self-requirement is an IllegalArgumentException, so it is answered with 400
+    private void addRequisite(HttpExchange exchange, Course course) throws IOException {
+        Map<String, Object> body = readBody(exchange);
+        Course required = requireCourse(requireString(body, "code"));
+        RequisiteType type = body.get("type") == null ? RequisiteType.PREREQUISITE
+                : RequisiteType.valueOf(requireString(body, "type").toUpperCase(Locale.ROOT));
+        if (!dataStore.addRequisite(course, required, type)) {
+            throw new ApiException(404, "NotFound", "Course was removed");
+        }
+        sendRequisites(exchange, 201, course);
+    }
+
+    private void removeRequisite(HttpExchange exchange, Course course, Course required) throws IOException {
+        if (!dataStore.removeRequisite(course, required)) {
+            throw new ApiException(404, "NotFound", course.getCode() + " does not require " + required.getCode());
+        }
+        sendRequisites(exchange, 200, course);
+    }
+
+    private void sendRequisites(HttpExchange exchange, int status, Course course) throws IOException {
+        try (JsonResponse response = new JsonResponse(exchange, status)) {
+            response.json.beginObject().field("courseCode", course.getCode()).name("requisites").beginArray();
+            for (Map.Entry<String, RequisiteType> requisite : dataStore.getRequisites(course.getCode()).entrySet()) {
+                response.json.beginObject()
+                        .field("code", requisite.getKey())
+                        .field("type", requisite.getValue().name())
+                        .endObject();
+            }
+            response.json.endArray().name("transitive").beginArray();
+            for (String code : dataStore.getTransitiveRequisites(course.getCode())) {
+                response.json.value(code);
+            }
+            response.json.endArray().endObject();
+        }
+    }
+
+    // --- Timetables ---
+
+    private void listConflicts(HttpExchange exchange) throws IOException {
+        List<ScheduleConflict> conflicts = timetableService.findAllConflicts();
+        try (JsonResponse response = new JsonResponse(exchange, 200)) {
+            response.json.beginObject().field("count", conflicts.size()).name("items").beginArray();
+            for (ScheduleConflict conflict : conflicts) {
+                response.json.beginObject()
+                        .field("regNo", conflict.getStudent().getRegNo())
+                        .name("courses").beginArray();
+                writeCourseSchedule(response.json, conflict.getFirst());
+                writeCourseSchedule(response.json, conflict.getSecond());
+                response.json.endArray().endObject();
+            }
+            response.json.endArray().endObject();
+        }
+    }
+
+    private static void writeCourseSchedule(JsonWriter json, Course c) throws IOException {
+        json.beginObject().field("code", c.getCode()).field("semester", c.getSemester().name());
+        writeTimeSlots(json, c);
+        json.endObject();
+    }
+
+    private void sendCourse(HttpExchange exchange, int status, Course course) throws IOException {
+        try (JsonResponse response = new JsonResponse(exchange, status)) {
+            writeCourse(response.json, course);
+        }
+    }
+
+    // --- Enrollments ---
+
+    private void enroll(HttpExchange exchange) throws IOException {
+        Map<String, Object> body = readBody(exchange);
+        Student student = requireStudent(requireString(body, "regNo"));
+        Course course = requireCourse(requireString(body, "courseCode"));
+        try {
+            enrollmentService.enrollStudent(student, course);
+        } catch (DuplicateEnrollmentException | MaxCreditLimitExceededException | PrerequisiteNotMetException
+                | ScheduleConflictException e) {
+            throw new ApiException(409, e.getClass().getSimpleName(), e.getMessage());
+        } catch (CourseFullException e) {
+            try (JsonResponse response = new JsonResponse(exchange, 202)) {
+                response.json.beginObject()
+                        .field("regNo", student.getRegNo())
+                        .field("courseCode", course.getCode())
+                        .field("waitlistPosition", e.getWaitlistPosition())
+                        .endObject();
+            }
+            return;
+        }
+        sendEnrollment(exchange, 201, student, course);
+    }
+
+    private void unenroll(HttpExchange exchange, String regNo, String courseCode) throws IOException {
+        Student student = requireStudent(regNo);
+        Course course = requireCourse(courseCode);
+        // Decided by the service under the student's lock; a check made here could be stale by then
+        if (!enrollmentService.unenrollStudent(student, course)) {
+            throw new ApiException(404, "NotFound", "Student " + student.getRegNo() + " is not enrolled in " + course.getCode());
+        }
+        sendEnrollment(exchange, 200, student, course);
+    }
+
+    private void sendEnrollment(HttpExchange exchange, int status, Student student, Course course) throws IOException {
+        try (JsonResponse response = new JsonResponse(exchange, status)) {
+            response.json.beginObject()
+                    .field("regNo", student.getRegNo())
+                    .field("courseCode", course.getCode())
+                    .endObject();
+        }
+    }
+
+    // --- JSON encoding ---
+
+    private static void writeStudent(JsonWriter json, Student s) throws IOException {
+        json.beginObject()
+                .field("id", s.getId())
+                .field("regNo", s.getRegNo())
+                .field("fullName", s.getFullName())
+                .field("email", s.getEmail())
+                .field("dateOfBirth", s.getDateOfBirth() == null ? null : s.getDateOfBirth().toString())
+                .field("status", s.getStatus() == null ? null : s.getStatus().name())
+                .endObject();
+    }
+
+    private void writeCourse(JsonWriter json, Course c) throws IOException {
+        json.beginObject()
+                .field("code", c.getCode())
+                .field("title", c.getTitle())
+                .field("credits", c.getCredits())
+                .field("capacity", c.getCapacity())
+                .field("seatsTaken", c.getSeatsTaken())
+                .field("waitlisted", c.getWaitlistSize())
+                .field("department", c.getDepartment())
+                .field("semester", c.getSemester() == null ? null : c.getSemester().name());
+        writeTimeSlots(json, c);
+        Instructor instructor = c.getInstructor();
+        json.name("instructor");
+        if (instructor == null) {
+            json.nullValue();
+        } else {
+            json.beginObject()
+                    .field("id", instructor.getId())
+                    .field("fullName", instructor.getFullName())
+                    .endObject();
+        }
+        json.field("enrolled", dataStore.getEnrollmentCount(c.getCode()))
+                .endObject();
+    }
+
+    private static void writeTimeSlots(JsonWriter json, Course c) throws IOException {
+        json.name("timeSlots").beginArray();
+        for (TimeSlot slot : c.getTimeSlots()) {
+            json.value(slot.toString());
+        }
+        json.endArray();
+    }
+
+    // --- Request helpers ---
+
+    private Student requireStudent(String regNo) {
+        return dataStore.findStudentByRegNo(regNo)
+                .orElseThrow(() -> new ApiException(404, "NotFound", "Student " + regNo + " not found"));
+    }
+
+    private Course requireCourse(String code) {
+        return dataStore.findCourseByCode(code)
+                .orElseThrow(() -> new ApiException(404, "NotFound", "Course " + code + " not found"));
+    }
+
+    private static Map<String, Object> readBody(HttpExchange exchange) throws IOException {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        byte[] buffer = new byte[IO_BUFFER_SIZE];
+        try (InputStream in = exchange.getRequestBody()) {
+            int n;
+            while ((n = in.read(buffer)) != -1) {
+                if (bytes.size() + n > MAX_BODY_BYTES) {
+                    throw new ApiException(413, "PayloadTooLarge", "Request body exceeds " + MAX_BODY_BYTES + " bytes");
+                }
+                bytes.write(buffer, 0, n);
+            }
+        }
+        return JsonParser.parseObject(bytes.toString(StandardCharsets.UTF_8.name()));
+    }
+
+    private static String requireString(Map<String, Object> body, String field) {
+        Object value = body.get(field);
+        if (!(value instanceof String) || ((String) value).trim().isEmpty()) {
+            throw new IllegalArgumentException("Field '" + field + "' must be a non-empty string");
+        }
+        return ((String) value).trim();
+    }
+
+    private static int requireInt(Map<String, Object> body, String field) {
+        Object value = body.get(field);
+        if (!(value instanceof Long) || (Long) value < Integer.MIN_VALUE || (Long) value > Integer.MAX_VALUE) {
+            throw new IllegalArgumentException("Field '" + field + "' must be an integer");
+        }
+        return ((Long) value).intValue();
+    }
+
+    private static List<TimeSlot> parseTimeSlots(Object value) {
+        if (value instanceof String) {
+            return TimeSlot.parseSchedule((String) value);
+        }
+        if (!(value instanceof List)) {
+            throw new IllegalArgumentException("Field 'timeSlots' must be an array of strings like \"MON 09:00-10:30\"");
+        }
+        List<TimeSlot> slots = new ArrayList<>();
+        for (Object slot : (List<?>) value) {
+            if (!(slot instanceof String)) {
+                throw new IllegalArgumentException("Field 'timeSlots' must be an array of strings like \"MON 09:00-10:30\"");
+            }
+            slots.add(TimeSlot.parse((String) slot));
+        }
+        return slots;
+    }
+
+    private static LocalDate parseDate(String value) {
+        try {
+            return LocalDate.parse(value);
+        } catch (DateTimeParseException e) {
+            throw new IllegalArgumentException("Dates must be yyyy-mm-dd, got '" + value + "'");
+        }
+    }
+
+    // Blank parameters are left out, so "?status=" means no status filter
+    private static Map<String, String> queryParameters(HttpExchange exchange) {
+        Map<String, String> params = new HashMap<>();
+        String query = exchange.getRequestURI().getRawQuery();
+        if (query == null) return params;
+        for (String pair : query.split("&")) {
+            int eq = pair.indexOf('=');
+            if (eq <= 0) continue;
+            String value = URLDecoder.decode(pair.substring(eq + 1), StandardCharsets.UTF_8).trim();
+            if (!value.isEmpty()) {
+                params.put(URLDecoder.decode(pair.substring(0, eq), StandardCharsets.UTF_8), value);
+            }
+        }
+        return params;
+    }
+
+    private static Double parseNumber(Map<String, String> params, String name) {
+        try {
+            return Double.valueOf(params.get(name));
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException("Parameter '" + name + "' must be a number");
+        }
+    }
+
+    private static String[] segments(String rawPath) {
+        String trimmed = rawPath.replaceAll("^/+|/+$", "");
+        if (trimmed.isEmpty()) return new String[0];
+        String[] segments = trimmed.split("/+");
+        for (int i = 0; i < segments.length; i++) {
+            segments[i] = URLDecoder.decode(segments[i].replace("+", "%2B"), StandardCharsets.UTF_8);
+        }
+        return segments;
+    }
+
+    private static ApiException methodNotAllowed(HttpExchange exchange, String allowed) {
+        exchange.getResponseHeaders().set("Allow", allowed);
+        return new ApiException(405, "MethodNotAllowed", "Allowed methods: " + allowed);
+    }
+
+    private static void sendError(HttpExchange exchange, int status, String type, String message) {
+        try (JsonResponse response = new JsonResponse(exchange, status)) {
+            response.json.beginObject()
+                    .field("error", message)
+                    .field("type", type)
+                    .endObject();
+        } catch (IOException e) {
+            // The client has gone away; nothing left to tell it
+        }
+    }
+
+    /**
+     * A JSON response body streamed with chunked encoding; closing it finishes the response.
+     */
+    private static class JsonResponse implements AutoCloseable {
+        final JsonWriter json;
+
+        JsonResponse(HttpExchange exchange, int status) throws IOException {
+            exchange.getResponseHeaders().set("Content-Type", "application/json; charset=utf-8");
+            exchange.sendResponseHeaders(status, 0);
+            json = new JsonWriter(new BufferedWriter(
+                    new OutputStreamWriter(exchange.getResponseBody(), StandardCharsets.UTF_8), IO_BUFFER_SIZE));
+        }
+
+        @Override
+        public void close() throws IOException {
+            json.close();
+        }
+    }
+
+    /**
+     * A request that fails with a specific HTTP status.
+     */
+    private static class ApiException extends RuntimeException {
+        private static final long serialVersionUID = 1L;
+
+        final int status;
+        final String type;
+
+        ApiException(int status, String type, String message) {
+            super(message);
+            this.status = status;
+            this.type = type;
+        }
+    }
+}
@@ -0,0 +1,427 @@
+// File: src/edu/ccrm/cli/BatchCommandRunner.java
+package edu.ccrm.cli;
+
+import edu.ccrm.config.DataStore;
+import edu.ccrm.domain.Course;
+import edu.ccrm.domain.Grade;
+import edu.ccrm.domain.Instructor;
+import edu.ccrm.domain.Person;
+import edu.ccrm.domain.RequisiteType;
+import edu.ccrm.domain.Semester;
+import edu.ccrm.domain.Student;
+import edu.ccrm.domain.TimeSlot;
+import edu.ccrm.exception.CourseFullException;
+import edu.ccrm.exception.DuplicateEnrollmentException;
+import edu.ccrm.exception.MaxCreditLimitExceededException;
+import edu.ccrm.exception.NotEnrolledException;
+import edu.ccrm.exception.PrerequisiteNotMetException;
+import edu.ccrm.exception.ScheduleConflictException;
+import edu.ccrm.io.BackupService;
+import edu.ccrm.io.DataPersistenceService;
+import edu.ccrm.io.StudentCsvParser;
+import edu.ccrm.service.EnrollmentRequest;
+import edu.ccrm.service.EnrollmentResult;
+import edu.ccrm.service.EnrollmentService;
+import edu.ccrm.service.GradeService;
+import edu.ccrm.service.GradeServiceImpl;
+
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.PrintStream;
+import java.io.Reader;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.Optional;
+
+/**
+ * Runs commands from a file or piped stdin without the menu, for scripts.
+ * <p>
+ * One command per line, fields separated by commas (blank lines and lines starting with # are skipped):
+ * <pre>
+ *   add-student,id,regNo,fullName,email,yyyy-mm-dd
+ *   add-course,code,title,credits,department,SEMESTER[,instructorId[,capacity[,schedule]]]
+ *     (schedule: meeting times separated by ';', e.g. MON 09:00-10:30;WED 09:00-10:30)
+ *   add-requisite,courseCode,requiredCourseCode[,PREREQUISITE|COREQUISITE]
+ *   remove-requisite,courseCode,requiredCourseCode
+ *   enroll,regNo,courseCode
+ *   unenroll,regNo,courseCode
+ *   grade,regNo,courseCode,GRADE
+ *   export
+ *   backup
+ * </pre>
+ * Each command produces one tab-separated result line, in input order:
+ * {@code line  OK|ERROR  command  [errorType  message]}. A summary goes to stderr.
+ * <p>
+ * Runs of consecutive add-student or enroll commands are applied as one batch (a single
+ * {@code addStudents} or {@code enrollAll} call), so a long script is paced by the store and the
+ * journal's group commit rather than one durable write per line. Any other command first completes
+ * the pending batch, so every command still sees the effect of the ones before it. Within a batch,
+ * enrolls into capacity-limited courses take seats and waitlist places in input order.
+ */
+public class BatchCommandRunner {
+
+    private static final int MAX_BATCH = 4096;
+    private static final int IO_BUFFER_SIZE = 1 << 16;
+
+    private final DataStore dataStore;
+    private final EnrollmentService enrollmentService;
+    private final GradeService gradeService;
+    private final DataPersistenceService persistenceService;
+    private final BackupService backupService;
+
+    // The pending batch: all add-student or all enroll commands, never mixed
+    private final List<String> pendingLines = new ArrayList<>();
+    private final List<Long> pendingLineNumbers = new ArrayList<>();
+    private final List<Student> pendingStudents = new ArrayList<>();
+    private final List<EnrollmentRequest> pendingEnrollments = new ArrayList<>();
+
+    private Writer out;
+    private long succeeded;
+    private long failed;
+
+    public BatchCommandRunner(DataStore dataStore, EnrollmentService enrollmentService,
+                              DataPersistenceService persistenceService, BackupService backupService) {
+        this.dataStore = dataStore;
+        this.enrollmentService = enrollmentService;
+        this.gradeService = new GradeServiceImpl(dataStore);
+        this.persistenceService = persistenceService;
+        this.backupService = backupService;
+    }
+
+    /**
+     * Runs every command from the input. While it runs, anything the services print to System.out
+     * is sent to stderr instead, so the output stream carries only result lines.
+     * @return 0 if every command succeeded, 1 if any failed, 2 if the input could not be read.
+     */
+    public int run(Reader input, OutputStream output) {
+        long start = System.nanoTime();
+        PrintStream console = System.out;
+        System.setOut(System.err);
+        out = new BufferedWriter(new OutputStreamWriter(output, StandardCharsets.UTF_8), IO_BUFFER_SIZE);
+        int exitCode;
+        try (BufferedReader reader = new BufferedReader(input, IO_BUFFER_SIZE)) {
+            long lineNumber = 0;
+            String line;
+            while ((line = reader.readLine()) != null) {
+                lineNumber++;
+                String command = line.trim();
+                if (!command.isEmpty() && !command.startsWith("#")) {
+                    execute(lineNumber, command);
+                }
+            }
+            flushPending();
+            exitCode = failed == 0 ? 0 : 1;
+        } catch (IOException e) {
+            System.err.println("Batch input failed: " + e.getMessage());
+            exitCode = 2;
+        } finally {
+            try {
+                out.flush();
+            } catch (IOException e) {
+                System.err.println("Could not write batch results: " + e.getMessage());
+            }
+            System.setOut(console);
+        }
+        System.err.printf("Batch finished: %d succeeded, %d failed in %d ms%n",
+                succeeded, failed, (System.nanoTime() - start) / 1_000_000);
+        return exitCode;
+    }
+
+    private void execute(long lineNumber, String line) throws IOException {
+        int comma = line.indexOf(',');
+        String name = (comma < 0 ? line : line.substring(0, comma)).trim().toLowerCase(Locale.ROOT);
+        String arguments = comma < 0 ? "" : line.substring(comma + 1);
+
+        switch (name) {
+            case "add-student":
+                queueStudent(lineNumber, line, arguments);
+                break;
+            case "enroll":
+                queueEnrollment(lineNumber, line, arguments);
+                break;
+            case "add-course":
+                flushPending();
+                addCourse(lineNumber, line, arguments);
+                break;
+            case "add-requisite":
+                flushPending();
+                addRequisite(lineNumber, line, arguments);
+                break;
+            case "remove-requisite":
+                flushPending();
+                removeRequisite(lineNumber, line, arguments);
+                break;
+            case "unenroll":
+                flushPending();
+                unenroll(lineNumber, line, arguments);
+                break;
+            case "grade":
+                flushPending();
+                grade(lineNumber, line, arguments);
+                break;
+            case "export":
+                flushPending();
+                persistenceService.exportAll(dataStore);
+                ok(lineNumber, line);
+                break;
+            case "backup":
+                flushPending();
+                backupService.performBackup();
+                ok(lineNumber, line);
+                break;
+            default:
+                flushPending();
+                error(lineNumber, line, "UnknownCommand", "Unknown command '" + name + "'");
+        }
+    }
+
+    // --- Batched commands ---
+
+    private void queueStudent(long lineNumber, String line, String arguments) throws IOException {
+        if (!pendingEnrollments.isEmpty()) flushPending();
+        Student student;
+        try {
+            student = StudentCsvParser.parse(arguments);
+        } catch (IllegalArgumentException e) {
+            flushPending(); // Keep the results in input order
+            error(lineNumber, line, "ParseError", e.getMessage());
+            return;
+        }
+        pendingLines.add(line);
+        pendingLineNumbers.add(lineNumber);
+        pendingStudents.add(student);
+        if (pendingStudents.size() == MAX_BATCH) flushPending();
+    }
+
+    private void queueEnrollment(long lineNumber, String line, String arguments) throws IOException {
+        if (!pendingStudents.isEmpty()) flushPending();
+        String[] fields = fields(arguments, 2);
+        if (fields == null) {
+            flushPending(); // Keep the results in input order
+            error(lineNumber, line, "ParseError", "expected enroll,regNo,courseCode");
+            return;
+        }
+        pendingLines.add(line);
+        pendingLineNumbers.add(lineNumber);
+        pendingEnrollments.add(new EnrollmentRequest(fields[0], fields[1]));
+        if (pendingEnrollments.size() == MAX_BATCH) flushPending();
+    }
+
+    private void flushPending() throws IOException {
+        if (!pendingStudents.isEmpty()) {
+            boolean[] added = dataStore.addStudents(pendingStudents);
+            for (int i = 0; i < added.length; i++) {
+                if (added[i]) {
+                    ok(pendingLineNumbers.get(i), pendingLines.get(i));
+                } else {
+                    error(pendingLineNumbers.get(i), pendingLines.get(i), "DuplicateStudent",
+                            "A student with that ID or Registration Number already exists");
+                }
+            }
+        } else if (!pendingEnrollments.isEmpty()) {
+            List<EnrollmentResult> results = enrollmentService.enrollAll(pendingEnrollments);
+            for (int i = 0; i < results.size(); i++) {
+                EnrollmentResult result = results.get(i);
+                long lineNumber = pendingLineNumbers.get(i);
+                String line = pendingLines.get(i);
+                switch (result.getStatus()) {
+                    case SUCCESS:
+                        ok(lineNumber, line);
+                        break;
+                    case DUPLICATE:
+                        error(lineNumber, line, DuplicateEnrollmentException.class.getSimpleName(), "Already enrolled");
+                        break;
+                    case OVER_LIMIT:
+                        error(lineNumber, line, MaxCreditLimitExceededException.class.getSimpleName(), "Exceeds the semester credit limit");
+                        break;
+                    case MISSING_REQUISITE:
+                        error(lineNumber, line, PrerequisiteNotMetException.class.getSimpleName(), result.getMessage());
+                        break;
+                    case SCHEDULE_CONFLICT:
+                        error(lineNumber, line, ScheduleConflictException.class.getSimpleName(), result.getMessage());
+                        break;
+                    case WAITLISTED:
+                        error(lineNumber, line, CourseFullException.class.getSimpleName(), result.getMessage());
+                        break;
+                    default:
+                        error(lineNumber, line, "NotFound", result.getMessage());
+                }
+            }
+        }
+        pendingLines.clear();
+        pendingLineNumbers.clear();
+        pendingStudents.clear();
+        pendingEnrollments.clear();
+    }
+
+    // --- Immediate commands ---
+
+    private void addCourse(long lineNumber, String line, String arguments) throws IOException {
+        String[] fields = arguments.split(",", -1);
+        if (fields.length < 5 || fields.length > 8) {
+            error(lineNumber, line, "ParseError", "expected add-course,code,title,credits,department,SEMESTER[,instructorId[,capacity[,schedule]]]");
+            return;
+        }
+        try {
+            Course.Builder builder = new Course.Builder(fields[0].trim(), fields[1].trim())
+                    .credits(Integer.parseInt(fields[2].trim()))
+                    .department(fields[3].trim())
+                    .semester(Semester.valueOf(fields[4].trim().toUpperCase(Locale.ROOT)));
+            if (fields.length >= 7 && !fields[6].trim().isEmpty()) {
+                builder.capacity(Integer.parseInt(fields[6].trim()));
+            }
+            if (fields.length == 8) {
+                builder.timeSlots(TimeSlot.parseSchedule(fields[7]));
+            }
+            if (fields.length >= 6 && !fields[5].trim().isEmpty()) {
+                int instructorId = Integer.parseInt(fields[5].trim());
+                Optional<Person> instructor = dataStore.findPersonById(instructorId);
+                if (instructor.isEmpty() || !(instructor.get() instanceof Instructor)) {
+                    error(lineNumber, line, "NotFound", "Instructor " + instructorId + " not found");
+                    return;
+                }
+                builder.instructor((Instructor) instructor.get());
+            }
+            if (dataStore.addCourse(builder.build())) {
+                ok(lineNumber, line);
+            } else {
+                error(lineNumber, line, "DuplicateCourse", "A course with that code already exists");
+            }
+        } catch (IllegalArgumentException e) {
+            error(lineNumber, line, "ParseError", e.getMessage());
+        }
+    }
+
+    private void addRequisite(long lineNumber, String line, String arguments) throws IOException {
+        String[] fields = fields(arguments, 3);
+        if (fields == null) fields = fields(arguments, 2);
+        if (fields == null) {
+            error(lineNumber, line, "ParseError", "expected add-requisite,courseCode,requiredCourseCode[,PREREQUISITE|COREQUISITE]");
+            return;
+        }
+        RequisiteType type = RequisiteType.PREREQUISITE;
+        if (fields.length == 3) {
+            try {
+                type = RequisiteType.valueOf(fields[2].toUpperCase(Locale.ROOT));
+            } catch (IllegalArgumentException e) {
+                error(lineNumber, line, "ParseError", "Unknown requisite type '" + fields[2] + "'");
+                return;
+            }
+        }
+        Optional<Course> course = dataStore.findCourseByCode(fields[0]);
+        Optional<Course> required = dataStore.findCourseByCode(fields[1]);
+        if (course.isEmpty() || required.isEmpty()) {
+            error(lineNumber, line, "NotFound", "Course " + (course.isEmpty() ? fields[0] : fields[1]) + " not found");
+            return;
+        }
+        try {
+            if (dataStore.addRequisite(course.get(), required.get(), type)) {
+                ok(lineNumber, line);
+            } else {
+                error(lineNumber, line, "NotFound", "Course was removed");
+            }
+        } catch (IllegalArgumentException e) {
+            error(lineNumber, line, "InvalidRequisite", e.getMessage());
+        }
+    }
+
+    private void removeRequisite(long lineNumber, String line, String arguments) throws IOException {
+        String[] fields = fields(arguments, 2);
+        if (fields == null) {
+            error(lineNumber, line, "ParseError", "expected remove-requisite,courseCode,requiredCourseCode");
+            return;
+        }
+        Optional<Course> course = dataStore.findCourseByCode(fields[0]);
+        Optional<Course> required = dataStore.findCourseByCode(fields[1]);
+        if (course.isPresent() && required.isPresent() && dataStore.removeRequisite(course.get(), required.get())) {
+            ok(lineNumber, line);
+        } else {
+            error(lineNumber, line, "NotFound", fields[0] + " does not require " + fields[1]);
+        }
+    }
+
+    private void unenroll(long lineNumber, String line, String arguments) throws IOException {
+        String[] fields = fields(arguments, 2);
+        if (fields == null) {
+            error(lineNumber, line, "ParseError", "expected unenroll,regNo,courseCode");
+            return;
+        }
+        Optional<Student> student = dataStore.findStudentByRegNo(fields[0]);
+        Optional<Course> course = dataStore.findCourseByCode(fields[1]);
+        if (student.isEmpty() || course.isEmpty()) {
+            error(lineNumber, line, "NotFound", student.isEmpty() ? "Student not found" : "Course not found");
+            return;
+        }
+        if (!enrollmentService.unenrollStudent(student.get(), course.get())) {
+            error(lineNumber, line, "NotFound", fields[0] + " is not enrolled in " + fields[1]);
+            return;
+        }
+        ok(lineNumber, line);
+    }
+
+    private void grade(long lineNumber, String line, String arguments) throws IOException {
+        String[] fields = fields(arguments, 3);
+        if (fields == null) {
+            error(lineNumber, line, "ParseError", "expected grade,regNo,courseCode,GRADE");
+            return;
+        }
+        Grade grade;
+        try {
+            grade = Grade.valueOf(fields[2].toUpperCase(Locale.ROOT));
+        } catch (IllegalArgumentException e) {
+            error(lineNumber, line, "ParseError", "Unknown grade '" + fields[2] + "'");
+            return;
+        }
+        Optional<Student> student = dataStore.findStudentByRegNo(fields[0]);
+        Optional<Course> course = dataStore.findCourseByCode(fields[1]);
+        if (student.isEmpty() || course.isEmpty()) {
+            error(lineNumber, line, "NotFound", student.isEmpty() ? "Student not found" : "Course not found");
+            return;
+        }
+        try {
+            gradeService.recordGrade(student.get(), course.get(), grade);
+            ok(lineNumber, line);
+        } catch (NotEnrolledException e) {
+            error(lineNumber, line, NotEnrolledException.class.getSimpleName(), e.getMessage());
+        }
+    }
+
+    // --- Helpers ---
+
+    // Exactly count non-empty, trimmed fields, or null
+    private static String[] fields(String arguments, int count) {
+        String[] fields = arguments.split(",", -1);
+        if (fields.length != count) return null;
+        for (int i = 0; i < count; i++) {
+            fields[i] = fields[i].trim();
+            if (fields[i].isEmpty()) return null;
+        }
+        return fields;
+    }
+
+    private void ok(long lineNumber, String command) throws IOException {
+        succeeded++;
+        out.write(Long.toString(lineNumber));
+        out.write("\tOK\t");
+        out.write(command);
+        out.write('\n');
+    }
+
+    private void error(long lineNumber, String command, String type, String message) throws IOException {
+        failed++;
+        out.write(Long.toString(lineNumber));
+        out.write("\tERROR\t");
+        out.write(command);
+        out.write('\t');
+        out.write(type);
+        out.write('\t');
+        out.write(message == null ? "" : message.replace('\t', ' ').replace('\n', ' '));
+        out.write('\n');
+    }
+}
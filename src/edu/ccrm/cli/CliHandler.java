@@ -3,22 +3,57 @@ package edu.ccrm.cli;
 
 import edu.ccrm.config.DataStore;
 import edu.ccrm.domain.Course;
+import edu.ccrm.domain.Grade;
 import edu.ccrm.domain.Instructor;
+import edu.ccrm.domain.RequisiteType;
+import edu.ccrm.domain.Semester;
 import edu.ccrm.domain.Student;
+import edu.ccrm.domain.StudentStatus;
+import edu.ccrm.domain.TimeSlot;
+import edu.ccrm.exception.CourseFullException;
 import edu.ccrm.exception.DuplicateEnrollmentException;
 import edu.ccrm.exception.MaxCreditLimitExceededException;
+import edu.ccrm.exception.NotEnrolledException;
+import edu.ccrm.exception.PrerequisiteNotMetException;
+import edu.ccrm.exception.ScheduleConflictException;
 import edu.ccrm.io.BackupService;
 import edu.ccrm.io.DataPersistenceService;
+import edu.ccrm.io.ImportReport;
+import edu.ccrm.io.SnapshotService;
+import edu.ccrm.service.CourseQuery;
+import edu.ccrm.service.EnrollmentRequest;
+import edu.ccrm.service.EnrollmentResult;
+import edu.ccrm.service.EnrollmentEventBus;
 import edu.ccrm.service.EnrollmentService;
-import edu.ccrm.util.FileUtils;
+import edu.ccrm.service.GradeService;
+import edu.ccrm.service.GradeServiceImpl;
+import edu.ccrm.service.InstrumentedEnrollmentService;
+import edu.ccrm.service.OperationMetrics;
+import edu.ccrm.service.Page;
+import edu.ccrm.service.QueryService;
+import edu.ccrm.service.ScheduleConflict;
+import edu.ccrm.service.StudentQuery;
+import edu.ccrm.service.TimetableService;
 
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
 import java.nio.file.Paths;
 import java.time.LocalDate;
 import java.time.format.DateTimeParseException;
+import java.util.Comparator;
+import java.util.EnumMap;
 import java.util.List;
+import java.util.Locale;
+import java.util.Map;
 import java.util.Optional;
 import java.util.Scanner;
+import java.util.concurrent.TimeUnit;
 import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Consumer;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
 /**
  * Handles all command-line interactions for the CCRM application.
@@ -28,15 +63,28 @@ public class CliHandler {
     private final Scanner scanner;
     private final DataStore dataStore;
     private final EnrollmentService enrollmentService;
+    private final GradeService gradeService;
+    private final QueryService queryService;
+    private final TimetableService timetableService;
     private final DataPersistenceService persistenceService;
     private final BackupService backupService;
+    private final SnapshotService snapshotService;
+    private final EnrollmentEventBus eventBus;
+    private final ConsoleEnrollmentListener consoleListener;
 
-    public CliHandler(EnrollmentService enrollmentService) {
+    public CliHandler(EnrollmentService enrollmentService, SnapshotService snapshotService, EnrollmentEventBus eventBus) {
         this.scanner = new Scanner(System.in);
         this.dataStore = DataStore.getInstance(); //Get the singleton instance
         this.enrollmentService = enrollmentService;
+        this.gradeService = new GradeServiceImpl(dataStore);
+        this.queryService = new QueryService(dataStore);
+        this.timetableService = new TimetableService(dataStore);
         this.persistenceService = new DataPersistenceService();
         this.backupService = new BackupService();
+        this.snapshotService = snapshotService;
+        this.eventBus = eventBus;
+        this.consoleListener = new ConsoleEnrollmentListener();
+        eventBus.subscribe(consoleListener);
     }
 
     /**
@@ -56,6 +104,9 @@ public class CliHandler {
                 case 5: importData(); break;
                 case 6: performBackup(); break;
                 case 7: showBackupSize(); break;
+                case 8: saveSnapshot(); break;
+                case 9: restoreBackup(); break;
+                case 10: showMetrics(); break;
                 case 0: running = false; break;
                 default: System.out.println("Invalid choice. Please try again.");
             }
@@ -73,6 +124,9 @@ public class CliHandler {
         System.out.println("5. Import Data");
         System.out.println("6. Perform Backup");
         System.out.println("7. Show Total Backup Size");
+        System.out.println("8. Save Snapshot");
+        System.out.println("9. Restore Backup");
+        System.out.println("10. Show Enrollment Metrics");
         System.out.println("0. Exit");
         System.out.print("Enter your choice: ");
     }
@@ -82,8 +136,9 @@ public class CliHandler {
     private void manageStudents() {
         System.out.println("\n--- Student Management ---");
         System.out.println("1. Add New Student");
-        System.out.println("2. List All Students");
+        System.out.println("2. List Students");
         System.out.println("3. Find Student by Registration Number");
+        System.out.println("4. Change Student Status");
         System.out.println("0. Back to Main Menu");
         System.out.print("Enter your choice: ");
 
@@ -91,6 +146,7 @@ public class CliHandler {
             case 1: addStudent(); break;
             case 2: listStudents(); break;
             case 3: findStudent(); break;
+            case 4: changeStudentStatus(); break;
             case 0: break;
             default: System.out.println("Invalid choice.");
         }
@@ -111,20 +167,46 @@ public class CliHandler {
             String regNo = scanner.nextLine();
 
             Student newStudent = new Student(id, name, email, dob, regNo);
-            dataStore.getStudents().add(newStudent);
-            System.out.println("Student added successfully!");
+            if (dataStore.addStudent(newStudent)) {
+                System.out.println("Student added successfully!");
+            } else {
+                System.err.println("A student with that ID or Registration Number already exists.");
+            }
         } catch (NumberFormatException | DateTimeParseException e) {
             System.err.println("Invalid input format. Please try again. " + e.getMessage());
         }
     }
 
     private void listStudents() {
-        System.out.println("\n--- List of All Students ---");
-        List<Student> students = dataStore.getStudents();
-        if (students.isEmpty()) {
-            System.out.println("No students found.");
-        } else {
-            students.forEach(s -> System.out.println(s.getProfile()));
+        System.out.println("\n--- List Students (leave a filter blank to skip it) ---");
+        try {
+            StudentQuery.Builder query = new StudentQuery.Builder()
+                    .status(readEnum("Status (ACTIVE, INACTIVE, GRADUATED): ", StudentStatus.class))
+                    .department(readOptional("Enrolled in a course of department: "))
+                    .semester(readEnum("Enrolled in semester (FALL, SPRING, SUMMER): ", Semester.class));
+            // Each page resumes from the previous page's cursor
+            showPages(cursor -> queryService.findStudents(query.after(cursor).build()),
+                    s -> System.out.println(s.getProfile()), "No students found.");
+        } catch (IllegalArgumentException e) {
+            System.err.println("Invalid filter: " + e.getMessage());
+        }
+    }
+
+    private void changeStudentStatus() {
+        System.out.print("Enter Registration Number: ");
+        String regNo = scanner.nextLine();
+        Optional<Student> studentOpt = findStudentByRegNo(regNo);
+        if (studentOpt.isEmpty()) {
+            System.err.println("Student not found with Registration Number: " + regNo);
+            return;
+        }
+        try {
+            StudentStatus status = readEnum("New status (ACTIVE, INACTIVE, GRADUATED): ", StudentStatus.class);
+            if (status != null && dataStore.updateStudentStatus(studentOpt.get(), status)) {
+                System.out.println("Status changed to " + status + ".");
+            }
+        } catch (IllegalArgumentException e) {
+            System.err.println("Invalid status: " + e.getMessage());
         }
     }
 
@@ -143,13 +225,19 @@ public class CliHandler {
     private void manageCourses() {
         System.out.println("\n--- Course Management ---");
         System.out.println("1. Add New Course");
-        System.out.println("2. List All Courses");
+        System.out.println("2. List Courses");
+        System.out.println("3. Add a Prerequisite or Co-requisite");
+        System.out.println("4. Remove a Requisite");
+        System.out.println("5. View a Course's Requisites");
         System.out.println("0. Back to Main Menu");
         System.out.print(" Enter your choice: ");
 
         switch (getUserChoice()) {
             case 1: addCourse(); break;
             case 2: listCourses(); break;
+            case 3: addRequisite(); break;
+            case 4: removeRequisite(); break;
+            case 5: viewRequisites(); break;
             case 0: break;
             default: System.out.println("Invalid choice.");
         }
@@ -166,27 +254,95 @@ public class CliHandler {
             int credits = Integer.parseInt(scanner.nextLine());
             System.out.print("Enter Department: ");
             String department = scanner.nextLine();
+            System.out.print("Enter Capacity (blank or 0 for unlimited): ");
+            String capacity = scanner.nextLine().trim();
+            System.out.print("Enter Meeting Times (e.g. MON 09:00-10:30; WED 09:00-10:30, blank for none): ");
+            String schedule = scanner.nextLine();
             
             //Using the builder pattern to create the course object
             Course newCourse = new Course.Builder(code, title)
                 .credits(credits)
                 .department(department)
+                .capacity(capacity.isEmpty() ? 0 : Integer.parseInt(capacity))
+                .timeSlots(TimeSlot.parseSchedule(schedule))
                 .build();
             
-            dataStore.getCourses().add(newCourse);
-            System.out.println("Course added successfully!");
+            if (dataStore.addCourse(newCourse)) {
+                System.out.println("Course added successfully!");
+            } else {
+                System.err.println("A course with that code already exists.");
+            }
         } catch (NumberFormatException e) {
-            System.err.println("Invalid input for credits. Please enter a number.");
+            System.err.println("Invalid input for credits or capacity. Please enter a number.");
+        } catch (IllegalArgumentException e) {
+            System.err.println(e.getMessage());
         }
     }
     
     private void listCourses() {
-        System.out.println("\n--- List of All Courses ---");
-        List<Course> courses = dataStore.getCourses();
-        if (courses.isEmpty()) {
-            System.out.println("No courses found.");
+        System.out.println("\n--- List Courses (leave a filter blank to skip it) ---");
+        try {
+            CourseQuery.Builder query = new CourseQuery.Builder()
+                    .department(readOptional("Department: "))
+                    .semester(readEnum("Semester (FALL, SPRING, SUMMER): ", Semester.class));
+            String regNo = readOptional("Only courses open to student (Registration Number): ");
+            if (regNo != null) {
+                Optional<Student> student = findStudentByRegNo(regNo);
+                if (student.isEmpty()) {
+                    System.err.println("Student not found with Registration Number: " + regNo);
+                    return;
+                }
+                query.openTo(student.get());
+            }
+            showPages(cursor -> queryService.findCourses(query.after(cursor).build()),
+                    System.out::println, "No courses found.");
+        } catch (IllegalArgumentException e) {
+            System.err.println("Invalid filter: " + e.getMessage());
+        }
+    }
+
+    private void addRequisite() {
+        System.out.print("Enter Course Code: ");
+        Optional<Course> courseOpt = findCourseByCode(scanner.nextLine());
+        System.out.print("Enter Required Course Code: ");
+        Optional<Course> requiredOpt = findCourseByCode(scanner.nextLine());
+        if (courseOpt.isEmpty() || requiredOpt.isEmpty()) {
+            System.err.println("Course not found. Please check the codes.");
+            return;
+        }
+        try {
+            RequisiteType type = readEnum("Type (PREREQUISITE, COREQUISITE; blank for PREREQUISITE): ", RequisiteType.class);
+            type = type == null ? RequisiteType.PREREQUISITE : type;
+            if (dataStore.addRequisite(courseOpt.get(), requiredOpt.get(), type)) {
+                System.out.println(type.getDisplayName() + " added: " + courseOpt.get().getCode()
+                        + " requires " + requiredOpt.get().getCode() + ".");
+            }
+        } catch (IllegalArgumentException e) {
+            System.err.println("Requisite not added: " + e.getMessage());
+        }
+    }
+
+    private void removeRequisite() {
+        System.out.print("Enter Course Code: ");
+        Optional<Course> courseOpt = findCourseByCode(scanner.nextLine());
+        System.out.print("Enter Required Course Code: ");
+        Optional<Course> requiredOpt = findCourseByCode(scanner.nextLine());
+        if (courseOpt.isPresent() && requiredOpt.isPresent() && dataStore.removeRequisite(courseOpt.get(), requiredOpt.get())) {
+            System.out.println("Requisite removed.");
         } else {
-            courses.forEach(System.out::println);
+            System.err.println("No such requisite.");
+        }
+    }
+
+    private void viewRequisites() {
+        System.out.print("Enter Course Code: ");
+        String courseCode = scanner.nextLine();
+        Map<String, RequisiteType> requisites = dataStore.getRequisites(courseCode);
+        System.out.println("\n--- Requisites of " + courseCode + " (" + requisites.size() + ") ---");
+        requisites.forEach((code, type) -> System.out.println(type.getDisplayName() + ": " + code));
+        List<String> all = dataStore.getTransitiveRequisites(courseCode);
+        if (all.size() > requisites.size()) {
+            System.out.println("Including indirect ones: " + String.join(", ", all));
         }
     }
 
@@ -197,6 +353,13 @@ public class CliHandler {
         System.out.println("1. Enroll Student in a Course");
         System.out.println("2. Unenroll Student from a Course");
         System.out.println("3. View a Student's Enrolled Courses");
+        System.out.println("4. View a Course Roster");
+        System.out.println("5. Bulk Enroll from File");
+        System.out.println("6. Record a Grade");
+        System.out.println("7. View a Student's Transcript");
+        System.out.println("8. Recompute All GPAs");
+        System.out.println("9. View Students Common to Two Courses");
+        System.out.println("10. Find All Timetable Conflicts");
         System.out.println("0. Back to Main Menu");
         System.out.print("Enter your choice: ");
 
@@ -204,6 +367,13 @@ public class CliHandler {
             case 1: enrollStudentInCourse(); break;
             case 2: unenrollStudentFromCourse(); break;
             case 3: viewStudentCourses(); break;
+            case 4: viewCourseRoster(); break;
+            case 5: bulkEnroll(); break;
+            case 6: recordGrade(); break;
+            case 7: viewTranscript(); break;
+            case 8: recomputeGpas(); break;
+            case 9: viewCommonStudents(); break;
+            case 10: findTimetableConflicts(); break;
             case 0: break;
             default: System.out.println("Invalid choice.");
         }
@@ -221,9 +391,13 @@ public class CliHandler {
         if (studentOpt.isPresent() && courseOpt.isPresent()) {
             try {
                 enrollmentService.enrollStudent(studentOpt.get(), courseOpt.get());
+                awaitEventOutput();
                 System.out.println("Enrollment successful!");
-            } catch (MaxCreditLimitExceededException | DuplicateEnrollmentException e) {
-                System.err.println("Enrollment failed: " + e.getMessage());
+            } catch (MaxCreditLimitExceededException | DuplicateEnrollmentException | PrerequisiteNotMetException
+                    | ScheduleConflictException | IllegalArgumentException e) {
+                System.err.println("Enrollment failed: " + e.getMessage()); // IllegalArgumentException: removed meanwhile
+            } catch (CourseFullException e) {
+                System.out.println(e.getMessage() + " They will be enrolled automatically when a seat frees up.");
             }
         } else {
             System.err.println("Student or Course not found. Please check the details.");
@@ -240,8 +414,12 @@ public class CliHandler {
         Optional<Course> courseOpt = findCourseByCode(courseCode);
         
         if (studentOpt.isPresent() && courseOpt.isPresent()) {
-            enrollmentService.unenrollStudent(studentOpt.get(), courseOpt.get());
-            System.out.println("Unenrollment successful!");
+            if (enrollmentService.unenrollStudent(studentOpt.get(), courseOpt.get())) {
+                awaitEventOutput();
+                System.out.println("Unenrollment successful!");
+            } else {
+                System.err.println("Student is not enrolled in that course.");
+            }
         } else {
             System.err.println("Student or Course not found.");
         }
@@ -259,37 +437,198 @@ public class CliHandler {
         }
     }
     
+    private void viewCourseRoster() {
+        System.out.print("Enter Course Code: ");
+        String courseCode = scanner.nextLine();
+        System.out.println("\n--- Roster for " + courseCode + " (" + enrollmentService.countStudentsByCourse(courseCode) + " enrolled) ---");
+        List<Student> students = enrollmentService.findStudentsByCourse(courseCode);
+        if (students.isEmpty()) {
+            System.out.println("No students are enrolled in this course.");
+        } else {
+            students.forEach(System.out::println);
+        }
+        findCourseByCode(courseCode).filter(Course::hasCapacityLimit).ifPresent(course -> {
+            List<Student> waitlist = course.getWaitlist();
+            System.out.println("--- Capacity " + course.getCapacity() + ", waitlist (" + waitlist.size() + ") ---");
+            for (int i = 0; i < waitlist.size(); i++) {
+                System.out.println((i + 1) + ". " + waitlist.get(i));
+            }
+        });
+    }
+    
+    private void viewCommonStudents() {
+        System.out.print("Enter First Course Code: ");
+        String first = scanner.nextLine();
+        System.out.print("Enter Second Course Code: ");
+        String second = scanner.nextLine();
+        System.out.println("\n--- Students in both " + first + " and " + second
+                + " (" + dataStore.countCommonStudents(first, second) + ") ---");
+        dataStore.getCommonStudents(first, second).stream()
+                .sorted(Comparator.comparing(Student::getRegNo))
+                .forEach(System.out::println);
+    }
+
+    private void findTimetableConflicts() {
+        long start = System.nanoTime();
+        List<ScheduleConflict> conflicts = timetableService.findAllConflicts();
+        System.out.printf("%n--- Timetable conflicts (%d, found in %d ms) ---%n", conflicts.size(), (System.nanoTime() - start) / 1_000_000);
+        conflicts.forEach(System.out::println);
+    }
+
+    private void bulkEnroll() {
+        System.out.print("Enter file name in the data folder (lines of RegNo,CourseCode): ");
+        String filename = scanner.nextLine();
+        try (Stream<String> lines = Files.lines(Paths.get("data", filename))) {
+            List<EnrollmentRequest> requests = lines
+                    .map(line -> line.split(","))
+                    .filter(parts -> parts.length >= 2)
+                    .map(parts -> new EnrollmentRequest(parts[0].trim(), parts[1].trim()))
+                    .collect(Collectors.toList());
+
+            // The summary below reports the batch, so keep the per-enrollment messages off the console
+            consoleListener.setQuiet(true);
+            List<EnrollmentResult> results;
+            try {
+                results = enrollmentService.enrollAll(requests);
+                awaitEventOutput();
+            } finally {
+                consoleListener.setQuiet(false);
+            }
+            Map<EnrollmentResult.Status, Long> summary = results.stream()
+                    .collect(Collectors.groupingBy(EnrollmentResult::getStatus, () -> new EnumMap<>(EnrollmentResult.Status.class), Collectors.counting()));
+            System.out.println("Processed " + results.size() + " requests: " + summary);
+            results.stream()
+                    .filter(r -> !r.isSuccess())
+                    .forEach(System.out::println);
+        } catch (IOException e) {
+            System.err.println("Could not read bulk enrollment file: " + e.getMessage());
+        }
+    }
+    
+    private void recordGrade() {
+        System.out.print("Enter Student Registration Number: ");
+        String regNo = scanner.nextLine();
+        System.out.print("Enter Course Code: ");
+        String courseCode = scanner.nextLine();
+        System.out.print("Enter Grade (S, A, B, C, D, E, F): ");
+        String gradeInput = scanner.nextLine().trim().toUpperCase(Locale.ROOT);
+
+        Grade grade;
+        try {
+            grade = Grade.valueOf(gradeInput);
+        } catch (IllegalArgumentException e) {
+            System.err.println("Invalid grade: " + gradeInput);
+            return;
+        }
+        Optional<Student> studentOpt = findStudentByRegNo(regNo);
+        Optional<Course> courseOpt = findCourseByCode(courseCode);
+        if (studentOpt.isPresent() && courseOpt.isPresent()) {
+            try {
+                gradeService.recordGrade(studentOpt.get(), courseOpt.get(), grade);
+                System.out.printf("Grade recorded. %s's GPA is now %.2f.%n",
+                        studentOpt.get().getFullName(), studentOpt.get().getCumulativeGpa());
+            } catch (NotEnrolledException e) {
+                System.err.println("Grade not recorded: " + e.getMessage());
+            }
+        } else {
+            System.err.println("Student or Course not found. Please check the details.");
+        }
+    }
+
+    private void viewTranscript() {
+        System.out.print("Enter Student Registration Number: ");
+        String regNo = scanner.nextLine();
+        gradeService.getTranscript(regNo)
+                .ifPresentOrElse(System.out::println, () -> System.err.println("Student not found."));
+    }
+
+    private void recomputeGpas() {
+        long start = System.nanoTime();
+        int students = gradeService.recomputeAllGpas();
+        System.out.printf("Recomputed GPAs for %d students in %d ms.%n", students, (System.nanoTime() - start) / 1_000_000);
+    }
+
     // --- Data & Backup Operations ---
 
     private void exportData() {
-        persistenceService.exportStudents(dataStore.getStudents(), "students_export.csv");
-        // You can add export for courses here as well
+        persistenceService.exportAll(dataStore);
     }
 
     private void importData() {
-        List<Student> importedStudents = persistenceService.importStudents("students_export.csv");
-        if (!importedStudents.isEmpty()) {
-            dataStore.getStudents().clear(); // Clear existing data before import
-            dataStore.getStudents().addAll(importedStudents);
-            System.out.println("Imported " + importedStudents.size() + " students.");
-        }
+        // Streams the file straight into the store, replacing the existing students
+        ImportReport report = persistenceService.importStudentsStreaming("students_export.csv", dataStore, true);
+        System.out.println(report);
+        report.getBadRows().stream()
+                .limit(20)
+                .forEach(row -> System.err.println("  Skipped " + row));
     }
     
     private void performBackup() {
         backupService.performBackup();
     }
     
+    private void saveSnapshot() {
+        snapshotService.saveSnapshot(dataStore, SnapshotService.DEFAULT_SNAPSHOT);
+    }
+    
+    private void restoreBackup() {
+        try {
+            List<Path> manifests = backupService.listManifests();
+            if (manifests.isEmpty()) {
+                System.out.println("No backups found.");
+                return;
+            }
+            System.out.println("Available backups:");
+            manifests.forEach(m -> System.out.println("  " + BackupService.backupName(m)));
+        } catch (IOException e) {
+            System.err.println("Could not list backups: " + e.getMessage());
+            return;
+        }
+        System.out.print("Enter backup name (blank for the latest): ");
+        String name = scanner.nextLine().trim();
+        System.out.print("This replaces all current data. Continue? (y/n): ");
+        if (!scanner.nextLine().trim().equalsIgnoreCase("y")) {
+            System.out.println("Restore cancelled.");
+            return;
+        }
+        backupService.restoreIntoStore(name.isEmpty() ? null : name, dataStore, snapshotService);
+    }
+
     private void showBackupSize() {
         try {
-            long size = FileUtils.calculateDirectorySize(Paths.get("backup"));
+            long size = backupService.getTotalBackupSize();
             System.out.printf("Total size of all backups: %.2f MB\n", size / (1024.0 * 1024.0));
+            System.out.println("Retention policy: " + backupService.getRetentionPolicy());
         } catch (Exception e) {
             System.err.println("Could not calculate backup size: " + e.getMessage());
         }
     }
 
+    // --- Metrics ---
+
+    private void showMetrics() {
+        if (!(enrollmentService instanceof InstrumentedEnrollmentService)) {
+            System.out.println("Metrics are not enabled for this enrollment service.");
+            return;
+        }
+        System.out.println("\n--- Enrollment Service Metrics (latency in microseconds) ---");
+        System.out.printf("%-22s %10s %8s %10s %10s %10s %10s %10s%n",
+                "Operation", "Count", "Errors", "Mean", "p50", "p99", "p99.9", "Max");
+        for (OperationMetrics m : ((InstrumentedEnrollmentService) enrollmentService).getMetrics()) {
+            System.out.printf("%-22s %10d %8d %10.1f %10.1f %10.1f %10.1f %10.1f%n",
+                    m.getOperation(), m.getCount(), m.getErrorCount(), m.getMeanMicros(),
+                    m.getP50Micros(), m.getP99Micros(), m.getP999Micros(), m.getMaxMicros());
+            m.getErrorsByType().forEach((type, count) -> System.out.printf("    %s: %d%n", type, count));
+        }
+    }
+
     // --- Utility Methods ---
 
+    // Lets the console listener print the service's messages before the next prompt
+    private void awaitEventOutput() {
+        eventBus.flush(1, TimeUnit.SECONDS);
+    }
+
     private int getUserChoice() {
         try {
             return Integer.parseInt(scanner.nextLine());
@@ -298,15 +637,46 @@ public class CliHandler {
         }
     }
     
+    // Prints one page at a time, asking before fetching the next
+    private <T> void showPages(Function<String, Page<T>> fetch, Consumer<T> printer, String emptyMessage) {
+        String cursor = null;
+        boolean first = true;
+        while (true) {
+            Page<T> page = fetch.apply(cursor);
+            if (first && page.getItems().isEmpty()) {
+                System.out.println(emptyMessage);
+                return;
+            }
+            first = false;
+            page.getItems().forEach(printer);
+            if (!page.hasMore()) {
+                return;
+            }
+            System.out.print("-- Press Enter for the next page, or q to stop: ");
+            if (scanner.nextLine().trim().equalsIgnoreCase("q")) {
+                return;
+            }
+            cursor = page.getNextCursor();
+        }
+    }
+
+    // A blank answer means "not given"
+    private String readOptional(String prompt) {
+        System.out.print(prompt);
+        String value = scanner.nextLine().trim();
+        return value.isEmpty() ? null : value;
+    }
+
+    private <E extends Enum<E>> E readEnum(String prompt, Class<E> type) {
+        String value = readOptional(prompt);
+        return value == null ? null : Enum.valueOf(type, value.toUpperCase(Locale.ROOT));
+    }
+
     private Optional<Student> findStudentByRegNo(String regNo) {
-        return dataStore.getStudents().stream()
-                .filter(s -> s.getRegNo().equalsIgnoreCase(regNo))
-                .findFirst();
+        return dataStore.findStudentByRegNo(regNo);
     }
     
     private Optional<Course> findCourseByCode(String courseCode) {
-        return dataStore.getCourses().stream()
-                .filter(c -> c.getCode().equalsIgnoreCase(courseCode))
-                .findFirst();
+        return dataStore.findCourseByCode(courseCode);
     }
 }
\ No newline at end of file
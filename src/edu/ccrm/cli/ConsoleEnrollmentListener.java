@@ -0,0 +1,52 @@
+// File: src/edu/ccrm/cli/ConsoleEnrollmentListener.java
+package edu.ccrm.cli;
+
+import edu.ccrm.service.EnrollmentEvent;
+import edu.ccrm.service.EnrollmentListener;
+
+/**
+ * Prints enrollment events for the person at the console. Rejections are left to the CLI, which
+ * already reports the exception. A large batch (e.g. a bulk enroll) is summarised after a few lines
+ * instead of scrolling every event past.
+ */
+public class ConsoleEnrollmentListener implements EnrollmentListener {
+
+    private static final int MAX_LINES_PER_BATCH = 10;
+
+    private volatile boolean quiet;
+    private int printed;
+    private int suppressed;
+
+    @Override
+    public void onEvent(EnrollmentEvent event) {
+        if (quiet || event.getType() != EnrollmentEvent.Type.ENROLLED && event.getType() != EnrollmentEvent.Type.UNENROLLED) {
+            return;
+        }
+        if (printed == MAX_LINES_PER_BATCH) {
+            suppressed++;
+            return;
+        }
+        printed++;
+        if (event.getType() == EnrollmentEvent.Type.ENROLLED) {
+            System.out.println("Enrollment successful for " + event.getStudent().getFullName() + " in " + event.getCourse().getTitle());
+        } else {
+            System.out.println("Unenrolled " + event.getStudent().getFullName() + " from " + event.getCourse().getTitle());
+        }
+    }
+
+    /**
+     * Stops (or resumes) printing, e.g. while the CLI reports a bulk operation with its own summary.
+     */
+    public void setQuiet(boolean quiet) {
+        this.quiet = quiet;
+    }
+
+    @Override
+    public void onBatchEnd() {
+        if (suppressed > 0) {
+            System.out.println("... and " + suppressed + " more enrollment changes.");
+        }
+        printed = 0;
+        suppressed = 0;
+    }
+}
@@ -0,0 +1,325 @@
+// File: src/edu/ccrm/config/BitmapEnrollmentIndex.java
+package edu.ccrm.config;
+
+import edu.ccrm.domain.Course;
+import edu.ccrm.domain.Student;
+import edu.ccrm.util.CompressedBitmap;
+import edu.ccrm.util.IntObjectMap;
+
+import java.util.AbstractSet;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.PrimitiveIterator;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.locks.StampedLock;
+
+/**
+ * An EnrollmentIndex built on dense ordinals and compressed bitmaps.
+ * <p>
+ * Each student gets a dense int ordinal on its first enrollment, found by person id through an
+ * open-addressing IntObjectMap, and each course gets one on its first enrollment. A course keeps a
+ * CompressedBitmap of its students' ordinals and a student keeps one of its courses' ordinals. A
+ * roster then costs about two bytes per student instead of a hash-set entry object, a count is a
+ * field read, and the students common to two courses are a chunk-wise AND.
+ * <p>
+ * Each bitmap is guarded by its own slot's monitor, so enrollments in different courses do not
+ * contend. Ordinals are handed out under a StampedLock whose lookups are optimistic reads.
+ * Roster views are snapshots taken when they are requested, resolved to students at that point.
+ */
+public class BitmapEnrollmentIndex implements EnrollmentIndex {
+
+    private static final class StudentSlot {
+        final int ordinal;
+        final Student student;
+        final CompressedBitmap courses = new CompressedBitmap(); // Guarded by this slot
+
+        StudentSlot(int ordinal, Student student) {
+            this.ordinal = ordinal;
+            this.student = student;
+        }
+    }
+
+    private static final class CourseSlot {
+        final int ordinal;
+        final CompressedBitmap students = new CompressedBitmap(); // Guarded by this slot
+
+        CourseSlot(int ordinal) {
+            this.ordinal = ordinal;
+        }
+    }
+
+    // --- Student ordinals (guarded by ordinalLock) ---
+    private final StampedLock ordinalLock = new StampedLock();
+    private final IntObjectMap<StudentSlot> studentsById = new IntObjectMap<>(1024);
+    private volatile Student[] studentsByOrdinal = new Student[1024];
+    private int nextStudentOrdinal;
+
+    // --- Course ordinals (guarded by courseOrdinalLock) ---
+    private final Object courseOrdinalLock = new Object();
+    private final Map<String, CourseSlot> coursesByCode = new ConcurrentHashMap<>();
+    private volatile CourseSlot[] coursesByOrdinal = new CourseSlot[64];
+    private int nextCourseOrdinal;
+
+    @Override
+    public boolean add(Course course, Student student) {
+        StudentSlot studentSlot = studentSlot(student, true);
+        CourseSlot courseSlot = coursesByCode.computeIfAbsent(DataStore.key(course.getCode()), k -> newCourseSlot());
+        boolean added;
+        synchronized (courseSlot) {
+            added = courseSlot.students.add(studentSlot.ordinal);
+        }
+        synchronized (studentSlot) {
+            studentSlot.courses.add(courseSlot.ordinal);
+        }
+        return added;
+    }
+
+    @Override
+    public boolean remove(Course course, Student student) {
+        StudentSlot studentSlot = studentSlot(student, false);
+        CourseSlot courseSlot = coursesByCode.get(DataStore.key(course.getCode()));
+        if (studentSlot == null || courseSlot == null) return false;
+        boolean removed;
+        synchronized (courseSlot) {
+            removed = courseSlot.students.remove(studentSlot.ordinal);
+        }
+        synchronized (studentSlot) {
+            studentSlot.courses.remove(courseSlot.ordinal);
+        }
+        return removed;
+    }
+
+    // The student's own bitmap says which course bitmaps to clear; its ordinal is then retired
+    @Override
+    public void removeStudent(Student student) {
+        StudentSlot studentSlot;
+        long stamp = ordinalLock.writeLock();
+        try {
+            studentSlot = studentsById.get(student.getId());
+            if (studentSlot == null || studentSlot.student != student) return;
+            studentsById.remove(student.getId());
+            studentsByOrdinal[studentSlot.ordinal] = null;
+        } finally {
+            ordinalLock.unlockWrite(stamp);
+        }
+        CompressedBitmap courses;
+        synchronized (studentSlot) {
+            courses = studentSlot.courses.copy();
+            studentSlot.courses.clear();
+        }
+        CourseSlot[] byOrdinal = coursesByOrdinal;
+        courses.forEach(courseOrdinal -> {
+            CourseSlot courseSlot = courseOrdinal < byOrdinal.length ? byOrdinal[courseOrdinal] : null;
+            if (courseSlot != null) {
+                synchronized (courseSlot) {
+                    courseSlot.students.remove(studentSlot.ordinal);
+                }
+            }
+        });
+    }
+
+    // Students' bitmaps may keep the retired course ordinal; it is never reused, so nothing reads it again
+    @Override
+    public void removeCourse(String courseCode) {
+        CourseSlot removed = coursesByCode.remove(DataStore.key(courseCode));
+        if (removed != null) {
+            synchronized (courseOrdinalLock) {
+                coursesByOrdinal[removed.ordinal] = null;
+            }
+        }
+    }
+
+    @Override
+    public Set<Student> getRoster(String courseCode) {
+        CourseSlot courseSlot = coursesByCode.get(DataStore.key(courseCode));
+        if (courseSlot == null) return Collections.emptySet();
+        synchronized (courseSlot) {
+            return new StudentSet(courseSlot.students.copy());
+        }
+    }
+
+    @Override
+    public int count(String courseCode) {
+        CourseSlot courseSlot = coursesByCode.get(DataStore.key(courseCode));
+        if (courseSlot == null) return 0;
+        synchronized (courseSlot) {
+            return courseSlot.students.cardinality();
+        }
+    }
+
+    @Override
+    public Set<Student> getCommonStudents(String courseCodeA, String courseCodeB) {
+        CompressedBitmap[] pair = copyPair(courseCodeA, courseCodeB);
+        return pair == null ? Collections.emptySet() : new StudentSet(pair[0].and(pair[1]));
+    }
+
+    @Override
+    public int countCommon(String courseCodeA, String courseCodeB) {
+        CourseSlot a = coursesByCode.get(DataStore.key(courseCodeA));
+        CourseSlot b = coursesByCode.get(DataStore.key(courseCodeB));
+        if (a == null || b == null) return 0;
+        if (a == b) return count(courseCodeA);
+        // Lock in ordinal order so two concurrent intersections never wait on each other
+        CourseSlot first = a.ordinal < b.ordinal ? a : b;
+        CourseSlot second = first == a ? b : a;
+        synchronized (first) {
+            synchronized (second) {
+                return a.students.andCardinality(b.students);
+            }
+        }
+    }
+
+    // Copies of both course bitmaps, taken one at a time
+    private CompressedBitmap[] copyPair(String courseCodeA, String courseCodeB) {
+        CourseSlot a = coursesByCode.get(DataStore.key(courseCodeA));
+        CourseSlot b = coursesByCode.get(DataStore.key(courseCodeB));
+        if (a == null || b == null) return null;
+        CompressedBitmap[] pair = new CompressedBitmap[2];
+        synchronized (a) {
+            pair[0] = a.students.copy();
+        }
+        synchronized (b) {
+            pair[1] = b.students.copy();
+        }
+        return pair;
+    }
+
+    // Callers hold the DataStore's write lock, so nothing else is enrolling while ordinals are reassigned
+    @Override
+    public void rebuild(Collection<Student> students) {
+        long stamp = ordinalLock.writeLock();
+        try {
+            studentsById.clear();
+            studentsByOrdinal = new Student[Math.max(1024, students.size())];
+            nextStudentOrdinal = 0;
+        } finally {
+            ordinalLock.unlockWrite(stamp);
+        }
+        synchronized (courseOrdinalLock) {
+            coursesByCode.clear();
+            coursesByOrdinal = new CourseSlot[64];
+            nextCourseOrdinal = 0;
+        }
+        for (Student student : students) {
+            for (Course course : student.getEnrolledCourses()) {
+                add(course, student);
+            }
+        }
+    }
+
+    // --- Ordinals ---
+
+    private StudentSlot studentSlot(Student student, boolean create) {
+        int id = student.getId();
+        long stamp = ordinalLock.tryOptimisticRead();
+        StudentSlot slot = studentsById.getOptimistic(id, ordinalLock, stamp);
+        if (!ordinalLock.validate(stamp)) { // A writer got in; look again under the read lock
+            stamp = ordinalLock.readLock();
+            try {
+                slot = studentsById.get(id);
+            } finally {
+                ordinalLock.unlockRead(stamp);
+            }
+        }
+        if ((slot != null && slot.student == student) || !create) {
+            return slot != null && slot.student == student ? slot : null;
+        }
+
+        stamp = ordinalLock.writeLock();
+        try {
+            slot = studentsById.get(id);
+            if (slot == null || slot.student != student) {
+                slot = new StudentSlot(nextStudentOrdinal++, student);
+                studentsById.put(id, slot);
+                Student[] byOrdinal = studentsByOrdinal;
+                if (slot.ordinal == byOrdinal.length) {
+                    byOrdinal = Arrays.copyOf(byOrdinal, byOrdinal.length * 2);
+                }
+                byOrdinal[slot.ordinal] = student;
+                studentsByOrdinal = byOrdinal;
+            }
+            return slot;
+        } finally {
+            ordinalLock.unlockWrite(stamp);
+        }
+    }
+
+    private CourseSlot newCourseSlot() {
+        synchronized (courseOrdinalLock) {
+            CourseSlot slot = new CourseSlot(nextCourseOrdinal++);
+            CourseSlot[] byOrdinal = coursesByOrdinal;
+            if (slot.ordinal == byOrdinal.length) {
+                byOrdinal = Arrays.copyOf(byOrdinal, byOrdinal.length * 2);
+            }
+            byOrdinal[slot.ordinal] = slot;
+            coursesByOrdinal = byOrdinal;
+            return slot;
+        }
+    }
+
+    /**
+     * A read-only snapshot of students, resolved from a bitmap of their ordinals when it is made.
+     * Students already removed by then are left out, so the size always matches the iteration;
+     * the bitmap is kept for membership tests.
+     */
+    private final class StudentSet extends AbstractSet<Student> {
+        private final CompressedBitmap ordinals;
+        private final Student[] students; // In ordinal order; the first size slots are used
+        private final int size;
+
+        StudentSet(CompressedBitmap ordinals) {
+            this.ordinals = ordinals;
+            Student[] byOrdinal = studentsByOrdinal;
+            Student[] resolved = new Student[ordinals.cardinality()];
+            int count = 0;
+            for (PrimitiveIterator.OfInt it = ordinals.iterator(); it.hasNext(); ) {
+                int ordinal = it.nextInt();
+                Student student = ordinal < byOrdinal.length ? byOrdinal[ordinal] : null;
+                if (student != null) resolved[count++] = student; // Null once the ordinal is retired
+            }
+            this.students = resolved;
+            this.size = count;
+        }
+
+        @Override
+        public int size() {
+            return size;
+        }
+
+        @Override
+        public boolean contains(Object o) {
+            if (!(o instanceof Student)) return false;
+            StudentSlot slot = studentSlot((Student) o, false);
+            if (slot != null) {
+                return ordinals.contains(slot.ordinal);
+            }
+            for (int i = 0; i < size; i++) { // Removed since the snapshot, so only a scan can tell
+                if (students[i] == o) return true;
+            }
+            return false;
+        }
+
+        @Override
+        public Iterator<Student> iterator() {
+            return new Iterator<Student>() {
+                private int index;
+
+                @Override
+                public boolean hasNext() {
+                    return index < size;
+                }
+
+                @Override
+                public Student next() {
+                    if (!hasNext()) throw new NoSuchElementException();
+                    return students[index++];
+                }
+            };
+        }
+    }
+}
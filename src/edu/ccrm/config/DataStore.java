@@ -2,44 +2,705 @@
 package edu.ccrm.config;
 
 import edu.ccrm.domain.Course;
+import edu.ccrm.domain.Grade;
+import edu.ccrm.domain.Instructor;
+import edu.ccrm.domain.Person;
+import edu.ccrm.domain.RequisiteType;
+import edu.ccrm.domain.Semester;
 import edu.ccrm.domain.Student;
+import edu.ccrm.domain.StudentStatus;
 
 import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
 import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
 
 /**
  * A Singleton class to hold in-memory application data.
  * This ensures that there is only one instance of the data lists throughout the app.
+ * Records are stored in primary-key indexes (regNo, course code, person id), so lookups
+ * take constant time instead of scanning every record. Secondary indexes on student status and on
+ * course department, semester and instructor keep each group sorted by primary key, for
+ * filtered, paginated queries. Prerequisite and co-requisite edges between courses live in a
+ * PrerequisiteGraph that caches each course's transitive requirements.
+ * <p>
+ * The store is safe for concurrent use: lookups are lock-free, single-record adds only contend
+ * on the hash bins they touch, and only bulk replacements and removals take the store-wide write
+ * lock. Each change is handed to the mutation log before the lock that ordered it is released, so
+ * the journal records changes in the order they were applied; waiting for the fsync comes after.
  */
 public class DataStore {
 
-    // The single, static instance of this class
-    private static DataStore instance;
+    /** Returned by logEnrollment when nothing was recorded. Journal tickets are never negative. */
+    public static final long NOT_RECORDED = -1;
 
-    private final List<Student> students;
-    private final List<Course> courses;
+    // Initialization-on-demand holder: the JVM guarantees INSTANCE is created once, lazily and safely
+    private static class Holder {
+        private static final DataStore INSTANCE = new DataStore();
+    }
+
+    private final Map<String, Student> studentsByRegNo;
+    private final Map<String, Course> coursesByCode;
+    private final Map<Integer, Instructor> instructorsById;
+    private final Map<Integer, Person> peopleById; // Students and Instructors share the id space
+    private final EnrollmentIndex enrollmentIndex; // course code -> enrolled students
+    private final SecondaryIndex<StudentStatus, Student> studentsByStatus;
+    private final SecondaryIndex<String, Course> coursesByDepartment; // Keyed by key(department)
+    private final SecondaryIndex<Semester, Course> coursesBySemester;
+    private final SecondaryIndex<Integer, Course> coursesByInstructor;
+    private final PrerequisiteGraph requisites;
+
+    // Shared by single-record adds and enrollments, exclusive for bulk replacement and removals
+    private final ReadWriteLock structureLock = new ReentrantReadWriteLock();
+
+    // Told about every applied change; a no-op until a journal is attached
+    private volatile MutationLog mutationLog = MutationLog.NONE;
 
     // Private constructor prevents anyone else from creating an instance
     private DataStore() {
-        students = new ArrayList<>();
-        courses = new ArrayList<>();
-        // We can add some initial dummy data here if we want
+        studentsByRegNo = new ConcurrentHashMap<>();
+        coursesByCode = new ConcurrentHashMap<>();
+        instructorsById = new ConcurrentHashMap<>();
+        peopleById = new ConcurrentHashMap<>();
+        enrollmentIndex = EnrollmentIndex.create();
+        studentsByStatus = new SecondaryIndex<>();
+        coursesByDepartment = new SecondaryIndex<>();
+        coursesBySemester = new SecondaryIndex<>();
+        coursesByInstructor = new SecondaryIndex<>();
+        requisites = new PrerequisiteGraph();
     }
 
     // The public, static method to get the single instance
     public static DataStore getInstance() {
-        if (instance == null) {
-            instance = new DataStore();
+        return Holder.INSTANCE;
+    }
+
+    /**
+     * Attaches a log that is told about every change from now on, e.g. the journal once it has been replayed.
+     */
+    public void setMutationLog(MutationLog mutationLog) {
+        this.mutationLog = mutationLog == null ? MutationLog.NONE : mutationLog;
+    }
+
+    public MutationLog getMutationLog() {
+        return mutationLog;
+    }
+
+    /**
+     * Normalises a registration number or course code so index lookups are case-insensitive.
+     */
+    public static String key(String value) {
+        return value == null ? null : value.toUpperCase(Locale.ROOT);
+    }
+
+    // --- Read-only views of the data (weakly consistent under concurrent updates) ---
+
+    public Collection<Student> getStudents() {
+        return Collections.unmodifiableCollection(studentsByRegNo.values());
+    }
+
+    public Collection<Course> getCourses() {
+        return Collections.unmodifiableCollection(coursesByCode.values());
+    }
+
+    public Collection<Instructor> getInstructors() {
+        return Collections.unmodifiableCollection(instructorsById.values());
+    }
+
+    // --- Indexed lookups ---
+
+    public Optional<Student> findStudentByRegNo(String regNo) {
+        return Optional.ofNullable(studentsByRegNo.get(key(regNo)));
+    }
+
+    public Optional<Course> findCourseByCode(String code) {
+        return Optional.ofNullable(coursesByCode.get(key(code)));
+    }
+
+    public Optional<Person> findPersonById(int id) {
+        return Optional.ofNullable(peopleById.get(id));
+    }
+
+    /**
+     * @return A read-only view of the students enrolled in the course.
+     */
+    public Set<Student> getRoster(String courseCode) {
+        return enrollmentIndex.getRoster(courseCode);
+    }
+
+    public int getEnrollmentCount(String courseCode) {
+        return enrollmentIndex.count(courseCode);
+    }
+
+    /**
+     * @return The students enrolled in both courses, as a read-only set.
+     */
+    public Set<Student> getCommonStudents(String courseCodeA, String courseCodeB) {
+        return enrollmentIndex.getCommonStudents(courseCodeA, courseCodeB);
+    }
+
+    public int countCommonStudents(String courseCodeA, String courseCodeB) {
+        return enrollmentIndex.countCommon(courseCodeA, courseCodeB);
+    }
+
+    // --- Secondary indexes: read-only views ordered by regNo or course code key, with O(1) counts ---
+
+    public NavigableMap<String, Student> getStudentsByStatus(StudentStatus status) {
+        return studentsByStatus.get(status);
+    }
+
+    public int countStudentsByStatus(StudentStatus status) {
+        return studentsByStatus.count(status);
+    }
+
+    public NavigableMap<String, Course> getCoursesByDepartment(String department) {
+        return coursesByDepartment.get(key(department));
+    }
+
+    public int countCoursesByDepartment(String department) {
+        return coursesByDepartment.count(key(department));
+    }
+
+    public NavigableMap<String, Course> getCoursesBySemester(Semester semester) {
+        return coursesBySemester.get(semester);
+    }
+
+    public int countCoursesBySemester(Semester semester) {
+        return coursesBySemester.count(semester);
+    }
+
+    public NavigableMap<String, Course> getCoursesByInstructor(int instructorId) {
+        return coursesByInstructor.get(instructorId);
+    }
+
+    public int countCoursesByInstructor(int instructorId) {
+        return coursesByInstructor.count(instructorId);
+    }
+
+    // --- Mutators (every change goes through here so the indexes stay in sync) ---
+
+    /**
+     * Adds a student.
+     * @return false if the registration number or person id is already taken.
+     */
+    public boolean addStudent(Student student) {
+        MutationLog log = mutationLog;
+        long ticket;
+        structureLock.readLock().lock();
+        try {
+            if (!putStudent(student)) {
+                return false;
+            }
+            ticket = log.studentAdded(student);
+        } finally {
+            structureLock.readLock().unlock();
+        }
+        log.awaitDurable(ticket);
+        return true;
+    }
+
+    /**
+     * Adds a batch of students, e.g. one chunk of an import, and logs them as a single change.
+     * @return Whether each student was added; false where the regNo or id was already taken.
+     */
+    public boolean[] addStudents(List<Student> students) {
+        MutationLog log = mutationLog;
+        boolean[] added = new boolean[students.size()];
+        List<Student> accepted = new ArrayList<>(students.size());
+        long ticket = 0;
+        structureLock.readLock().lock();
+        try {
+            for (int i = 0; i < added.length; i++) {
+                added[i] = putStudent(students.get(i));
+                if (added[i]) accepted.add(students.get(i));
+            }
+            if (!accepted.isEmpty()) ticket = log.studentsImported(accepted);
+        } finally {
+            structureLock.readLock().unlock();
+        }
+        log.awaitDurable(ticket);
+        return added;
+    }
+
+    // Claims the regNo first, then the id, and backs out if the id is already taken
+    private boolean putStudent(Student student) {
+        String regNo = key(student.getRegNo());
+        if (studentsByRegNo.putIfAbsent(regNo, student) != null) {
+            return false;
+        }
+        if (peopleById.putIfAbsent(student.getId(), student) != null) {
+            studentsByRegNo.remove(regNo, student);
+            return false;
+        }
+        synchronized (student) {
+            studentsByStatus.add(student.getStatus(), regNo, student);
+        }
+        return true;
+    }
+
+    /**
+     * Removes a student, taking them off every roster and waitlist and freeing their seats.
+     * The removal holds the student's monitor, as enrollments do from their checks until they are
+     * recorded, so an enrollment either completes before it or sees the student gone; the write
+     * lock orders it against batch adds of the same student.
+     * Promoting waitlisted students into the freed seats is the enrollment service's job.
+     */
+    public Optional<Student> removeStudent(String regNo) {
+        MutationLog log = mutationLog;
+        while (true) {
+            Student removed = studentsByRegNo.get(key(regNo));
+            if (removed == null) {
+                return Optional.empty();
+            }
+            long ticket;
+            synchronized (removed) {
+                structureLock.writeLock().lock();
+                try {
+                    if (!studentsByRegNo.remove(key(regNo), removed)) {
+                        continue; // Replaced meanwhile; remove whoever holds the regNo now
+                    }
+                    peopleById.remove(removed.getId(), removed);
+                    enrollmentIndex.removeStudent(removed);
+                    for (Course course : removed.getEnrolledCourses()) {
+                        course.releaseSeat();
+                    }
+                    for (Course course : coursesByCode.values()) {
+                        course.leaveWaitlist(removed); // No-op for courses without a capacity
+                    }
+                    studentsByStatus.remove(removed.getStatus(), key(removed.getRegNo()), removed);
+                    ticket = log.studentRemoved(removed);
+                } finally {
+                    structureLock.writeLock().unlock();
+                }
+            }
+            log.awaitDurable(ticket);
+            return Optional.of(removed);
+        }
+    }
+
+    /**
+     * Replaces every student with the given ones, e.g. after an import.
+     * @return The number of students added; rows with a duplicate regNo or id are skipped.
+     */
+    public int replaceStudents(Collection<Student> students) {
+        MutationLog log = mutationLog;
+        List<Student> accepted = new ArrayList<>(students.size());
+        long ticket;
+        structureLock.writeLock().lock();
+        try {
+            removeAllStudents();
+            for (Student s : students) {
+                if (putStudent(s)) accepted.add(s);
+            }
+            enrollmentIndex.rebuild(studentsByRegNo.values());
+            resetSeats();
+            ticket = log.studentsCleared();
+            if (!accepted.isEmpty()) ticket = log.studentsImported(accepted);
+        } finally {
+            structureLock.writeLock().unlock();
+        }
+        log.awaitDurable(ticket);
+        return accepted.size();
+    }
+
+    /**
+     * Removes every student and their enrollments, e.g. before a streaming import refills the store.
+     */
+    public void clearStudents() {
+        MutationLog log = mutationLog;
+        long ticket;
+        structureLock.writeLock().lock();
+        try {
+            removeAllStudents();
+            enrollmentIndex.rebuild(Collections.emptyList());
+            resetSeats();
+            ticket = log.studentsCleared();
+        } finally {
+            structureLock.writeLock().unlock();
+        }
+        log.awaitDurable(ticket);
+    }
+
+    /**
+     * Removes every record, e.g. before a snapshot is loaded. Not logged: a snapshot load is not a change.
+     */
+    public void clear() {
+        structureLock.writeLock().lock();
+        try {
+            studentsByRegNo.clear();
+            coursesByCode.clear();
+            instructorsById.clear();
+            peopleById.clear();
+            enrollmentIndex.rebuild(Collections.emptyList());
+            studentsByStatus.clear();
+            coursesByDepartment.clear();
+            coursesBySemester.clear();
+            coursesByInstructor.clear();
+            requisites.clear();
+        } finally {
+            structureLock.writeLock().unlock();
+        }
+    }
+
+    // Callers hold the write lock
+    private void removeAllStudents() {
+        for (Student s : studentsByRegNo.values()) {
+            peopleById.remove(s.getId(), s);
+        }
+        studentsByRegNo.clear();
+        studentsByStatus.clear();
+    }
+
+    // Callers hold the write lock; seat counts follow the rebuilt rosters
+    private void resetSeats() {
+        for (Course c : coursesByCode.values()) {
+            c.resetSeats(enrollmentIndex.count(c.getCode()));
+        }
+    }
+
+    /**
+     * Adds a course.
+     * @return false if the course code is already taken.
+     */
+    public boolean addCourse(Course course) {
+        MutationLog log = mutationLog;
+        String code = key(course.getCode());
+        long ticket;
+        structureLock.readLock().lock(); // Orders it against removeCourse
+        try {
+            if (coursesByCode.putIfAbsent(code, course) != null) {
+                return false;
+            }
+            synchronized (course) {
+                coursesByDepartment.add(key(course.getDepartment()), code, course);
+                coursesBySemester.add(course.getSemester(), code, course);
+                coursesByInstructor.add(instructorId(course), code, course);
+            }
+            ticket = log.courseAdded(course);
+        } finally {
+            structureLock.readLock().unlock();
+        }
+        log.awaitDurable(ticket);
+        return true;
+    }
+
+    /**
+     * Removes a course with its roster, waitlist and requisite edges, and unenrolls every student
+     * who took it, so none keeps its credits, time slots or grade.
+     * <p>
+     * The course leaves the store under the write lock. Enrollments are recorded under the read lock
+     * and only while the course is stored, so the students taken there are everyone who can hold it
+     * and nobody can join it afterwards. They are then unenrolled one at a time under their own
+     * monitors, after the lock is released, since enrollments take the two in the other order.
+     * Completions of the course are dropped too, so it no longer satisfies any prerequisite if the
+     * code is reused. Both go by identity, so a course re-added under the code in between is kept.
+     */
+    public Optional<Course> removeCourse(String code) {
+        MutationLog log = mutationLog;
+        Course removed;
+        List<Student> students;
+        long ticket;
+        structureLock.writeLock().lock();
+        try {
+            removed = coursesByCode.remove(key(code));
+            if (removed == null) {
+                return Optional.empty();
+            }
+            // Not just the roster: students who passed the course and left still hold a completion
+            students = new ArrayList<>(studentsByRegNo.values());
+            enrollmentIndex.removeCourse(code);
+            removed.clearWaitlist();
+            removed.resetSeats(0);
+            requisites.removeCourse(code);
+            synchronized (removed) { // Pairs with assignInstructor
+                String courseKey = key(removed.getCode());
+                coursesByDepartment.remove(key(removed.getDepartment()), courseKey, removed);
+                coursesBySemester.remove(removed.getSemester(), courseKey, removed);
+                coursesByInstructor.remove(instructorId(removed), courseKey, removed);
+            }
+            ticket = log.courseRemoved(removed); // Replaying it repeats the unenrollments below
+        } finally {
+            structureLock.writeLock().unlock();
+        }
+        for (Student student : students) {
+            student.dropCourse(removed);
+        }
+        log.awaitDurable(ticket);
+        return Optional.of(removed);
+    }
+
+    /**
+     * Adds an instructor.
+     * @return false if the person id is already taken.
+     */
+    public boolean addInstructor(Instructor instructor) {
+        MutationLog log = mutationLog;
+        long ticket;
+        structureLock.readLock().lock(); // Orders it against removeInstructor
+        try {
+            if (peopleById.putIfAbsent(instructor.getId(), instructor) != null) {
+                return false;
+            }
+            instructorsById.put(instructor.getId(), instructor);
+            ticket = log.instructorAdded(instructor);
+        } finally {
+            structureLock.readLock().unlock();
+        }
+        log.awaitDurable(ticket);
+        return true;
+    }
+
+    /**
+     * Records that a student was enrolled in a course, keeping the roster index and the course's
+     * seat count in sync. The seat is taken regardless of capacity, as for enrollments restored
+     * from a snapshot or journal.
+     * Callers hold the student's monitor, so a student's roster entries change one at a time.
+     * @return false, recording nothing, if the student or the course is not (or no longer) in the store.
+     */
+    public boolean recordEnrollment(Student student, Course course) {
+        return recordEnrollment(student, course, false);
+    }
+
+    /**
+     * @param seatClaimed Whether the caller already claimed the seat with Course.tryClaimSeat.
+     *                    The caller still owns a claimed seat if this returns false.
+     */
+    public boolean recordEnrollment(Student student, Course course, boolean seatClaimed) {
+        long ticket = logEnrollment(student, course, seatClaimed);
+        if (ticket == NOT_RECORDED) {
+            return false;
+        }
+        awaitDurable(ticket);
+        return true;
+    }
+
+    /**
+     * Records an enrollment as recordEnrollment does, but returns its journal ticket instead of waiting
+     * for it, so the caller can wait once the student's monitor is released, or once for a whole batch.
+     * @return The ticket for awaitDurable, or NOT_RECORDED if the student or the course is no longer stored.
+     */
+    public long logEnrollment(Student student, Course course, boolean seatClaimed) {
+        MutationLog log = mutationLog;
+        structureLock.readLock().lock(); // Keeps removeCourse from taking the roster half-way through
+        try {
+            if (studentsByRegNo.get(key(student.getRegNo())) != student || coursesByCode.get(key(course.getCode())) != course) {
+                return NOT_RECORDED;
+            }
+            boolean added = enrollmentIndex.add(course, student);
+            if (added && !seatClaimed) {
+                course.occupySeat();
+            } else if (!added && seatClaimed) {
+                course.releaseSeat(); // Already on the roster, so the claimed seat is not needed
+            }
+            return log.enrolled(student, course);
+        } finally {
+            structureLock.readLock().unlock();
         }
-        return instance;
     }
 
-    // Public methods to access the data
-    public List<Student> getStudents() {
-        return students;
+    /**
+     * Waits until the change with the given journal ticket is durable. Tickets only grow, so waiting
+     * for the highest of several covers them all.
+     */
+    public void awaitDurable(long ticket) {
+        if (ticket == NOT_RECORDED) {
+            return;
+        }
+        mutationLog.awaitDurable(ticket);
+    }
+
+    /**
+     * Records an unenrollment, freeing the student's seat in the course. Like logEnrollment it returns
+     * the journal ticket instead of waiting, so the caller can wait once the student's monitor is released.
+     * @return The ticket for awaitDurable, or NOT_RECORDED if the student or the course is no longer stored
+     *         (removing either already took the enrollment with it).
+     */
+    public long removeEnrollment(Student student, Course course) {
+        MutationLog log = mutationLog;
+        structureLock.readLock().lock(); // Keeps removeCourse from journaling or freeing the roster in between
+        try {
+            if (studentsByRegNo.get(key(student.getRegNo())) != student || coursesByCode.get(key(course.getCode())) != course) {
+                return NOT_RECORDED;
+            }
+            if (enrollmentIndex.remove(course, student)) {
+                course.releaseSeat();
+            }
+            return log.unenrolled(student, course);
+        } finally {
+            structureLock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Changes a stored student's status, keeping the status index in sync.
+     * @return false if the student is not (or no longer) in the store.
+     */
+    public boolean updateStudentStatus(Student student, StudentStatus status) {
+        MutationLog log = mutationLog;
+        String regNo = key(student.getRegNo());
+        long ticket;
+        synchronized (student) {
+            structureLock.readLock().lock(); // Orders it against bulk replacement
+            try {
+                if (studentsByRegNo.get(regNo) != student) {
+                    return false;
+                }
+                if (student.getStatus() == status) {
+                    return true;
+                }
+                studentsByStatus.remove(student.getStatus(), regNo, student);
+                student.setStatus(status);
+                studentsByStatus.add(status, regNo, student);
+                ticket = log.studentStatusChanged(student);
+            } finally {
+                structureLock.readLock().unlock();
+            }
+        }
+        log.awaitDurable(ticket);
+        return true;
+    }
+
+    /**
+     * Assigns (or, with null, clears) a stored course's instructor, keeping the instructor index in sync.
+     * @return false if the course is not (or no longer) in the store.
+     */
+    public boolean assignInstructor(Course course, Instructor instructor) {
+        MutationLog log = mutationLog;
+        String code = key(course.getCode());
+        long ticket;
+        structureLock.readLock().lock(); // Taken before the course monitor, as removeCourse does
+        try {
+            synchronized (course) {
+                if (coursesByCode.get(code) != course) {
+                    return false;
+                }
+                coursesByInstructor.remove(instructorId(course), code, course);
+                course.setInstructor(instructor);
+                coursesByInstructor.add(instructorId(course), code, course);
+                ticket = log.instructorAssigned(course);
+            }
+        } finally {
+            structureLock.readLock().unlock();
+        }
+        log.awaitDurable(ticket);
+        return true;
+    }
+
+    private static Integer instructorId(Course course) {
+        return course.getInstructor() == null ? null : course.getInstructor().getId();
+    }
+
+    /**
+     * Records a grade for an enrolled course. Callers hold the student's monitor.
+     * @throws IllegalStateException if the student is not enrolled in the course.
+     */
+    public void recordGrade(Student student, Course course, Grade grade) {
+        student.recordGrade(course, grade);
+        MutationLog log = mutationLog;
+        log.awaitDurable(log.graded(student, course, grade)); // Ordered by the caller's monitor
+    }
+
+    // --- Requisites ---
+
+    /**
+     * Makes a stored course require another stored course, or changes how it requires it.
+     * @return false if either course is not (or no longer) in the store.
+     * @throws IllegalArgumentException if the edge would make a course require itself, directly or not.
+     */
+    public boolean addRequisite(Course course, Course required, RequisiteType type) {
+        MutationLog log = mutationLog;
+        long ticket = 0;
+        structureLock.writeLock().lock(); // Edge changes are rare; this orders them against removeCourse
+        try {
+            if (coursesByCode.get(key(course.getCode())) != course || coursesByCode.get(key(required.getCode())) != required) {
+                return false;
+            }
+            if (requisites.add(course, required, type)) {
+                ticket = log.requisiteAdded(course, required, type);
+            }
+        } finally {
+            structureLock.writeLock().unlock();
+        }
+        log.awaitDurable(ticket);
+        return true;
+    }
+
+    /**
+     * @return false if the course did not require the other one.
+     */
+    public boolean removeRequisite(Course course, Course required) {
+        MutationLog log = mutationLog;
+        long ticket;
+        structureLock.writeLock().lock();
+        try {
+            if (!requisites.remove(course.getCode(), required.getCode())) {
+                return false;
+            }
+            ticket = log.requisiteRemoved(course, required);
+        } finally {
+            structureLock.writeLock().unlock();
+        }
+        log.awaitDurable(ticket);
+        return true;
+    }
+
+    /**
+     * @return The courses a course requires directly, by code.
+     */
+    public Map<String, RequisiteType> getRequisites(String courseCode) {
+        return requisites.getRequisites(courseCode);
+    }
+
+    /**
+     * @return Every course a course requires, directly or through other courses.
+     */
+    public List<String> getTransitiveRequisites(String courseCode) {
+        return requisites.getTransitiveRequisites(courseCode);
+    }
+
+    /**
+     * @return The codes of the required courses the student has not passed (or, for co-requisites,
+     *         is not taking); empty if the student meets every requirement of the course.
+     */
+    public List<String> findUnmetRequisites(Student student, Course course) {
+        return requisites.findUnmet(course.getCode(),
+                code -> hasPassed(student, code),
+                code -> hasPassed(student, code) || isEnrolled(student, code));
+    }
+
+    private boolean hasPassed(Student student, String courseCode) {
+        Course course = coursesByCode.get(key(courseCode));
+        return course != null && student.hasPassed(course);
+    }
+
+    private boolean isEnrolled(Student student, String courseCode) {
+        Course course = coursesByCode.get(key(courseCode));
+        return course != null && student.isEnrolledIn(course);
     }
 
-    public List<Course> getCourses() {
-        return courses;
+    public Optional<Instructor> removeInstructor(int id) {
+        MutationLog log = mutationLog;
+        Instructor removed;
+        long ticket = 0;
+        structureLock.writeLock().lock();
+        try {
+            removed = instructorsById.remove(id);
+            if (removed != null) {
+                peopleById.remove(id, removed);
+                ticket = log.instructorRemoved(removed);
+            }
+        } finally {
+            structureLock.writeLock().unlock();
+        }
+        log.awaitDurable(ticket);
+        return Optional.ofNullable(removed);
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,77 @@
+// File: src/edu/ccrm/config/EnrollmentIndex.java
+package edu.ccrm.config;
+
+import edu.ccrm.domain.Course;
+import edu.ccrm.domain.Student;
+
+import java.util.Collection;
+import java.util.Locale;
+import java.util.Set;
+
+/**
+ * Reverse index from a course code to the students enrolled in it, kept in sync by the DataStore.
+ * <p>
+ * Two implementations exist, chosen with {@code -Dccrm.enrollmentIndex=hash|bitmap}:
+ * {@link HashEnrollmentIndex} (the default) keeps a concurrent hash set of students per course;
+ * {@link BitmapEnrollmentIndex} gives students and courses dense ordinals and keeps compressed
+ * bitmaps per course and per student, so counts and intersections run as bitmap operations.
+ */
+public interface EnrollmentIndex {
+
+    String PROPERTY = "ccrm.enrollmentIndex";
+
+    /**
+     * @return The implementation named by the ccrm.enrollmentIndex system property.
+     */
+    static EnrollmentIndex create() {
+        String type = System.getProperty(PROPERTY, "hash").trim().toLowerCase(Locale.ROOT);
+        switch (type) {
+            case "bitmap":
+                return new BitmapEnrollmentIndex();
+            case "hash":
+                return new HashEnrollmentIndex();
+            default:
+                System.err.println("Unknown " + PROPERTY + " '" + type + "', using the hash index.");
+                return new HashEnrollmentIndex();
+        }
+    }
+
+    /**
+     * @return false if the student was already on the course's roster.
+     */
+    boolean add(Course course, Student student);
+
+    /**
+     * @return false if the student was not on the course's roster.
+     */
+    boolean remove(Course course, Student student);
+
+    /**
+     * Drops a student from every roster they appear in.
+     */
+    void removeStudent(Student student);
+
+    void removeCourse(String courseCode);
+
+    /**
+     * @return A read-only view of the students enrolled in the course (empty if none).
+     */
+    Set<Student> getRoster(String courseCode);
+
+    int count(String courseCode);
+
+    /**
+     * @return The students enrolled in both courses, as a read-only set.
+     */
+    Set<Student> getCommonStudents(String courseCodeA, String courseCodeB);
+
+    /**
+     * @return How many students are enrolled in both courses.
+     */
+    int countCommon(String courseCodeA, String courseCodeB);
+
+    /**
+     * Rebuilds the index from the students' own enrollment lists, e.g. after a bulk import.
+     */
+    void rebuild(Collection<Student> students);
+}
@@ -0,0 +1,94 @@
+// File: src/edu/ccrm/config/HashEnrollmentIndex.java
+package edu.ccrm.config;
+
+import edu.ccrm.domain.Course;
+import edu.ccrm.domain.Student;
+
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Consumer;
+
+/**
+ * The default EnrollmentIndex: a reverse index from a course code to the students enrolled in it.
+ * A roster lookup costs only the size of the roster instead of a scan over every student.
+ * Rosters are concurrent sets, so enrollments in the same course only contend on hash bins.
+ */
+public class HashEnrollmentIndex implements EnrollmentIndex {
+
+    private final Map<String, Set<Student>> rostersByCourse = new ConcurrentHashMap<>();
+
+    @Override
+    public boolean add(Course course, Student student) {
+        return rostersByCourse.computeIfAbsent(DataStore.key(course.getCode()), k -> ConcurrentHashMap.newKeySet()).add(student);
+    }
+
+    // Empty rosters are kept rather than dropped, so a concurrent add can never land in a discarded set
+    @Override
+    public boolean remove(Course course, Student student) {
+        Set<Student> roster = rostersByCourse.get(DataStore.key(course.getCode()));
+        return roster != null && roster.remove(student);
+    }
+
+    @Override
+    public void removeStudent(Student student) {
+        for (Course course : student.getEnrolledCourses()) {
+            remove(course, student);
+        }
+    }
+
+    @Override
+    public void removeCourse(String courseCode) {
+        rostersByCourse.remove(DataStore.key(courseCode));
+    }
+
+    @Override
+    public Set<Student> getRoster(String courseCode) {
+        Set<Student> roster = rostersByCourse.get(DataStore.key(courseCode));
+        return roster == null ? Collections.emptySet() : Collections.unmodifiableSet(roster);
+    }
+
+    @Override
+    public int count(String courseCode) {
+        Set<Student> roster = rostersByCourse.get(DataStore.key(courseCode));
+        return roster == null ? 0 : roster.size();
+    }
+
+    @Override
+    public void rebuild(Collection<Student> students) {
+        rostersByCourse.clear();
+        for (Student student : students) {
+            for (Course course : student.getEnrolledCourses()) {
+                add(course, student);
+            }
+        }
+    }
+
+    @Override
+    public Set<Student> getCommonStudents(String courseCodeA, String courseCodeB) {
+        Set<Student> common = new HashSet<>();
+        forEachCommon(courseCodeA, courseCodeB, common::add);
+        return Collections.unmodifiableSet(common);
+    }
+
+    @Override
+    public int countCommon(String courseCodeA, String courseCodeB) {
+        int[] count = {0};
+        forEachCommon(courseCodeA, courseCodeB, s -> count[0]++);
+        return count[0];
+    }
+
+    // Walks the smaller roster and probes the larger one
+    private void forEachCommon(String courseCodeA, String courseCodeB, Consumer<Student> action) {
+        Set<Student> a = getRoster(courseCodeA);
+        Set<Student> b = getRoster(courseCodeB);
+        Set<Student> smaller = a.size() <= b.size() ? a : b;
+        Set<Student> larger = smaller == a ? b : a;
+        for (Student s : smaller) {
+            if (larger.contains(s)) action.accept(s);
+        }
+    }
+}
@@ -0,0 +1,59 @@
+// File: src/edu/ccrm/config/MutationLog.java
+package edu.ccrm.config;
+
+import edu.ccrm.domain.Course;
+import edu.ccrm.domain.Grade;
+import edu.ccrm.domain.Instructor;
+import edu.ccrm.domain.RequisiteType;
+import edu.ccrm.domain.Student;
+
+import java.util.List;
+
+/**
+ * Receives every change the DataStore applies, so it can be made durable (e.g. by a journal).
+ * <p>
+ * Recording is split in two so the log's order is the order the changes were applied: the store
+ * calls a change method while it still holds the lock that ordered the change, and that method only
+ * sequences the record and returns a ticket; once the lock is released the store passes the ticket
+ * to awaitDurable, which returns when the change is safe to acknowledge.
+ * All methods default to doing nothing, with a ticket of 0.
+ */
+public interface MutationLog {
+
+    MutationLog NONE = new MutationLog() { };
+
+    default long studentAdded(Student student) { return 0; }
+
+    default long studentRemoved(Student student) { return 0; }
+
+    default long studentsCleared() { return 0; }
+
+    default long studentsImported(List<Student> students) { return 0; }
+
+    default long studentStatusChanged(Student student) { return 0; }
+
+    default long courseAdded(Course course) { return 0; }
+
+    default long courseRemoved(Course course) { return 0; }
+
+    default long instructorAssigned(Course course) { return 0; }
+
+    default long instructorAdded(Instructor instructor) { return 0; }
+
+    default long instructorRemoved(Instructor instructor) { return 0; }
+
+    default long enrolled(Student student, Course course) { return 0; }
+
+    default long unenrolled(Student student, Course course) { return 0; }
+
+    default long graded(Student student, Course course, Grade grade) { return 0; }
+
+    default long requisiteAdded(Course course, Course required, RequisiteType type) { return 0; }
+
+    default long requisiteRemoved(Course course, Course required) { return 0; }
+
+    /**
+     * Waits until the change a ticket was returned for, and every one before it, is durable.
+     */
+    default void awaitDurable(long ticket) { }
+}
@@ -0,0 +1,282 @@
+// File: src/edu/ccrm/config/PrerequisiteGraph.java
+package edu.ccrm.config;
+
+import edu.ccrm.domain.Course;
+import edu.ccrm.domain.RequisiteType;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.Collections;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.Predicate;
+
+/**
+ * The prerequisite and co-requisite edges between courses, kept acyclic.
+ * <p>
+ * Each course that takes part in an edge gets a dense ordinal. Its transitive requirements are
+ * cached as bitsets over those ordinals: every course it reaches, the ones a student must have
+ * passed, and the co-requisites a student may instead be taking alongside. So an enrollment check
+ * costs one lookup per required course, however deep the chain, and a cycle check is one bit test.
+ * <p>
+ * A course's closure is built on first use from the closures below it. Changing an edge clears only
+ * the closures of the course and of the courses that require it, directly or not; the rest of the
+ * catalogue keeps its cache. Reads share a read lock, so checks run in parallel; edge changes are rare
+ * and take the write lock.
+ */
+public class PrerequisiteGraph {
+
+    private static final class Node {
+        final int ordinal;
+        final String code; // As first given, for messages
+        final Map<Integer, RequisiteType> requires = new LinkedHashMap<>(); // Ordinal of the required course -> type
+        final Set<Integer> requiredBy = new HashSet<>();
+        volatile Closure closure; // Null until first needed, and again after an edge below it changes
+
+        Node(int ordinal, String code) {
+            this.ordinal = ordinal;
+            this.code = code;
+        }
+    }
+
+    /**
+     * The transitive requirements of one course. Immutable once built.
+     */
+    private static final class Closure {
+        static final Closure NONE = new Closure(new BitSet(), new BitSet(), new BitSet());
+
+        final BitSet reach; // Every course reached through any edge
+        final BitSet passed; // Must be passed: prerequisites, and the prerequisites of co-requisites
+        final BitSet taken; // Co-requisites (and theirs): passed or enrolled
+
+        Closure(BitSet reach, BitSet passed, BitSet taken) {
+            this.reach = reach;
+            this.passed = passed;
+            this.taken = taken;
+        }
+    }
+
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+    private final Map<String, Node> nodesByKey = new HashMap<>(); // Keyed by DataStore.key(code)
+    private final List<Node> nodes = new ArrayList<>(); // By ordinal; null once the course is removed
+
+    /**
+     * Makes one course require another, or changes how it requires it.
+     * @return false if the edge was already there with the same type.
+     * @throws IllegalArgumentException if the edge would close a cycle.
+     */
+    public boolean add(Course course, Course required, RequisiteType type) {
+        String key = DataStore.key(course.getCode());
+        String requiredKey = DataStore.key(required.getCode());
+        if (key.equals(requiredKey)) {
+            throw new IllegalArgumentException("Course " + course.getCode() + " cannot require itself");
+        }
+        lock.writeLock().lock();
+        try {
+            Node node = nodeFor(key, course.getCode());
+            Node requiredNode = nodeFor(requiredKey, required.getCode());
+            RequisiteType existing = node.requires.get(requiredNode.ordinal);
+            if (existing == type) {
+                return false;
+            }
+            if (existing == null && closureOf(requiredNode).reach.get(node.ordinal)) {
+                throw new IllegalArgumentException("Course " + required.getCode() + " already requires "
+                        + course.getCode() + ", directly or through other courses, so this would make a cycle");
+            }
+            node.requires.put(requiredNode.ordinal, type);
+            requiredNode.requiredBy.add(node.ordinal);
+            invalidate(node);
+            return true;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * @return false if the course did not require the other one.
+     */
+    public boolean remove(String code, String requiredCode) {
+        lock.writeLock().lock();
+        try {
+            Node node = nodesByKey.get(DataStore.key(code));
+            Node requiredNode = nodesByKey.get(DataStore.key(requiredCode));
+            if (node == null || requiredNode == null || node.requires.remove(requiredNode.ordinal) == null) {
+                return false;
+            }
+            requiredNode.requiredBy.remove(node.ordinal);
+            invalidate(node);
+            return true;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Drops every edge to and from a course, e.g. when it is deleted. Its ordinal is retired.
+     */
+    public void removeCourse(String code) {
+        lock.writeLock().lock();
+        try {
+            Node node = nodesByKey.remove(DataStore.key(code));
+            if (node == null) return;
+            invalidate(node); // While the edges up to its dependents still exist
+            for (int required : node.requires.keySet()) {
+                nodes.get(required).requiredBy.remove(node.ordinal);
+            }
+            for (int dependent : node.requiredBy) {
+                nodes.get(dependent).requires.remove(node.ordinal);
+            }
+            nodes.set(node.ordinal, null);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public void clear() {
+        lock.writeLock().lock();
+        try {
+            nodesByKey.clear();
+            nodes.clear();
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    // --- Reads ---
+
+    /**
+     * @return The courses a course requires directly, by code, in the order they were added.
+     */
+    public Map<String, RequisiteType> getRequisites(String code) {
+        lock.readLock().lock();
+        try {
+            Node node = nodesByKey.get(DataStore.key(code));
+            if (node == null) return Collections.emptyMap();
+            Map<String, RequisiteType> requisites = new LinkedHashMap<>();
+            node.requires.forEach((required, type) -> requisites.put(nodes.get(required).code, type));
+            return requisites;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * @return Every course a course requires, directly or through other courses.
+     */
+    public List<String> getTransitiveRequisites(String code) {
+        lock.readLock().lock();
+        try {
+            Node node = nodesByKey.get(DataStore.key(code));
+            return node == null ? Collections.emptyList() : codes(closureOf(node).reach);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Checks a student's record against every requirement of a course, direct or transitive.
+     * @param passed Whether the student has passed a course, given its code.
+     * @param takenOrTaking Whether the student has passed or is enrolled in a course, given its code.
+     * @return The codes of the courses still missing; empty if the student may enroll.
+     */
+    public List<String> findUnmet(String code, Predicate<String> passed, Predicate<String> takenOrTaking) {
+        lock.readLock().lock();
+        try {
+            Node node = nodesByKey.get(DataStore.key(code));
+            if (node == null || node.requires.isEmpty()) {
+                return Collections.emptyList(); // Most courses: no requirements at all
+            }
+            Closure closure = closureOf(node);
+            List<String> unmet = new ArrayList<>();
+            for (int i = closure.passed.nextSetBit(0); i >= 0; i = closure.passed.nextSetBit(i + 1)) {
+                String required = nodes.get(i).code;
+                if (!passed.test(required)) unmet.add(required);
+            }
+            for (int i = closure.taken.nextSetBit(0); i >= 0; i = closure.taken.nextSetBit(i + 1)) {
+                String required = nodes.get(i).code;
+                if (!closure.passed.get(i) && !takenOrTaking.test(required)) unmet.add(required);
+            }
+            return unmet;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    // --- Closures ---
+
+    // Callers hold either lock. Concurrent readers may build the same closure twice; both copies are equal.
+    private Closure closureOf(Node node) {
+        Closure closure = node.closure;
+        if (closure != null) {
+            return closure;
+        }
+        if (node.requires.isEmpty()) {
+            closure = Closure.NONE;
+        } else {
+            BitSet reach = new BitSet();
+            BitSet passed = new BitSet();
+            BitSet taken = new BitSet();
+            for (Map.Entry<Integer, RequisiteType> edge : node.requires.entrySet()) {
+                int required = edge.getKey();
+                Closure below = closureOf(nodes.get(required));
+                reach.set(required);
+                reach.or(below.reach);
+                passed.or(below.passed);
+                if (edge.getValue() == RequisiteType.PREREQUISITE) {
+                    passed.set(required); // Its own co-requisites were taken with it, so they are not required again
+                } else {
+                    taken.set(required);
+                    taken.or(below.taken);
+                }
+            }
+            closure = new Closure(reach, passed, taken);
+        }
+        node.closure = closure;
+        return closure;
+    }
+
+    /**
+     * Clears the cached closure of a course and of every course that requires it. A closure is only
+     * ever cached after the ones below it, so the walk can stop at courses already cleared.
+     * Callers hold the write lock.
+     */
+    private void invalidate(Node node) {
+        Deque<Node> pending = new ArrayDeque<>();
+        pending.push(node);
+        while (!pending.isEmpty()) {
+            Node next = pending.pop();
+            if (next.closure == null) continue;
+            next.closure = null;
+            for (int dependent : next.requiredBy) {
+                pending.push(nodes.get(dependent));
+            }
+        }
+    }
+
+    // Callers hold the write lock
+    private Node nodeFor(String key, String code) {
+        Node node = nodesByKey.get(key);
+        if (node == null) {
+            node = new Node(nodes.size(), code);
+            nodes.add(node);
+            nodesByKey.put(key, node);
+        }
+        return node;
+    }
+
+    private List<String> codes(BitSet ordinals) {
+        List<String> codes = new ArrayList<>(ordinals.cardinality());
+        for (int i = ordinals.nextSetBit(0); i >= 0; i = ordinals.nextSetBit(i + 1)) {
+            codes.add(nodes.get(i).code);
+        }
+        return codes;
+    }
+}
@@ -0,0 +1,64 @@
+// File: src/edu/ccrm/config/SecondaryIndex.java
+package edu.ccrm.config;
+
+import java.util.Collections;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Groups records by an attribute (e.g. status or department). Each group is kept sorted by the
+ * record's primary key, so a page of results can start from any cursor with one O(log n) seek,
+ * and keeps its own count, so a query planner can pick the smallest group without walking it.
+ *
+ * @param <A> The indexed attribute.
+ * @param <T> The record type.
+ */
+public class SecondaryIndex<A, T> {
+
+    private static final class Group<T> {
+        final ConcurrentSkipListMap<String, T> records = new ConcurrentSkipListMap<>();
+        final AtomicInteger size = new AtomicInteger();
+    }
+
+    private final Map<A, Group<T>> groups = new ConcurrentHashMap<>();
+
+    /**
+     * Adds a record under an attribute value; a null value is not indexed.
+     */
+    public void add(A attribute, String primaryKey, T record) {
+        if (attribute == null) return;
+        Group<T> group = groups.computeIfAbsent(attribute, a -> new Group<>());
+        if (group.records.put(primaryKey, record) == null) {
+            group.size.incrementAndGet();
+        }
+    }
+
+    // Empty groups are kept rather than dropped, so a concurrent add can never land in a discarded group
+    public void remove(A attribute, String primaryKey, T record) {
+        if (attribute == null) return;
+        Group<T> group = groups.get(attribute);
+        if (group != null && group.records.remove(primaryKey, record)) {
+            group.size.decrementAndGet();
+        }
+    }
+
+    /**
+     * @return A read-only, key-ordered view of the records with the attribute value (empty if none).
+     */
+    public NavigableMap<String, T> get(A attribute) {
+        Group<T> group = attribute == null ? null : groups.get(attribute);
+        return group == null ? Collections.emptyNavigableMap() : Collections.unmodifiableNavigableMap(group.records);
+    }
+
+    public int count(A attribute) {
+        Group<T> group = attribute == null ? null : groups.get(attribute);
+        return group == null ? 0 : group.size.get();
+    }
+
+    public void clear() {
+        groups.clear();
+    }
+}
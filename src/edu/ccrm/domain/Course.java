@@ -1,11 +1,27 @@
 // File: src/edu/ccrm/domain/Course.java
 package edu.ccrm.domain;
 
+import edu.ccrm.util.StringPool;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Deque;
+import java.util.List;
 import java.util.Objects;
+import java.util.concurrent.atomic.AtomicInteger;
 
 /**
  * Represents a Course. This class uses the Builder design pattern for object creation. 
  * It also demonstrates a static nested class (the Builder itself). 
+ * <p>
+ * A course may have a seat capacity (0 means unlimited). Seats are claimed with a compare-and-set
+ * on the course's own counter, so students racing for the last seats of one course never lock
+ * anything and never oversell it, and no other course is slowed down. Students who find the
+ * course full join its FIFO waitlist, which is guarded by its own monitor.
+ * <p>
+ * A course may also meet at weekly time slots, fixed when it is built; students cannot enroll in
+ * two courses of the same semester whose slots overlap.
  */
 public class Course {
 
@@ -15,15 +31,22 @@ public class Course {
     private final String department;
     private Instructor instructor;
     private Semester semester;
+    private final int capacity; // 0 = unlimited
+    private final AtomicInteger seatsTaken = new AtomicInteger(); // Kept equal to the roster size by the DataStore
+    private final Deque<Student> waitlist; // Only for courses with a capacity; guarded by itself
+    private final List<TimeSlot> timeSlots; // Sorted and unmodifiable; a shared empty list for unscheduled courses
 
     // Private constructor to enforce the use of the Builder
     private Course(Builder builder) {
         this.code = builder.code;
         this.title = builder.title;
         this.credits = builder.credits;
-        this.department = builder.department;
+        this.department = StringPool.intern(builder.department); // A few departments shared by many courses
         this.instructor = builder.instructor;
         this.semester = builder.semester;
+        this.capacity = builder.capacity;
+        this.waitlist = capacity > 0 ? new ArrayDeque<>() : null;
+        this.timeSlots = builder.timeSlots.isEmpty() ? Collections.emptyList() : sortedCopy(builder.timeSlots);
     }
 
     // --- Getters (no setters to make fields effectively final after creation) ---
@@ -34,15 +57,161 @@ public class Course {
     public String getDepartment() { return department; }
     public Instructor getInstructor() { return instructor; }
     public Semester getSemester() { return semester; }
+    public int getCapacity() { return capacity; }
+    public int getSeatsTaken() { return seatsTaken.get(); }
+    public List<TimeSlot> getTimeSlots() { return timeSlots; }
+
+    public boolean hasCapacityLimit() {
+        return capacity > 0;
+    }
+
+    public boolean hasOpenSeat() {
+        return capacity == 0 || seatsTaken.get() < capacity;
+    }
+
+    public boolean isScheduled() {
+        return !timeSlots.isEmpty();
+    }
+
+    /**
+     * @return true if the courses run in the same semester and any of their time slots overlap.
+     */
+    public boolean conflictsWith(Course other) {
+        if (other == this || semester != other.semester) return false;
+        for (TimeSlot slot : timeSlots) {
+            for (TimeSlot otherSlot : other.timeSlots) {
+                if (slot.overlaps(otherSlot)) return true;
+            }
+        }
+        return false;
+    }
+
+    private static List<TimeSlot> sortedCopy(List<TimeSlot> slots) {
+        List<TimeSlot> sorted = new ArrayList<>(slots);
+        Collections.sort(sorted);
+        for (int i = 1; i < sorted.size(); i++) {
+            if (sorted.get(i - 1).overlaps(sorted.get(i))) {
+                throw new IllegalArgumentException("Time slots overlap: " + sorted.get(i - 1) + " and " + sorted.get(i));
+            }
+        }
+        return Collections.unmodifiableList(sorted);
+    }
+
+    // --- Seats ---
+
+    /**
+     * Claims a seat if one is free.
+     * @return false if the course is full.
+     */
+    public boolean tryClaimSeat() {
+        if (capacity == 0) {
+            seatsTaken.incrementAndGet();
+            return true;
+        }
+        while (true) {
+            int taken = seatsTaken.get();
+            if (taken >= capacity) {
+                return false;
+            }
+            if (seatsTaken.compareAndSet(taken, taken + 1)) {
+                return true;
+            }
+        }
+    }
+
+    /**
+     * Takes a seat regardless of capacity, for enrollments that were already valid when made
+     * (snapshot loads, journal replay, imports).
+     */
+    public void occupySeat() {
+        seatsTaken.incrementAndGet();
+    }
+
+    public void releaseSeat() {
+        seatsTaken.updateAndGet(taken -> taken > 0 ? taken - 1 : 0);
+    }
+
+    /**
+     * Resets the seat count after a bulk change, e.g. to the rebuilt roster's size.
+     */
+    public void resetSeats(int taken) {
+        seatsTaken.set(taken);
+    }
+
+    // --- Waitlist ---
+
+    /**
+     * Adds a student to the end of the waitlist, unless they are already on it.
+     * @return The student's 1-based position.
+     * @throws IllegalStateException if the course has no capacity, and so no waitlist.
+     */
+    public int joinWaitlist(Student student) {
+        if (waitlist == null) {
+            throw new IllegalStateException("Course " + code + " has no capacity limit");
+        }
+        synchronized (waitlist) {
+            int position = 1;
+            for (Student s : waitlist) {
+                if (s == student) return position;
+                position++;
+            }
+            waitlist.addLast(student);
+            return position;
+        }
+    }
+
+    /**
+     * @return The student at the head of the waitlist, removed from it, or null if none.
+     */
+    public Student pollWaitlist() {
+        if (waitlist == null) return null;
+        synchronized (waitlist) {
+            return waitlist.pollFirst();
+        }
+    }
+
+    public boolean leaveWaitlist(Student student) {
+        if (waitlist == null) return false;
+        synchronized (waitlist) {
+            return waitlist.removeFirstOccurrence(student);
+        }
+    }
+
+    public void clearWaitlist() {
+        if (waitlist == null) return;
+        synchronized (waitlist) {
+            waitlist.clear();
+        }
+    }
+
+    public int getWaitlistSize() {
+        if (waitlist == null) return 0;
+        synchronized (waitlist) {
+            return waitlist.size();
+        }
+    }
+
+    /**
+     * @return A snapshot of the waitlist, head first.
+     */
+    public List<Student> getWaitlist() {
+        if (waitlist == null) return List.of();
+        synchronized (waitlist) {
+            return new ArrayList<>(waitlist);
+        }
+    }
 
     // --- We can have a setter for instructor as they might be assigned later ---
+    // Stored courses should change instructor through DataStore.assignInstructor, which keeps the index in sync
     public void setInstructor(Instructor instructor) {
         this.instructor = instructor;
     }
 
     @Override
     public String toString() {
-        return "Course [Code=" + code + ", Title=" + title + ", Credits=" + credits + "]";
+        return "Course [Code=" + code + ", Title=" + title + ", Credits=" + credits
+                + (capacity > 0 ? ", Seats=" + seatsTaken.get() + "/" + capacity : "")
+                + (timeSlots.isEmpty() ? "" : ", Meets=" + TimeSlot.formatSchedule(timeSlots)) + "]";
     }
 
     @Override
@@ -70,6 +239,8 @@ public class Course {
         private String department = "General";
         private Instructor instructor = null;
         private Semester semester = Semester.FALL ;
+        private int capacity = 0; // Unlimited
+        private final List<TimeSlot> timeSlots = new ArrayList<>();
 
         public Builder(String code, String title) {
             this.code = code;
@@ -96,6 +267,27 @@ public class Course {
             return this;
         }
 
+        /**
+         * @param capacity The number of seats, or 0 for no limit.
+         */
+        public Builder capacity(int capacity) {
+            if (capacity < 0) {
+                throw new IllegalArgumentException("Capacity cannot be negative: " + capacity);
+            }
+            this.capacity = capacity;
+            return this;
+        }
+
+        public Builder timeSlot(TimeSlot slot) {
+            this.timeSlots.add(slot);
+            return this;
+        }
+
+        public Builder timeSlots(List<TimeSlot> slots) {
+            this.timeSlots.addAll(slots);
+            return this;
+        }
+
         // The final build method that  returns the constructed Course object
         public Course build() {
             return new Course(this) ;
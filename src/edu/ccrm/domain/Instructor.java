@@ -1,6 +1,8 @@
 // File: src/edu/ccrm/domain/Instructor.java
 package edu.ccrm.domain;
 
+import edu.ccrm.util.StringPool;
+
 import java.time.LocalDate;
 
 /**
@@ -13,8 +15,9 @@ public class Instructor extends Person {
 
     public Instructor(int id, String fullName, String email, LocalDate dateOfBirth, String department, String title) {
         super(id, fullName, email, dateOfBirth);
-        this.department = department;
-        this.title = title;
+        // Departments and titles repeat across instructors and courses, so they share pooled instances
+        this.department = StringPool.intern(department);
+        this.title = StringPool.intern(title);
     }
 
     @Override
@@ -30,7 +33,7 @@ public class Instructor extends Person {
     }
 
     public void setDepartment(String department){
-        this.department = department;
+        this.department = StringPool.intern(department);
     }
 
     public String getTitle() {
@@ -38,6 +41,6 @@ public class Instructor extends Person {
     }
 
     public void setTitle(String title) {
-        this.title = title;
+        this.title = StringPool.intern(title);
     }
 }
\ No newline at end of file
@@ -15,14 +15,16 @@ public abstract class Person {
     private int id;
     private String fullName;
     private String email;
-    private LocalDate dateOfBirth;
+    private int dateOfBirth; // Packed as an epoch day (NO_DATE if unknown) instead of a LocalDate object
+
+    private static final int NO_DATE = Integer.MIN_VALUE;
 
     // Constructor to initialize Person objects
     public Person(int id, String fullName, String email, LocalDate dateOfBirth) {
         this.id = id;
         this.fullName = fullName;
         this.email = email;
-        this.dateOfBirth = dateOfBirth;
+        this.dateOfBirth = pack(dateOfBirth);
     }
 
     // Abstract method - subclasses MUST provide their own implementation
@@ -55,11 +57,20 @@ public abstract class Person {
     }
 
     public LocalDate getDateOfBirth() {
-        return dateOfBirth;
+        return dateOfBirth == NO_DATE ? null : LocalDate.ofEpochDay(dateOfBirth);
     }
 
     public void setDateOfBirth(LocalDate dateOfBirth){
-        this.dateOfBirth = dateOfBirth;
+        this.dateOfBirth = pack(dateOfBirth);
+    }
+
+    private static int pack(LocalDate date) {
+        if (date == null) return NO_DATE;
+        long epochDay = date.toEpochDay();
+        if (epochDay <= NO_DATE || epochDay > Integer.MAX_VALUE) {
+            throw new IllegalArgumentException("Date of birth out of range: " + date);
+        }
+        return (int) epochDay;
     }
 
     // Overriding toString() for better object representation [cite:  77]
@@ -79,6 +90,7 @@ public abstract class Person {
 
     @Override
     public int hashCode() {
-        return Objects.hash(id, email);
+        // Same value as Objects.hash(id, email), without boxing id into a varargs array
+        return 31 * (31 + id) + Objects.hashCode(email);
     }
 }
\ No newline at end of file
@@ -0,0 +1,20 @@
+// File: src/edu/ccrm/domain/RequisiteType.java
+package edu.ccrm.domain;
+
+/**
+ * How one course requires another before a student may enroll in it.
+ */
+public enum RequisiteType {
+    PREREQUISITE("Prerequisite"), // Must already be passed
+    COREQUISITE("Co-requisite"); // Must be passed, or taken alongside (enrolled at the same time)
+
+    private final String displayName;
+
+    RequisiteType(String displayName) {
+        this.displayName = displayName;
+    }
+
+    public String getDisplayName() {
+        return displayName;
+    }
+}
@@ -2,25 +2,60 @@
 package edu.ccrm.domain;
 
 import java.time.LocalDate;
-import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
 
 /**
  * Represents a Student, inheriting properties from Person.
  * Demonstrates Inheritance. [cite: 60]
+ * The student's own monitor guards its enrollment state; the enrollment service holds it
+ * across the rule checks so they stay atomic per student.
+ * <p>
+ * Grades are kept per enrolled course (so per course and semester), alongside running sums of
+ * graded credits and credit-weighted grade points per semester, which makes semester and
+ * cumulative GPA constant-time reads. The transcript is built on first use and cached until
+ * the student's grades or enrollments next change.
+ * <p>
+ * A course counts as passed while its grade is above F, and stays passed after the student
+ * unenrolls: leaving a course with a passing grade moves it into the student's completed set,
+ * which prerequisites are checked against along with the current grades.
+ * <p>
+ * The representation is kept lean for very large datasets: enrolled courses live in a right-sized
+ * array (a shared empty one until the first enrollment) and are scanned for duplicates, with a
+ * hash set added only once a student holds more than SET_THRESHOLD courses; the grade sums are
+ * allocated with the first grade, and the timetable of booked time slots with the first scheduled course.
  */
 public class Student extends Person  {
 
     private String regNo;
     private StudentStatus status;
-    private List<Course> enrolledCourses; // A student can enroll in many courses
+    private static final Course[] NO_COURSES = {};
+    private static final int SET_THRESHOLD = 16; // A linear scan beats hashing below this
+
+    private Course[] enrolledCourses; // In enrollment order; the first courseCount slots are used
+    private int courseCount;
+    private Set<Course> enrolledCourseSet; // Hashed membership, only for students past SET_THRESHOLD courses
+    private final int[] creditsBySemester; // Running credit totals, indexed by Semester.ordinal()
+    private Map<Course, Grade> grades; // Created on the first grade; most students have none while enrolling
+    private Set<Course> completedCourses; // Passed and since left; created with the first one
+    private int[] gradedCreditsBySemester; // Created with grades
+    private double[] gradePointsBySemester; // Sum of credits * grade point, per semester
+    private volatile Transcript transcript; // Cached; cleared on every grade or enrollment change
+    private Timetable timetable; // Created with the first course that has time slots
 
     public Student(int id, String fullName, String email, LocalDate dateOfBirth, String regNo) {
         // Call the constructor of the parent class (Person) using 'super' 
         super(id, fullName, email, dateOfBirth);
         this.regNo = regNo;
         this.status = StudentStatus.ACTIVE; // Default status
-        this.enrolledCourses = new ArrayList<>();
+        this.enrolledCourses = NO_COURSES;
+        this.creditsBySemester = new int[Semester.values().length];
     }
 
     //Implementation of the abstract method from Person class
@@ -32,14 +67,244 @@ public class Student extends Person  {
 
     // --- Student-specific methods ---
 
-    public void enrollInCourse(Course course) {
-        if (course != null && !enrolledCourses.contains(course)) {
-            enrolledCourses.add(course);
+    public synchronized void enrollInCourse(Course course) {
+        if (course != null && !isEnrolledIn(course)) {
+            if (courseCount == enrolledCourses.length) {
+                enrolledCourses = Arrays.copyOf(enrolledCourses, Math.max(4, courseCount + (courseCount >> 1)));
+            }
+            enrolledCourses[courseCount++] = course;
+            if (enrolledCourseSet != null) {
+                enrolledCourseSet.add(course);
+            } else if (courseCount > SET_THRESHOLD) {
+                enrolledCourseSet = new HashSet<>(Arrays.asList(enrolledCourses).subList(0, courseCount));
+            }
+            creditsBySemester[course.getSemester().ordinal()] += course.getCredits();
+            if (course.isScheduled()) {
+                if (timetable == null) timetable = new Timetable();
+                timetable.book(course);
+            }
+            transcript = null;
+        }
+    }
+
+    /**
+     * Sizes the course array for a known number of enrollments, e.g. before a bulk load.
+     */
+    public synchronized void ensureCourseCapacity(int capacity) {
+        if (capacity > enrolledCourses.length) {
+            enrolledCourses = Arrays.copyOf(enrolledCourses, capacity);
+        }
+    }
+
+    public synchronized void unenrollFromCourse(Course course) {
+        int index = indexOf(course);
+        if (index >= 0) {
+            unenrollAt(index);
+        }
+    }
+
+    // Works from the stored course, which is what the credits, timetable and grades were booked against
+    private void unenrollAt(int index) {
+        Course course = enrolledCourses[index];
+        System.arraycopy(enrolledCourses, index + 1, enrolledCourses, index, courseCount - index - 1);
+        enrolledCourses[--courseCount] = null;
+        if (enrolledCourseSet != null) {
+            enrolledCourseSet.remove(course);
+        }
+        creditsBySemester[course.getSemester().ordinal()] -= course.getCredits();
+        if (course.isScheduled()) {
+            timetable.release(course);
+        }
+        Grade grade = grades == null ? null : grades.remove(course);
+        if (grade != null) {
+            addToGpa(course, grade, -1);
+            if (grade != Grade.F) {
+                addCompletedCourse(course);
+            }
+        }
+        transcript = null;
+    }
+
+    /**
+     * Removes every trace of a course deleted from the catalogue: the enrollment with its grade,
+     * and any earlier completion. Matches by identity, not code, so a course since re-added under
+     * the same code is left alone.
+     */
+    public synchronized void dropCourse(Course course) {
+        for (int i = 0; i < courseCount; i++) {
+            if (enrolledCourses[i] == course) {
+                unenrollAt(i);
+                break;
+            }
         }
+        if (completedCourses != null) {
+            completedCourses.removeIf(c -> c == course);
+        }
+    }
+
+    public synchronized boolean isEnrolledIn(Course course) {
+        if (enrolledCourseSet != null) {
+            return enrolledCourseSet.contains(course);
+        }
+        return indexOf(course) >= 0;
     }
 
-    public void unenrollFromCourse(Course course) {
-        enrolledCourses.remove(course);
+    // Callers hold the student's monitor
+    private int indexOf(Course course) {
+        if (course == null) return -1;
+        for (int i = 0; i < courseCount; i++) {
+            Course c = enrolledCourses[i];
+            if (c == course || c.equals(course)) return i;
+        }
+        return -1;
+    }
+
+    // --- Timetable ---
+
+    /**
+     * Finds an enrolled course of the same semester whose time slots overlap the given course's.
+     * Whether there is one is a lookup in the student's timetable; the enrolled courses are only
+     * scanned to name the clash once one is known to exist.
+     */
+    public synchronized Optional<Course> findScheduleConflict(Course course) {
+        if (timetable == null || !course.isScheduled() || !timetable.clashesWith(course)) {
+            return Optional.empty();
+        }
+        for (int i = 0; i < courseCount; i++) {
+            if (enrolledCourses[i].conflictsWith(course)) return Optional.of(enrolledCourses[i]);
+        }
+        return Optional.empty(); // Only the course itself, already enrolled
+    }
+
+    /**
+     * @return true if any two of the student's enrolled courses overlap, e.g. after enrollments were
+     *         restored or imported without the rules.
+     */
+    public synchronized boolean hasScheduleOverlap() {
+        return timetable != null && timetable.hasOverlap();
+    }
+
+    /**
+     * @return The total credits the student is enrolled in for the semester, kept up to date on every change.
+     */
+    public synchronized int getSemesterCredits(Semester semester) {
+        return creditsBySemester[semester.ordinal()];
+    }
+
+    // --- Grades and GPA ---
+
+    /**
+     * Records (or replaces) the grade for an enrolled course, updating the GPA sums by the difference.
+     * @return The grade it replaced, or null.
+     * @throws IllegalStateException if the student is not enrolled in the course.
+     */
+    public synchronized Grade recordGrade(Course course, Grade grade) {
+        if (!isEnrolledIn(course)) {
+            throw new IllegalStateException(regNo + " is not enrolled in " + course.getCode());
+        }
+        if (grades == null) {
+            grades = new HashMap<>();
+            gradedCreditsBySemester = new int[creditsBySemester.length];
+            gradePointsBySemester = new double[creditsBySemester.length];
+        }
+        Grade previous = grades.put(course, grade);
+        if (previous != null) {
+            addToGpa(course, previous, -1);
+        }
+        addToGpa(course, grade, 1);
+        transcript = null;
+        return previous;
+    }
+
+    public synchronized Optional<Grade> getGrade(Course course) {
+        return grades == null ? Optional.empty() : Optional.ofNullable(grades.get(course));
+    }
+
+    /**
+     * @return true if the course is graded with anything but F, now or when the student left it,
+     *         which is what prerequisites ask for.
+     */
+    public synchronized boolean hasPassed(Course course) {
+        if (completedCourses != null && completedCourses.contains(course)) return true;
+        if (grades == null) return false;
+        Grade grade = grades.get(course);
+        return grade != null && grade != Grade.F;
+    }
+
+    /**
+     * Records a course the student passed and has since left, e.g. when a snapshot is restored.
+     */
+    public synchronized void addCompletedCourse(Course course) {
+        if (completedCourses == null) {
+            completedCourses = new HashSet<>();
+        }
+        completedCourses.add(course);
+    }
+
+    /**
+     * @return The courses the student passed and has since left; those still enrolled are not included.
+     */
+    public synchronized List<Course> getCompletedCourses() {
+        return completedCourses == null ? Collections.emptyList() : List.copyOf(completedCourses);
+    }
+
+    /**
+     * @return The credit-weighted GPA of the graded courses in the semester, or 0 if none are graded.
+     */
+    public synchronized double getSemesterGpa(Semester semester) {
+        if (grades == null) return 0;
+        int credits = gradedCreditsBySemester[semester.ordinal()];
+        return credits == 0 ? 0 : gradePointsBySemester[semester.ordinal()] / credits;
+    }
+
+    /**
+     * @return The credit-weighted GPA over every graded course, or 0 if none are graded.
+     */
+    public synchronized double getCumulativeGpa() {
+        if (grades == null) return 0;
+        int credits = 0;
+        double points = 0;
+        for (int i = 0; i < gradedCreditsBySemester.length; i++) { // One slot per semester
+            credits += gradedCreditsBySemester[i];
+            points += gradePointsBySemester[i];
+        }
+        return credits == 0 ? 0 : points / credits;
+    }
+
+    /**
+     * Rebuilds the GPA sums from the recorded grades, clearing any floating-point drift left by
+     * many incremental updates.
+     */
+    public synchronized void recomputeGpa() {
+        if (grades != null) {
+            Arrays.fill(gradedCreditsBySemester, 0);
+            Arrays.fill(gradePointsBySemester, 0);
+            grades.forEach((course, grade) -> addToGpa(course, grade, 1));
+        }
+        transcript = null;
+    }
+
+    /**
+     * @return The student's transcript, built on first use and reused until a grade or enrollment changes.
+     */
+    public Transcript getTranscript() {
+        Transcript cached = transcript;
+        if (cached != null) {
+            return cached;
+        }
+        synchronized (this) {
+            if (transcript == null) {
+                transcript = Transcript.of(this, Arrays.asList(enrolledCourses).subList(0, courseCount), grades);
+            }
+            return transcript;
+        }
+    }
+
+    // Callers hold the student's monitor
+    private void addToGpa(Course course, Grade grade, int sign) {
+        int semester = course.getSemester().ordinal();
+        gradedCreditsBySemester[semester] += sign * course.getCredits();
+        gradePointsBySemester[semester] += sign * course.getCredits() * grade.getGradePoint();
     }
 
 
@@ -57,23 +322,22 @@ public class Student extends Person  {
         return status;
     }
 
+    // Stored students should change status through DataStore.updateStudentStatus, which keeps the index in sync
     public void setStatus(StudentStatus status) {
         this.status = status;
     }
 
-    public List<Course> getEnrolledCourses() {
-        return enrolledCourses;
+    /**
+     * @return A snapshot of the enrolled courses, safe to iterate while other threads enroll.
+     */
+    public synchronized List<Course> getEnrolledCourses() {
+        return courseCount == 0
+                ? Collections.emptyList()
+                : Collections.unmodifiableList(Arrays.asList(Arrays.copyOf(enrolledCourses, courseCount)));
     }
 
     @Override
     public String toString() {
         return "Student [RegNo=" + getRegNo() + ", Name=" + getFullName() + "]";
     }
-}
-
-//An enum to represent the student's status. Enums are great for fixed sets of constants.
-enum StudentStatus {
-    ACTIVE,
-    INACTIVE,
-    GRADUATED
 }
\ No newline at end of file
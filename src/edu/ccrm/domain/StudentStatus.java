@@ -0,0 +1,9 @@
+// File: src/edu/ccrm/domain/StudentStatus.java
+package edu.ccrm.domain;
+
+//An enum to represent the student's status. Enums are great for fixed sets of constants.
+public enum StudentStatus {
+    ACTIVE,
+    INACTIVE,
+    GRADUATED
+}
@@ -0,0 +1,145 @@
+// File: src/edu/ccrm/domain/TimeSlot.java
+package edu.ccrm.domain;
+
+import java.time.DayOfWeek;
+import java.time.LocalTime;
+import java.time.format.DateTimeParseException;
+import java.time.format.TextStyle;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Locale;
+
+/**
+ * A weekly meeting time, e.g. "MON 09:00-10:30", within one day. Immutable.
+ * <p>
+ * Times are kept as minutes since Monday 00:00, so two slots overlap exactly when their
+ * half-open minute ranges do, and back-to-back slots (one ends at 10:30, the next starts at
+ * 10:30) do not.
+ */
+public final class TimeSlot implements Comparable<TimeSlot> {
+
+    public static final int MINUTES_PER_DAY = 24 * 60;
+    public static final int MINUTES_PER_WEEK = 7 * MINUTES_PER_DAY;
+
+    private final int start; // Minutes since Monday 00:00
+    private final int end; // Exclusive
+
+    public TimeSlot(DayOfWeek day, LocalTime start, LocalTime end) {
+        if (!end.isAfter(start)) {
+            throw new IllegalArgumentException("A time slot must end after it starts: " + start + "-" + end);
+        }
+        int dayStart = (day.getValue() - 1) * MINUTES_PER_DAY;
+        this.start = dayStart + start.getHour() * 60 + start.getMinute();
+        this.end = dayStart + end.getHour() * 60 + end.getMinute();
+    }
+
+    /**
+     * Parses one slot, e.g. "MON 09:00-10:30" (any unambiguous day prefix of three or more letters).
+     * @throws IllegalArgumentException if the text is not a valid slot.
+     */
+    public static TimeSlot parse(String text) {
+        String[] parts = text.trim().split("\\s+");
+        int dash = parts.length == 2 ? parts[1].indexOf('-') : -1;
+        if (dash < 0) {
+            throw new IllegalArgumentException("Expected a time slot like MON 09:00-10:30, got '" + text.trim() + "'");
+        }
+        try {
+            return new TimeSlot(parseDay(parts[0]), LocalTime.parse(parts[1].substring(0, dash)),
+                    LocalTime.parse(parts[1].substring(dash + 1)));
+        } catch (DateTimeParseException e) {
+            throw new IllegalArgumentException("Invalid time in '" + text.trim() + "'");
+        }
+    }
+
+    /**
+     * Parses a schedule of slots separated by ';', e.g. "MON 09:00-10:30; WED 09:00-10:30".
+     * @return The slots in start order; empty for a blank schedule.
+     */
+    public static List<TimeSlot> parseSchedule(String text) {
+        if (text == null || text.isBlank()) {
+            return Collections.emptyList();
+        }
+        List<TimeSlot> slots = new ArrayList<>();
+        for (String part : text.split(";")) {
+            if (!part.isBlank()) slots.add(parse(part));
+        }
+        Collections.sort(slots);
+        return slots;
+    }
+
+    /**
+     * @return The schedule in the form parseSchedule reads, e.g. "MON 09:00-10:30;WED 09:00-10:30".
+     */
+    public static String formatSchedule(List<TimeSlot> slots) {
+        StringBuilder text = new StringBuilder();
+        for (TimeSlot slot : slots) {
+            if (text.length() > 0) text.append(';');
+            text.append(slot);
+        }
+        return text.toString();
+    }
+
+    private static DayOfWeek parseDay(String text) {
+        String day = text.toUpperCase(Locale.ROOT);
+        if (day.length() >= 3) {
+            for (DayOfWeek candidate : DayOfWeek.values()) {
+                if (candidate.name().startsWith(day)) return candidate;
+            }
+        }
+        throw new IllegalArgumentException("Unknown day '" + text + "'");
+    }
+
+    // --- Getters ---
+
+    public DayOfWeek getDay() {
+        return DayOfWeek.of(start / MINUTES_PER_DAY + 1);
+    }
+
+    public LocalTime getStartTime() {
+        return LocalTime.of(start % MINUTES_PER_DAY / 60, start % 60);
+    }
+
+    public LocalTime getEndTime() {
+        return LocalTime.of(end % MINUTES_PER_DAY / 60, end % 60);
+    }
+
+    /**
+     * @return Minutes since Monday 00:00 at which the slot starts.
+     */
+    public int getStartMinute() { return start; }
+
+    /**
+     * @return Minutes since Monday 00:00 at which the slot ends (exclusive).
+     */
+    public int getEndMinute() { return end; }
+
+    public boolean overlaps(TimeSlot other) {
+        return start < other.end && other.start < end;
+    }
+
+    @Override
+    public int compareTo(TimeSlot other) {
+        return start != other.start ? Integer.compare(start, other.start) : Integer.compare(end, other.end);
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        if (!(o instanceof TimeSlot)) return false;
+        TimeSlot slot = (TimeSlot) o;
+        return start == slot.start && end == slot.end;
+    }
+
+    @Override
+    public int hashCode() {
+        return 31 * start + end;
+    }
+
+    @Override
+    public String toString() {
+        return String.format("%s %02d:%02d-%02d:%02d",
+                getDay().getDisplayName(TextStyle.SHORT, Locale.ENGLISH).toUpperCase(Locale.ROOT),
+                start % MINUTES_PER_DAY / 60, start % 60, end % MINUTES_PER_DAY / 60, end % 60);
+    }
+}
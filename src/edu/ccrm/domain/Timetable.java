@@ -0,0 +1,104 @@
+// File: src/edu/ccrm/domain/Timetable.java
+package edu.ccrm.domain;
+
+import java.util.Arrays;
+
+/**
+ * A student's booked minutes, as an interval index over the weekly time slots of their courses.
+ * <p>
+ * The bookings are kept as a step function: a sorted array of run starts, each with the number of
+ * slots covering the minutes from it up to the next start. Only starts where that number changes
+ * are kept, so whether a new slot overlaps anything is decided by one binary search and a look at
+ * the next run, in O(log n) however many courses are booked. Overlapping bookings (e.g. enrollments
+ * restored without the rules) are counted rather than lost, which is how the conflict report finds them.
+ * <p>
+ * Minutes are offset by semester, so slots in different semesters never meet. Not thread-safe:
+ * the owning student's monitor guards it.
+ */
+final class Timetable {
+
+    private int[] starts = new int[8];
+    private int[] counts = new int[8]; // Slots covering starts[i] up to starts[i + 1]
+    private int size;
+
+    void book(Course course) {
+        cover(course, 1);
+    }
+
+    void release(Course course) {
+        cover(course, -1);
+    }
+
+    /**
+     * @return true if any of the course's slots overlaps a booked minute.
+     */
+    boolean clashesWith(Course course) {
+        int base = semesterBase(course);
+        for (TimeSlot slot : course.getTimeSlots()) {
+            int start = base + slot.getStartMinute();
+            int i = floor(start);
+            if (i >= 0 && counts[i] > 0) return true; // Busy at the slot's start
+            if (i + 1 < size && starts[i + 1] < base + slot.getEndMinute()) return true; // A change, so a booking, before its end
+        }
+        return false;
+    }
+
+    /**
+     * @return true if two bookings overlap anywhere.
+     */
+    boolean hasOverlap() {
+        for (int i = 0; i < size; i++) {
+            if (counts[i] > 1) return true;
+        }
+        return false;
+    }
+
+    private void cover(Course course, int delta) {
+        int base = semesterBase(course);
+        for (TimeSlot slot : course.getTimeSlots()) {
+            int from = split(base + slot.getStartMinute());
+            int to = split(base + slot.getEndMinute());
+            for (int i = from; i < to; i++) {
+                counts[i] += delta;
+            }
+            // Only the two ends can have stopped being a change; merge the later one first so 'from' stays valid
+            mergeIfRedundant(to);
+            mergeIfRedundant(from);
+        }
+    }
+
+    private static int semesterBase(Course course) {
+        return course.getSemester().ordinal() * TimeSlot.MINUTES_PER_WEEK;
+    }
+
+    // The index of the last run starting at or before the minute, or -1
+    private int floor(int minute) {
+        int i = Arrays.binarySearch(starts, 0, size, minute);
+        return i >= 0 ? i : -i - 2;
+    }
+
+    // The index of the run starting at the minute, splitting the run that covers it if needed
+    private int split(int minute) {
+        int i = Arrays.binarySearch(starts, 0, size, minute);
+        if (i >= 0) return i;
+        int insertAt = -i - 1;
+        if (size == starts.length) {
+            starts = Arrays.copyOf(starts, size * 2);
+            counts = Arrays.copyOf(counts, size * 2);
+        }
+        System.arraycopy(starts, insertAt, starts, insertAt + 1, size - insertAt);
+        System.arraycopy(counts, insertAt, counts, insertAt + 1, size - insertAt);
+        starts[insertAt] = minute;
+        counts[insertAt] = insertAt > 0 ? counts[insertAt - 1] : 0;
+        size++;
+        return insertAt;
+    }
+
+    private void mergeIfRedundant(int i) {
+        if (i < size && counts[i] == (i > 0 ? counts[i - 1] : 0)) {
+            System.arraycopy(starts, i + 1, starts, i, size - i - 1);
+            System.arraycopy(counts, i + 1, counts, i, size - i - 1);
+            size--;
+        }
+    }
+}
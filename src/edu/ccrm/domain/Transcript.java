@@ -0,0 +1,108 @@
+// File: src/edu/ccrm/domain/Transcript.java
+package edu.ccrm.domain;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * An immutable view of a student's courses and grades at one point in time, grouped by semester,
+ * with the semester and cumulative GPAs. Courses without a grade yet are listed as in progress.
+ */
+public final class Transcript {
+
+    /**
+     * One course line on the transcript.
+     */
+    public static final class Entry {
+        private final String courseCode;
+        private final String title;
+        private final int credits;
+        private final Semester semester;
+        private final Grade grade; // null while in progress
+
+        Entry(Course course, Grade grade) {
+            this.courseCode = course.getCode();
+            this.title = course.getTitle();
+            this.credits = course.getCredits();
+            this.semester = course.getSemester();
+            this.grade = grade;
+        }
+
+        public String getCourseCode() { return courseCode; }
+        public String getTitle() { return title; }
+        public int getCredits() { return credits; }
+        public Semester getSemester() { return semester; }
+        public Grade getGrade() { return grade; }
+    }
+
+    private final String regNo;
+    private final String fullName;
+    private final List<Entry> entries;
+    private final Map<Semester, Double> semesterGpa;
+    private final double cumulativeGpa;
+
+    private Transcript(String regNo, String fullName, List<Entry> entries, Map<Semester, Double> semesterGpa, double cumulativeGpa) {
+        this.regNo = regNo;
+        this.fullName = fullName;
+        this.entries = entries;
+        this.semesterGpa = semesterGpa;
+        this.cumulativeGpa = cumulativeGpa;
+    }
+
+    // Called by Student with its monitor held; the GPAs come from its running sums
+    static Transcript of(Student student, List<Course> courses, Map<Course, Grade> grades) {
+        List<Entry> entries = new ArrayList<>(courses.size());
+        Map<Semester, Double> semesterGpa = new EnumMap<>(Semester.class);
+        for (Course c : courses) {
+            Grade grade = grades == null ? null : grades.get(c);
+            entries.add(new Entry(c, grade));
+            if (grade != null) {
+                semesterGpa.put(c.getSemester(), student.getSemesterGpa(c.getSemester()));
+            }
+        }
+        entries.sort(Comparator.comparing(Entry::getSemester).thenComparing(Entry::getCourseCode));
+        return new Transcript(student.getRegNo(), student.getFullName(), Collections.unmodifiableList(entries),
+                Collections.unmodifiableMap(semesterGpa), student.getCumulativeGpa());
+    }
+
+    public String getRegNo() { return regNo; }
+    public String getFullName() { return fullName; }
+    public List<Entry> getEntries() { return entries; }
+
+    /**
+     * @return The GPA of each semester that has at least one graded course.
+     */
+    public Map<Semester, Double> getSemesterGpa() { return semesterGpa; }
+
+    public double getCumulativeGpa() { return cumulativeGpa; }
+
+    @Override
+    public String toString() {
+        StringBuilder sb = new StringBuilder();
+        sb.append(String.format("Transcript for %s (%s)%n", fullName, regNo));
+        Semester current = null;
+        for (Entry e : entries) {
+            if (e.semester != current) {
+                if (current != null) appendSemesterGpa(sb, current);
+                current = e.semester;
+                sb.append(String.format("  %s%n", current.getDisplayName()));
+            }
+            sb.append(String.format("    %-10s %-30s %2d cr  %s%n", e.courseCode, e.title, e.credits,
+                    e.grade == null ? "In progress" : e.grade.name()));
+        }
+        if (current != null) appendSemesterGpa(sb, current);
+        sb.append(String.format("  Cumulative GPA: %.2f", cumulativeGpa));
+        return sb.toString();
+    }
+
+    private void appendSemesterGpa(StringBuilder sb, Semester semester) {
+        Double gpa = semesterGpa.get(semester);
+        if (gpa != null) {
+            sb.append(String.format("    Semester GPA: %.2f%n", gpa));
+        }
+    }
+}
@@ -0,0 +1,19 @@
+// File: src/edu/ccrm/exception/CourseFullException.java
+package edu.ccrm.exception;
+
+/**
+ * Thrown when a course has no free seat. The student has been put on the course's waitlist and
+ * will be enrolled automatically when a seat frees up.
+ */
+public class CourseFullException extends Exception {
+    private final int waitlistPosition;
+
+    public CourseFullException(String message, int waitlistPosition) {
+        super(message);
+        this.waitlistPosition = waitlistPosition;
+    }
+
+    public int getWaitlistPosition() {
+        return waitlistPosition;
+    }
+}
@@ -0,0 +1,8 @@
+// File: src/edu/ccrm/exception/NotEnrolledException.java
+package edu.ccrm.exception;
+
+public class NotEnrolledException extends Exception{
+    public NotEnrolledException(String message) {
+        super(message);
+    }
+}
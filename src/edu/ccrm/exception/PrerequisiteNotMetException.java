@@ -0,0 +1,24 @@
+// File: src/edu/ccrm/exception/PrerequisiteNotMetException.java
+package edu.ccrm.exception;
+
+import java.util.List;
+
+/**
+ * Thrown when a student has not passed a course's prerequisites, or is neither taking nor has
+ * passed one of its co-requisites. Requirements reached through other courses count too.
+ */
+public class PrerequisiteNotMetException extends Exception {
+    private final List<String> missingCourses;
+
+    public PrerequisiteNotMetException(String message, List<String> missingCourses) {
+        super(message);
+        this.missingCourses = List.copyOf(missingCourses);
+    }
+
+    /**
+     * @return The codes of the required courses the student is missing.
+     */
+    public List<String> getMissingCourses() {
+        return missingCourses;
+    }
+}
@@ -0,0 +1,19 @@
+// File: src/edu/ccrm/exception/ScheduleConflictException.java
+package edu.ccrm.exception;
+
+/**
+ * Thrown when a course meets at a time the student is already booked for, by another course of
+ * the same semester.
+ */
+public class ScheduleConflictException extends Exception {
+    private final String conflictingCourseCode;
+
+    public ScheduleConflictException(String message, String conflictingCourseCode) {
+        super(message);
+        this.conflictingCourseCode = conflictingCourseCode;
+    }
+
+    public String getConflictingCourseCode() {
+        return conflictingCourseCode;
+    }
+}
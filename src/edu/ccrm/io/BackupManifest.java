@@ -0,0 +1,116 @@
+// File: src/edu/ccrm/io/BackupManifest.java
+package edu.ccrm.io;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Describes one backup: every file that was in the data folder and the chunks that hold its content.
+ * The chunks themselves live in the ChunkStore, so a manifest is small however large the data is.
+ * <p>
+ * Stored as text: a header line, "created=..." and then one tab-separated line per file
+ * (path, size, last-modified millis, SHA-256 of the whole file, comma-separated chunk hashes).
+ * Version 1 manifests have no file checksum column and are still readable.
+ */
+public class BackupManifest {
+
+    private static final String HEADER = "# CCRM backup manifest v2";
+    private static final String HEADER_V1 = "# CCRM backup manifest v1";
+
+    /**
+     * One backed-up file.
+     */
+    public static class Entry {
+        private final String path; // Relative to the data folder, always with '/' separators
+        private final long size;
+        private final long lastModified;
+        private final String checksum; // SHA-256 of the whole file, null for version 1 manifests
+        private final List<String> chunks;
+
+        public Entry(String path, long size, long lastModified, String checksum, List<String> chunks) {
+            this.path = path;
+            this.size = size;
+            this.lastModified = lastModified;
+            this.checksum = checksum;
+            this.chunks = Collections.unmodifiableList(chunks);
+        }
+
+        public String getPath() { return path; }
+        public long getSize() { return size; }
+        public long getLastModified() { return lastModified; }
+        public String getChecksum() { return checksum; }
+        public List<String> getChunks() { return chunks; }
+    }
+
+    private final String name;
+    private final LocalDateTime created;
+    private final List<Entry> entries;
+
+    public BackupManifest(String name, LocalDateTime created, List<Entry> entries) {
+        this.name = name;
+        this.created = created;
+        this.entries = Collections.unmodifiableList(entries);
+    }
+
+    public String getName() { return name; }
+    public LocalDateTime getCreated() { return created; }
+    public List<Entry> getEntries() { return entries; }
+
+    public long getTotalSize() {
+        return entries.stream().mapToLong(Entry::getSize).sum();
+    }
+
+    /**
+     * Writes the manifest atomically: a reader never sees a half-written file.
+     */
+    public void write(Path file) throws IOException {
+        Path tmp = file.resolveSibling(file.getFileName() + ".tmp");
+        try (BufferedWriter out = Files.newBufferedWriter(tmp)) {
+            out.write(HEADER);
+            out.newLine();
+            out.write("created=" + created);
+            out.newLine();
+            for (Entry e : entries) {
+                out.write(e.path + "\t" + e.size + "\t" + e.lastModified + "\t"
+                        + (e.checksum == null ? "" : e.checksum) + "\t" + String.join(",", e.chunks));
+                out.newLine();
+            }
+        }
+        Files.move(tmp, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+    }
+
+    public static BackupManifest read(Path file) throws IOException {
+        List<String> lines = Files.readAllLines(file);
+        boolean v1 = !lines.isEmpty() && lines.get(0).equals(HEADER_V1);
+        if (lines.size() < 2 || !(v1 || lines.get(0).equals(HEADER)) || !lines.get(1).startsWith("created=")) {
+            throw new IOException("Not a backup manifest: " + file);
+        }
+        LocalDateTime created = LocalDateTime.parse(lines.get(1).substring("created=".length()));
+
+        List<Entry> entries = new ArrayList<>();
+        for (String line : lines.subList(2, lines.size())) {
+            String[] parts = line.split("\t", -1);
+            if (parts.length != (v1 ? 4 : 5)) {
+                throw new IOException("Malformed manifest line in " + file.getFileName() + ": " + line);
+            }
+            String checksum = v1 || parts[3].isEmpty() ? null : parts[3];
+            String chunkList = parts[parts.length - 1];
+            List<String> chunks = chunkList.isEmpty() ? List.of() : Arrays.asList(chunkList.split(","));
+            try {
+                entries.add(new Entry(parts[0], Long.parseLong(parts[1]), Long.parseLong(parts[2]), checksum, chunks));
+            } catch (NumberFormatException e) {
+                throw new IOException("Malformed manifest line in " + file.getFileName() + ": " + line);
+            }
+        }
+        String fileName = file.getFileName().toString();
+        return new BackupManifest(fileName.substring(0, fileName.lastIndexOf('.')), created, entries);
+    }
+}
@@ -1,18 +1,75 @@
 // File: src/edu.ccrm/io/BackupService.java
 package edu.ccrm.io;
 
+import edu.ccrm.config.DataStore;
+import edu.ccrm.config.MutationLog;
+import edu.ccrm.util.FileUtils;
+
 import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
 import java.nio.file.*;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
 import java.time.LocalDateTime;
 import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.Semaphore;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
 /**
  * Handles backup operations using NIO.2.
+ * <p>
+ * Backups are incremental and content-addressed: files are cut into fixed-size chunks, each chunk
+ * is stored once in backup/objects under its SHA-256 hash, and each backup is just a small manifest
+ * in backup/manifests listing the chunks of every file. Files whose size and modification time
+ * match the previous backup are not even re-read, so backing up unchanged data costs nothing.
+ * Chunks are compressed on a pool of worker threads while the next chunk is being read.
+ * <p>
+ * A restore checks every chunk and every whole file against its SHA-256 before anything is used,
+ * and can load the restored snapshot (plus journal) straight back into the DataStore.
+ * <p>
+ * The size of the backup folder is kept in backup/stats.properties and updated as backups are
+ * written and pruned, so reporting it is instant. After each backup the {@link RetentionPolicy}
+ * prunes old backups, and chunks no remaining backup refers to are deleted.
  */
 public class BackupService{
 
     private static final Path DATA_DIRECTORY = Paths.get("data");
     private static final Path BACKUP_DIRECTORY = Paths.get("backup");
+    private static final Path OBJECTS_DIRECTORY = BACKUP_DIRECTORY.resolve("objects");
+    private static final Path MANIFESTS_DIRECTORY = BACKUP_DIRECTORY.resolve("manifests");
+    private static final Path RESTORE_DIRECTORY = BACKUP_DIRECTORY.resolve("restore");
+    private static final Path STATS_FILE = BACKUP_DIRECTORY.resolve("stats.properties");
+    private static final String MANIFEST_SUFFIX = ".manifest";
+
+    private static final int CHUNK_SIZE = 1 << 20;
+
+    private final ChunkStore chunkStore = new ChunkStore(OBJECTS_DIRECTORY);
+    private final DataPersistenceService persistenceService = new DataPersistenceService();
+    private final RetentionPolicy retentionPolicy;
+
+    public BackupService() {
+        this(RetentionPolicy.fromSystemProperties());
+    }
+
+    public BackupService(RetentionPolicy retentionPolicy) {
+        this.retentionPolicy = retentionPolicy;
+    }
 
     public void performBackup() {
         try {
@@ -20,22 +77,469 @@ public class BackupService{
                 System.out.println("Data directory does not exist. Nothing to back up.");
                 return;
             }
+            Files.createDirectories(MANIFESTS_DIRECTORY);
+            BackupStats stats = loadStats(); // Before writing, so a reconcile does not count this backup twice
+
+            // Create a timestamped manifest name e.g., "backup_2025-09-25_18-30-00"
+            LocalDateTime now = LocalDateTime.now();
+            String name = uniqueName("backup_" + now.format(DateTimeFormatter.ofPattern("yyyy-MM-dd_HH-mm-ss")));
 
-            // Create a timestamped folder name e.g., "backup_2025-09-25_18-30-00"
-            String timestamp = LocalDateTime.now().format(DateTimeFormatter.ofPattern("yyyy-MM-dd_HH-mm-ss"));
-            Path newBackupDir = BACKUP_DIRECTORY.resolve("backup_" + timestamp);
-            Files.createDirectories(newBackupDir);
+            Map<String, BackupManifest.Entry> previous = latestManifest()
+                    .map(m -> m.getEntries().stream().collect(Collectors.toMap(BackupManifest.Entry::getPath, e -> e)))
+                    .orElse(Map.of());
 
-            // Copy files from 'data' to the new backup folder
-            try (DirectoryStream<Path> stream = Files.newDirectoryStream(DATA_DIRECTORY)) {
-                for (Path file : stream) {
-                    Files.copy(file, newBackupDir.resolve(file.getFileName()), StandardCopyOption.REPLACE_EXISTING);
+            List<PendingFile> pending = new ArrayList<>();
+            int unchangedFiles = 0;
+
+            int workers = Runtime.getRuntime().availableProcessors();
+            ExecutorService pool = Executors.newFixedThreadPool(workers);
+            Semaphore chunksInFlight = new Semaphore(workers * 2); // Bounds memory to a few chunks
+            try {
+                for (Path file : listDataFiles()) {
+                    String relative = DATA_DIRECTORY.relativize(file).toString().replace('\\', '/');
+                    long size = Files.size(file);
+                    long lastModified = Files.getLastModifiedTime(file).toMillis();
+
+                    BackupManifest.Entry before = previous.get(relative);
+                    if (before != null && before.getSize() == size && before.getLastModified() == lastModified
+                            && before.getChecksum() != null && before.getChunks().stream().allMatch(chunkStore::contains)) {
+                        pending.add(new PendingFile(before)); // Unchanged since the last backup: reuse its chunks without reading the file
+                        unchangedFiles++;
+                        continue;
+                    }
+                    pending.add(readFile(file, relative, lastModified, pool, chunksInFlight));
+                }
+
+                // Wait for the compression tasks and collect the chunk hashes in file order
+                List<BackupManifest.Entry> entries = new ArrayList<>(pending.size());
+                long bytesStored = 0;
+                for (PendingFile file : pending) {
+                    if (file.reused != null) {
+                        entries.add(file.reused);
+                        continue;
+                    }
+                    List<String> chunks = new ArrayList<>(file.chunks.size());
+                    for (Future<ChunkStore.StoredChunk> future : file.chunks) {
+                        ChunkStore.StoredChunk chunk = await(future);
+                        chunks.add(chunk.getHash());
+                        bytesStored += chunk.getBytesWritten();
+                    }
+                    entries.add(new BackupManifest.Entry(file.path, file.size, file.lastModified, file.checksum, chunks));
                 }
+
+                BackupManifest manifest = new BackupManifest(name, now, entries);
+                Path manifestFile = MANIFESTS_DIRECTORY.resolve(name + MANIFEST_SUFFIX);
+                manifest.write(manifestFile);
+                System.out.printf("Backup %s completed: %d files (%d unchanged), %d new bytes stored.%n",
+                        name, entries.size(), unchangedFiles, bytesStored);
+
+                stats.backupAdded(bytesStored + Files.size(manifestFile));
+                prune(stats);
+                stats.save(STATS_FILE);
+            } finally {
+                pool.shutdownNow();
             }
-            System.out.println("Backup completed successfully to: "  + newBackupDir.toAbsolutePath());
 
         } catch (IOException e) {
             System.err.println("Failed to perform backup: " + e.getMessage());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            System.err.println("Backup interrupted.");
+        }
+    }
+
+    // Reads a file chunk by chunk, hashing the whole file here and handing each chunk to the pool to compress
+    private PendingFile readFile(Path file, String relative, long lastModified, ExecutorService pool,
+                                 Semaphore chunksInFlight) throws IOException, InterruptedException {
+        MessageDigest fileDigest = sha256();
+        List<Future<ChunkStore.StoredChunk>> chunks = new ArrayList<>();
+        long size = 0;
+        try (InputStream in = Files.newInputStream(file)) {
+            while (true) {
+                byte[] buffer = in.readNBytes(CHUNK_SIZE);
+                if (buffer.length == 0) break;
+                fileDigest.update(buffer);
+                size += buffer.length;
+
+                chunksInFlight.acquire();
+                chunks.add(pool.submit(() -> {
+                    try {
+                        return chunkStore.store(buffer, buffer.length);
+                    } finally {
+                        chunksInFlight.release();
+                    }
+                }));
+            }
+        }
+        return new PendingFile(relative, size, lastModified, ChunkStore.toHex(fileDigest.digest()), chunks);
+    }
+
+    private static ChunkStore.StoredChunk await(Future<ChunkStore.StoredChunk> future) throws IOException, InterruptedException {
+        try {
+            return future.get();
+        } catch (ExecutionException e) {
+            Throwable cause = e.getCause();
+            if (cause instanceof IOException) throw (IOException) cause;
+            throw new IOException("Failed to store backup chunk", cause);
+        }
+    }
+
+    /**
+     * Restores a backup into a directory, checking every chunk and every file against its checksum.
+     * Files are restored in parallel; each is written beside its target and only moved into place
+     * once it has been verified.
+     * @param backupName The backup to restore, or null for the latest.
+     * @return The manifest that was restored.
+     * @throws IOException if the backup is missing, or any chunk or file fails verification.
+     */
+    public BackupManifest restoreFiles(String backupName, Path targetDirectory) throws IOException {
+        BackupManifest manifest = findManifest(backupName);
+        Files.createDirectories(targetDirectory);
+        try {
+            manifest.getEntries().parallelStream().forEach(entry -> {
+                try {
+                    restoreFile(entry, targetDirectory);
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+            });
+        } catch (UncheckedIOException e) {
+            throw e.getCause();
+        }
+        return manifest;
+    }
+
+    private void restoreFile(BackupManifest.Entry entry, Path targetDirectory) throws IOException {
+        Path target = targetDirectory.resolve(entry.getPath()).normalize();
+        if (!target.startsWith(targetDirectory.normalize())) {
+            throw new IOException("Backup entry escapes the restore folder: " + entry.getPath());
+        }
+        Files.createDirectories(target.getParent());
+        Path tmp = target.resolveSibling(target.getFileName() + ".tmp");
+        MessageDigest fileDigest = sha256();
+        long size = 0;
+        try {
+            try (OutputStream out = Files.newOutputStream(tmp)) {
+                for (String hash : entry.getChunks()) {
+                    byte[] data = chunkStore.read(hash); // Verifies the chunk's own hash
+                    fileDigest.update(data);
+                    out.write(data);
+                    size += data.length;
+                }
+            }
+            if (size != entry.getSize()) {
+                throw new IOException(entry.getPath() + " restored " + size + " bytes, expected " + entry.getSize());
+            }
+            if (entry.getChecksum() != null && !entry.getChecksum().equals(ChunkStore.toHex(fileDigest.digest()))) {
+                throw new IOException(entry.getPath() + " does not match its checksum");
+            }
+            Files.move(tmp, target, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } finally {
+            Files.deleteIfExists(tmp);
+        }
+    }
+
+    /**
+     * Restores a backup and loads it into the store, replacing its contents. The backup's snapshot
+     * and journal are preferred; a backup without a snapshot falls back to its student CSV export.
+     * A new snapshot is saved afterwards, so the restored state survives a restart.
+     * Should not run while other threads are changing the store.
+     * @param backupName The backup to restore, or null for the latest.
+     * @return true if a verified backup was loaded.
+     */
+    public boolean restoreIntoStore(String backupName, DataStore dataStore, SnapshotService snapshotService) {
+        long start = System.nanoTime();
+        Path staging = null;
+        try {
+            BackupManifest manifest = findManifest(backupName);
+            staging = RESTORE_DIRECTORY.resolve(manifest.getName());
+            deleteRecursively(staging);
+            restoreFiles(manifest.getName(), staging);
+            System.out.printf("Backup %s verified: %d files, %d bytes.%n",
+                    manifest.getName(), manifest.getEntries().size(), manifest.getTotalSize());
+
+            // Loading a backup is not a change to journal record by record; the snapshot below captures it
+            MutationLog log = dataStore.getMutationLog();
+            dataStore.setMutationLog(MutationLog.NONE);
+            try {
+                if (!load(staging, dataStore, snapshotService)) {
+                    return false;
+                }
+            } finally {
+                dataStore.setMutationLog(log);
+            }
+            snapshotService.saveSnapshot(dataStore, SnapshotService.DEFAULT_SNAPSHOT);
+            System.out.printf("Restore of %s completed in %d ms.%n", manifest.getName(), (System.nanoTime() - start) / 1_000_000);
+            return true;
+        } catch (IOException e) {
+            System.err.println("Failed to restore backup: " + e.getMessage());
+            return false;
+        } finally {
+            if (staging != null) {
+                try {
+                    deleteRecursively(staging);
+                } catch (IOException e) {
+                    System.err.println("Could not clean up " + staging + ": " + e.getMessage());
+                }
+            }
+        }
+    }
+
+    private boolean load(Path restored, DataStore dataStore, SnapshotService snapshotService) throws IOException {
+        Path snapshot = restored.resolve(SnapshotService.DEFAULT_SNAPSHOT.getFileName());
+        if (SnapshotService.exists(snapshot)) {
+            long sequence = snapshotService.loadSnapshot(dataStore, snapshot);
+            if (sequence < 0) {
+                return false;
+            }
+            Path journalDirectory = restored.resolve(Journal.DEFAULT_DIRECTORY.getFileName());
+            if (Files.isDirectory(journalDirectory)) {
+                try (Journal journal = Journal.open(journalDirectory)) {
+                    long replayed = journal.replay(sequence, dataStore);
+                    if (replayed > 0) {
+                        System.out.println("Replayed " + replayed + " journaled changes from the backup.");
+                    }
+                }
+            }
+            return true;
+        }
+
+        Path students = restored.resolve("students_export.csv");
+        if (Files.exists(students)) {
+            System.out.println("Backup has no snapshot; restoring students from " + students.getFileName() + ".");
+            ImportReport report = persistenceService.importStudentsStreaming(students, dataStore, true);
+            System.out.println(report);
+            return true;
+        }
+        System.err.println("Backup contains neither a snapshot nor a student export to load.");
+        return false;
+    }
+
+    private BackupManifest findManifest(String backupName) throws IOException {
+        if (backupName == null || backupName.isBlank()) {
+            return latestManifest().orElseThrow(() -> new IOException("No backups found"));
+        }
+        Path file = MANIFESTS_DIRECTORY.resolve(backupName + MANIFEST_SUFFIX);
+        if (!Files.exists(file)) {
+            throw new IOException("No backup named " + backupName);
+        }
+        return BackupManifest.read(file);
+    }
+
+    private static void deleteRecursively(Path directory) throws IOException {
+        if (!Files.exists(directory)) return;
+        try (Stream<Path> walk = Files.walk(directory)) {
+            for (Path p : walk.sorted(Comparator.reverseOrder()).collect(Collectors.toList())) {
+                Files.delete(p);
+            }
+        }
+    }
+
+    private static MessageDigest sha256() {
+        try {
+            return MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 is not available", e);
+        }
+    }
+
+    /**
+     * @return The bytes all backups take up, as recorded when they were written (reconciled from disk if unknown).
+     */
+    public long getTotalBackupSize() throws IOException {
+        return loadStats().getTotalBytes();
+    }
+
+    /**
+     * Walks the backup folder to recount its size and rewrites the recorded totals,
+     * e.g. after files were removed by hand or a backup was interrupted.
+     */
+    public long reconcileBackupSize() throws IOException {
+        Files.createDirectories(MANIFESTS_DIRECTORY);
+        long total = FileUtils.calculateDirectorySize(BACKUP_DIRECTORY);
+        if (Files.exists(STATS_FILE)) {
+            total -= Files.size(STATS_FILE);
+        }
+        BackupStats stats = new BackupStats(total, listManifests().size());
+        stats.save(STATS_FILE);
+        return total;
+    }
+
+    public RetentionPolicy getRetentionPolicy() {
+        return retentionPolicy;
+    }
+
+    private BackupStats loadStats() throws IOException {
+        Optional<BackupStats> recorded = BackupStats.load(STATS_FILE);
+        if (recorded.isPresent()) {
+            return recorded.get();
+        }
+        reconcileBackupSize();
+        return BackupStats.load(STATS_FILE).orElseThrow(() -> new IOException("Could not record backup size"));
+    }
+
+    // --- Retention ---
+
+    /**
+     * Deletes the backups the retention policy no longer wants, then any chunk no remaining backup uses.
+     * Chunks are reference-counted across manifests, so only the manifests are read, not the object store.
+     */
+    private void prune(BackupStats stats) throws IOException {
+        if (retentionPolicy.isKeepAll()) {
+            return;
+        }
+        List<BackupManifest> backups = new ArrayList<>();
+        for (Path file : listManifests()) {
+            try {
+                backups.add(BackupManifest.read(file));
+            } catch (IOException e) {
+                // Its chunks might look unreferenced, so deleting anything now could lose data
+                System.err.println("Not pruning: unreadable manifest " + file.getFileName() + ": " + e.getMessage());
+                return;
+            }
+        }
+
+        Map<String, Integer> references = new HashMap<>();
+        for (BackupManifest backup : backups) {
+            for (String hash : distinctChunks(backup)) {
+                references.merge(hash, 1, Integer::sum);
+            }
+        }
+
+        Set<String> keep = retentionPolicy.selectToKeep(backups);
+        List<BackupManifest> dropped = new ArrayList<>();
+        Set<String> unreferenced = new HashSet<>();
+        long projected = stats.getTotalBytes();
+        for (BackupManifest backup : backups) {
+            if (!keep.contains(backup.getName())) {
+                projected -= release(backup, references, unreferenced);
+                dropped.add(backup);
+            }
+        }
+
+        // Then drop the oldest survivors (never the newest) until the byte budget is met
+        long maxBytes = retentionPolicy.getMaxBytes();
+        for (int i = 0; maxBytes > 0 && projected > maxBytes && i < backups.size() - 1; i++) {
+            BackupManifest backup = backups.get(i);
+            if (keep.remove(backup.getName())) {
+                projected -= release(backup, references, unreferenced);
+                dropped.add(backup);
+            }
+        }
+        if (dropped.isEmpty()) {
+            return;
+        }
+
+        long freed = 0;
+        for (BackupManifest backup : dropped) {
+            Path file = MANIFESTS_DIRECTORY.resolve(backup.getName() + MANIFEST_SUFFIX);
+            freed += Files.size(file);
+            Files.delete(file); // Manifest first: a crash then leaves only orphaned chunks, never a broken backup
+        }
+        for (String hash : unreferenced) {
+            freed += chunkStore.delete(hash);
+        }
+        stats.backupsRemoved(dropped.size(), freed);
+        System.out.printf("Retention (%s): pruned %d backup(s), freed %d bytes.%n", retentionPolicy, dropped.size(), freed);
+    }
+
+    // Drops a backup's references; returns the bytes its manifest and newly unreferenced chunks take up
+    private long release(BackupManifest backup, Map<String, Integer> references, Set<String> unreferenced) throws IOException {
+        long bytes = Files.size(MANIFESTS_DIRECTORY.resolve(backup.getName() + MANIFEST_SUFFIX));
+        for (String hash : distinctChunks(backup)) {
+            if (references.merge(hash, -1, Integer::sum) == 0) {
+                unreferenced.add(hash);
+                bytes += chunkStore.sizeOf(hash);
+            }
+        }
+        return bytes;
+    }
+
+    private static Set<String> distinctChunks(BackupManifest backup) {
+        Set<String> chunks = new LinkedHashSet<>();
+        for (BackupManifest.Entry entry : backup.getEntries()) {
+            chunks.addAll(entry.getChunks());
+        }
+        return chunks;
+    }
+
+    /**
+     * @return Every backup manifest, oldest first.
+     */
+    public List<Path> listManifests() throws IOException {
+        if (!Files.isDirectory(MANIFESTS_DIRECTORY)) {
+            return List.of();
+        }
+        try (Stream<Path> files = Files.list(MANIFESTS_DIRECTORY)) {
+            // Timestamped names sort chronologically once the suffix is stripped ("..._00" before "..._00-1")
+            return files
+                    .filter(p -> p.getFileName().toString().endsWith(MANIFEST_SUFFIX))
+                    .sorted(Comparator.comparing(BackupService::backupName))
+                    .collect(Collectors.toList());
+        }
+    }
+
+    private Optional<BackupManifest> latestManifest() throws IOException {
+        List<Path> manifests = listManifests();
+        for (int i = manifests.size() - 1; i >= 0; i--) {
+            try {
+                return Optional.of(BackupManifest.read(manifests.get(i)));
+            } catch (IOException e) {
+                System.err.println("Skipping unreadable manifest " + manifests.get(i).getFileName() + ": " + e.getMessage());
+            }
+        }
+        return Optional.empty();
+    }
+
+    public static String backupName(Path manifest) {
+        String fileName = manifest.getFileName().toString();
+        return fileName.substring(0, fileName.length() - MANIFEST_SUFFIX.length());
+    }
+
+    // Two backups in the same second get "-1", "-2", ... suffixes
+    private String uniqueName(String base) {
+        String name = base;
+        for (int n = 1; Files.exists(MANIFESTS_DIRECTORY.resolve(name + MANIFEST_SUFFIX)); n++) {
+            name = base + "-" + n;
+        }
+        return name;
+    }
+
+    private List<Path> listDataFiles() throws IOException {
+        try (Stream<Path> walk = Files.walk(DATA_DIRECTORY)) {
+            return walk
+                    .filter(Files::isRegularFile)
+                    .filter(p -> !p.getFileName().toString().endsWith(".tmp")) // In-progress writes
+                    .sorted()
+                    .collect(Collectors.toList());
+        }
+    }
+
+    // A file in a backup being written: either reused from the previous backup, or chunks still being compressed
+    private static class PendingFile {
+        private final BackupManifest.Entry reused;
+        private final String path;
+        private final long size;
+        private final long lastModified;
+        private final String checksum;
+        private final List<Future<ChunkStore.StoredChunk>> chunks;
+
+        PendingFile(BackupManifest.Entry reused) {
+            this.reused = reused;
+            this.path = reused.getPath();
+            this.size = reused.getSize();
+            this.lastModified = reused.getLastModified();
+            this.checksum = reused.getChecksum();
+            this.chunks = List.of();
+        }
+
+        PendingFile(String path, long size, long lastModified, String checksum, List<Future<ChunkStore.StoredChunk>> chunks) {
+            this.reused = null;
+            this.path = path;
+            this.size = size;
+            this.lastModified = lastModified;
+            this.checksum = checksum;
+            this.chunks = chunks;
         }
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,68 @@
+// File: src/edu/ccrm/io/BackupStats.java
+package edu.ccrm.io;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.io.Writer;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.Optional;
+import java.util.Properties;
+
+/**
+ * Running totals for the backup folder, updated whenever a backup is written or pruned,
+ * so its size can be reported without walking every object.
+ */
+class BackupStats {
+
+    private long totalBytes; // Objects and manifests, not counting this file
+    private int backupCount;
+
+    BackupStats(long totalBytes, int backupCount) {
+        this.totalBytes = totalBytes;
+        this.backupCount = backupCount;
+    }
+
+    long getTotalBytes() { return totalBytes; }
+    int getBackupCount() { return backupCount; }
+
+    void backupAdded(long bytesWritten) {
+        totalBytes += bytesWritten;
+        backupCount++;
+    }
+
+    void backupsRemoved(int count, long bytesFreed) {
+        totalBytes = Math.max(0, totalBytes - bytesFreed);
+        backupCount = Math.max(0, backupCount - count);
+    }
+
+    /**
+     * @return The recorded stats, or empty if none were recorded or the file is unreadable.
+     */
+    static Optional<BackupStats> load(Path file) {
+        if (!Files.exists(file)) {
+            return Optional.empty();
+        }
+        Properties properties = new Properties();
+        try (Reader in = Files.newBufferedReader(file)) {
+            properties.load(in);
+            return Optional.of(new BackupStats(
+                    Long.parseLong(properties.getProperty("totalBytes")),
+                    Integer.parseInt(properties.getProperty("backups"))));
+        } catch (IOException | RuntimeException e) {
+            return Optional.empty(); // Caller reconciles from disk
+        }
+    }
+
+    void save(Path file) throws IOException {
+        Properties properties = new Properties();
+        properties.setProperty("totalBytes", Long.toString(totalBytes));
+        properties.setProperty("backups", Integer.toString(backupCount));
+        Path tmp = file.resolveSibling(file.getFileName() + ".tmp");
+        try (Writer out = Files.newBufferedWriter(tmp)) {
+            properties.store(out, "CCRM backup totals");
+        }
+        Files.move(tmp, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+    }
+}
@@ -0,0 +1,158 @@
+// File: src/edu/ccrm/io/ChunkStore.java
+package edu.ccrm.io;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.file.FileAlreadyExistsException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.List;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Content-addressed store for backup chunks. Each chunk is saved once under the SHA-256 hash of its
+ * uncompressed content (objects/ab/abcdef....gz), so identical data shared by many backups or files
+ * is stored only once. Chunks are gzip-compressed; uncompressed objects written by older backups
+ * (no .gz suffix) are still readable. Safe to use from several threads at once.
+ */
+public class ChunkStore {
+
+    private static final char[] HEX = "0123456789abcdef".toCharArray();
+    private static final String COMPRESSED_SUFFIX = ".gz";
+
+    private final Path root;
+
+    public ChunkStore(Path root) {
+        this.root = root;
+    }
+
+    /**
+     * Compresses and stores a chunk unless an identical one is already present.
+     * @return The chunk's hash and how many bytes were newly written (0 if it was already stored).
+     */
+    public StoredChunk store(byte[] data, int length) throws IOException {
+        String hash = hash(data, length);
+        if (contains(hash)) {
+            return new StoredChunk(hash, 0);
+        }
+        Path target = compressedPathOf(hash);
+        Files.createDirectories(target.getParent());
+
+        ByteArrayOutputStream compressed = new ByteArrayOutputStream(length / 2 + 64);
+        try (GZIPOutputStream gzip = new GZIPOutputStream(compressed)) {
+            gzip.write(data, 0, length);
+        }
+
+        // Write beside the target and move into place, so a crash never leaves a partial object
+        Path tmp = Files.createTempFile(target.getParent(), hash, ".tmp");
+        try {
+            try (OutputStream out = Files.newOutputStream(tmp)) {
+                compressed.writeTo(out);
+            }
+            Files.move(tmp, target, StandardCopyOption.ATOMIC_MOVE);
+        } catch (FileAlreadyExistsException e) {
+            return new StoredChunk(hash, 0); // Another thread stored the same content first
+        } finally {
+            Files.deleteIfExists(tmp);
+        }
+        return new StoredChunk(hash, compressed.size());
+    }
+
+    /**
+     * Reads a chunk back and checks that its content still matches its hash.
+     * @throws IOException if the chunk is missing or corrupt.
+     */
+    public byte[] read(String hash) throws IOException {
+        byte[] data;
+        Path compressed = compressedPathOf(hash);
+        if (Files.exists(compressed)) {
+            try (InputStream in = new GZIPInputStream(Files.newInputStream(compressed))) {
+                data = in.readAllBytes();
+            }
+        } else {
+            data = Files.readAllBytes(pathOf(hash));
+        }
+        if (!hash(data, data.length).equals(hash)) {
+            throw new IOException("Backup chunk " + hash + " is corrupt");
+        }
+        return data;
+    }
+
+    public boolean contains(String hash) {
+        return Files.exists(compressedPathOf(hash)) || Files.exists(pathOf(hash));
+    }
+
+    /**
+     * @return The bytes the chunk takes up on disk, or 0 if it is not stored.
+     */
+    public long sizeOf(String hash) throws IOException {
+        Path compressed = compressedPathOf(hash);
+        if (Files.exists(compressed)) return Files.size(compressed);
+        Path plain = pathOf(hash);
+        return Files.exists(plain) ? Files.size(plain) : 0;
+    }
+
+    /**
+     * Deletes a chunk that no backup refers to any more.
+     * @return The bytes freed.
+     */
+    public long delete(String hash) throws IOException {
+        long freed = 0;
+        for (Path p : List.of(compressedPathOf(hash), pathOf(hash))) {
+            if (Files.exists(p)) {
+                freed += Files.size(p);
+                Files.delete(p);
+            }
+        }
+        return freed;
+    }
+
+    Path pathOf(String hash) {
+        return root.resolve(hash.substring(0, 2)).resolve(hash);
+    }
+
+    private Path compressedPathOf(String hash) {
+        return root.resolve(hash.substring(0, 2)).resolve(hash + COMPRESSED_SUFFIX);
+    }
+
+    static String hash(byte[] data, int length) {
+        try {
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            digest.update(data, 0, length);
+            return toHex(digest.digest());
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 is not available", e); // Every JRE is required to provide it
+        }
+    }
+
+    static String toHex(byte[] bytes) {
+        char[] chars = new char[bytes.length * 2];
+        for (int i = 0; i < bytes.length; i++) {
+            chars[i * 2] = HEX[(bytes[i] >> 4) & 0xF];
+            chars[i * 2 + 1] = HEX[bytes[i] & 0xF];
+        }
+        return new String(chars);
+    }
+
+    /**
+     * The result of storing one chunk.
+     */
+    public static class StoredChunk {
+        private final String hash;
+        private final long bytesWritten;
+
+        StoredChunk(String hash, long bytesWritten) {
+            this.hash = hash;
+            this.bytesWritten = bytesWritten;
+        }
+
+        public String getHash() { return hash; }
+        public long getBytesWritten() { return bytesWritten; }
+    }
+}
@@ -1,14 +1,32 @@
 // File: src/edu/ccrm/io/DataPersistenceService.java
 package edu.ccrm.io;
 
+import edu.ccrm.config.DataStore;
+import edu.ccrm.domain.Course;
+import edu.ccrm.domain.Grade;
+import edu.ccrm.domain.Instructor;
 import edu.ccrm.domain.Student;
+import edu.ccrm.domain.TimeSlot;
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
 import java.io.IOException;
+import java.io.Writer;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
 import java.nio.file.Files;
 import java.nio.file.Path;
 import java.nio.file.Paths;
 import java.nio.file.StandardOpenOption;
 import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Collection;
 import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
 import java.util.stream.Collectors;
 import java.util.stream.Stream;
 
@@ -17,35 +35,150 @@ import java.util.stream.Stream;
  */
 public class DataPersistenceService {
 
+    // Lines handed to a parser thread at a time
+    private static final int IMPORT_CHUNK_SIZE = 8192;
+    private static final int EXPORT_BUFFER_SIZE = 1 << 16;
+    private static final String LINE_SEPARATOR = System.lineSeparator();
+
+    /**
+     * Writes one record as CSV line(s). Fields go straight to the writer, so no per-line String is built.
+     * Returns the number of lines written.
+     */
+    @FunctionalInterface
+    private interface RowWriter<T> {
+        int write(Writer out, T record) throws IOException;
+    }
+
+    /**
+     * Exports students, courses, instructors and the student-course enrollments, each to its own file.
+     * @param dataStore The store to export.
+     */
+    public void exportAll(DataStore dataStore) {
+        exportStudents(dataStore.getStudents(), "students_export.csv");
+        exportCourses(dataStore.getCourses(), "courses_export.csv");
+        exportInstructors(dataStore.getInstructors(), "instructors_export.csv");
+        exportEnrollments(dataStore.getStudents(), "enrollments_export.csv");
+    }
+
     /**
-     * Exports a list of students to a CSV-like file.
-     * Demonstrates Files.write and Streams.
-     * @param students The list of students to export.
+     * Exports students to a CSV-like file (id,regNo,fullName,email,dateOfBirth).
+     * @param students The students to export.
      * @param filename The name of the file to create (e.g., "students.csv").
      */
-    public void exportStudents(List<Student> students, String filename) {
+    public void exportStudents(Collection<Student> students, String filename) {
+        export(students, filename, "students", (out, s) -> {
+            out.write(Integer.toString(s.getId()));
+            out.write(',');
+            out.write(s.getRegNo());
+            out.write(',');
+            out.write(s.getFullName());
+            out.write(',');
+            out.write(s.getEmail());
+            out.write(',');
+            out.write(s.getDateOfBirth().toString());
+            out.write(LINE_SEPARATOR);
+            return 1;
+        });
+    }
+
+    /**
+     * Exports courses to a CSV-like file (code,title,credits,department,semester,instructorId[,capacity[,schedule]]).
+     * The instructor id is left empty for unassigned courses, and the capacity is only written when set
+     * (0 for unlimited when a schedule follows). The schedule lists the meeting times separated by ';'.
+     */
+    public void exportCourses(Collection<Course> courses, String filename) {
+        export(courses, filename, "courses", (out, c) -> {
+            out.write(c.getCode());
+            out.write(',');
+            out.write(c.getTitle());
+            out.write(',');
+            out.write(Integer.toString(c.getCredits()));
+            out.write(',');
+            out.write(c.getDepartment());
+            out.write(',');
+            out.write(c.getSemester().name());
+            out.write(',');
+            if (c.getInstructor() != null) {
+                out.write(Integer.toString(c.getInstructor().getId()));
+            }
+            if (c.hasCapacityLimit() || c.isScheduled()) {
+                out.write(',');
+                out.write(Integer.toString(c.getCapacity()));
+            }
+            if (c.isScheduled()) {
+                out.write(',');
+                out.write(TimeSlot.formatSchedule(c.getTimeSlots()));
+            }
+            out.write(LINE_SEPARATOR);
+            return 1;
+        });
+    }
+
+    /**
+     * Exports instructors to a CSV-like file (id,fullName,email,dateOfBirth,department,title).
+     */
+    public void exportInstructors(Collection<Instructor> instructors, String filename) {
+        export(instructors, filename, "instructors", (out, i) -> {
+            out.write(Integer.toString(i.getId()));
+            out.write(',');
+            out.write(i.getFullName());
+            out.write(',');
+            out.write(i.getEmail());
+            out.write(',');
+            out.write(i.getDateOfBirth().toString());
+            out.write(',');
+            out.write(i.getDepartment());
+            out.write(',');
+            out.write(i.getTitle());
+            out.write(LINE_SEPARATOR);
+            return 1;
+        });
+    }
+
+    /**
+     * Exports the enrollment relation as one regNo,courseCode[,grade] line per enrolled course.
+     * Written one student at a time, so only one student's course list is held at once.
+     */
+    public void exportEnrollments(Collection<Student> students, String filename) {
+        export(students, filename, "enrollments", (out, s) -> {
+            List<Course> courses = s.getEnrolledCourses();
+            for (Course c : courses) {
+                out.write(s.getRegNo());
+                out.write(',');
+                out.write(c.getCode());
+                Optional<Grade> grade = s.getGrade(c);
+                if (grade.isPresent()) {
+                    out.write(',');
+                    out.write(grade.get().name());
+                }
+                out.write(LINE_SEPARATOR);
+            }
+            return courses.size();
+        });
+    }
+
+    /**
+     * Streams records to a file in the data folder through a buffered writer as it iterates,
+     * so memory use stays flat however many records there are.
+     */
+    private <T> void export(Iterable<T> records, String filename, String description, RowWriter<T> rowWriter) {
         Path filePath = Paths.get("data", filename); // Creates a path like "data/students.csv"
         try {
             // Ensure the parent directory exists
             Files.createDirectories(filePath.getParent());
 
-            // Map each student object to a CSV string line
-            List<String> lines = students.stream()
-                    .map(s -> String.join(",",
-                            String.valueOf(s.getId()),
-                            s.getRegNo(),
-                            s.getFullName(),
-                            s.getEmail(),
-                            s.getDateOfBirth().toString()
-                    ))
-                    .collect(Collectors.toList());
-
-            // Write all lines to the file
-            Files.write(filePath, lines, StandardOpenOption.CREATE, StandardOpenOption.TRUNCATE_EXISTING);
-            System.out.println("Successfully exported " + students.size() + " students to " + filePath.toAbsolutePath());
+            long count = 0;
+            try (Writer out = new BufferedWriter(Channels.newWriter(
+                    FileChannel.open(filePath, StandardOpenOption.CREATE, StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.WRITE),
+                    StandardCharsets.UTF_8), EXPORT_BUFFER_SIZE)) {
+                for (T record : records) {
+                    count += rowWriter.write(out, record);
+                }
+            }
+            System.out.println("Successfully exported " + count + " " + description + " to " + filePath.toAbsolutePath());
 
         } catch (IOException e){
-            System.err.println("Error exporting student data: " + e.getMessage());
+            System.err.println("Error exporting " + description + ": " + e.getMessage());
             e.printStackTrace();
         }
     }
@@ -84,4 +217,113 @@ public class DataPersistenceService {
             return List.of();
         }
     }
-}
\ No newline at end of file
+
+    /**
+     * Imports students from a CSV-like text file straight into the store, without building the
+     * whole list in memory first. The file is read sequentially in chunks and each chunk is parsed
+     * on a worker thread; only a bounded number of chunks are in flight at once, so memory use
+     * does not grow with the file size.
+     * @param filename The file in the data folder to read from.
+     * @param dataStore The store to add the students to.
+     * @param replaceExisting Whether to remove all existing students first (only if the file exists).
+     * @return Rows imported, throughput, and the line number and reason for every rejected row.
+     */
+    public ImportReport importStudentsStreaming(String filename, DataStore dataStore, boolean replaceExisting) {
+        return importStudentsStreaming(Paths.get("data", filename), dataStore, replaceExisting);
+    }
+
+    /**
+     * Same as {@link #importStudentsStreaming(String, DataStore, boolean)}, for a file anywhere on disk.
+     */
+    public ImportReport importStudentsStreaming(Path filePath, DataStore dataStore, boolean replaceExisting) {
+        ImportReport report = new ImportReport();
+
+        if (!Files.exists(filePath)) {
+            System.err.println("Import file not found: " + filePath.toAbsolutePath());
+            return report;
+        }
+        if (replaceExisting) {
+            dataStore.clearStudents();
+        }
+
+        int workers = Runtime.getRuntime().availableProcessors();
+        ExecutorService pool = Executors.newFixedThreadPool(workers);
+        Semaphore chunksInFlight = new Semaphore(workers * 2); // Back-pressure on the reader
+        long start = System.nanoTime();
+
+        try (BufferedReader reader = Files.newBufferedReader(filePath)) {
+            long lineNumber = 0;
+            String line;
+            List<String> chunk = new ArrayList<>(IMPORT_CHUNK_SIZE);
+            long chunkStart = 1;
+            while ((line = reader.readLine()) != null) {
+                lineNumber++;
+                chunk.add(line);
+                if (chunk.size() == IMPORT_CHUNK_SIZE) {
+                    submitChunk(pool, chunksInFlight, chunk, chunkStart, dataStore, report);
+                    chunk = new ArrayList<>(IMPORT_CHUNK_SIZE);
+                    chunkStart = lineNumber + 1;
+                }
+            }
+            if (!chunk.isEmpty()) {
+                submitChunk(pool, chunksInFlight, chunk, chunkStart, dataStore, report);
+            }
+        } catch (IOException e) {
+            System.err.println("Error importing student data: " + e.getMessage());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            System.err.println("Import interrupted.");
+        } finally {
+            pool.shutdown();
+            try {
+                pool.awaitTermination(Long.MAX_VALUE, TimeUnit.NANOSECONDS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+
+        report.finish(System.nanoTime() - start);
+        return report;
+    }
+
+    private void submitChunk(ExecutorService pool, Semaphore chunksInFlight, List<String> lines, long firstLineNumber,
+                             DataStore dataStore, ImportReport report) throws InterruptedException {
+        chunksInFlight.acquire();
+        pool.execute(() -> {
+            try {
+                importChunk(lines, firstLineNumber, dataStore, report);
+            } finally {
+                chunksInFlight.release();
+            }
+        });
+    }
+
+    private void importChunk(List<String> lines, long firstLineNumber, DataStore dataStore, ImportReport report) {
+        List<Student> parsed = new ArrayList<>(lines.size());
+        long[] lineNumbers = new long[lines.size()];
+        long lineNumber = firstLineNumber;
+        for (String line : lines) {
+            if (line.isEmpty()) {
+                report.recordBadRow(lineNumber, "empty line");
+            } else {
+                try {
+                    lineNumbers[parsed.size()] = lineNumber;
+                    parsed.add(StudentCsvParser.parse(line));
+                } catch (IllegalArgumentException e) {
+                    report.recordBadRow(lineNumber, e.getMessage());
+                }
+            }
+            lineNumber++;
+        }
+
+        // The whole chunk goes into the store (and the journal) as one batch
+        boolean[] added = dataStore.addStudents(parsed);
+        for (int i = 0; i < added.length; i++) {
+            if (added[i]) {
+                report.recordImported();
+            } else {
+                report.recordBadRow(lineNumbers[i], "duplicate registration number or id");
+            }
+        }
+    }
+}
@@ -0,0 +1,74 @@
+// File: src/edu/ccrm/io/EnrollmentEventLog.java
+package edu.ccrm.io;
+
+import edu.ccrm.service.EnrollmentEvent;
+import edu.ccrm.service.EnrollmentListener;
+
+import java.io.BufferedWriter;
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.time.Instant;
+
+/**
+ * Appends every enrollment event to a text log (timestamp, event, regNo, course code), one line each.
+ * Runs on the event bus's dispatcher thread, so it buffers a whole batch and writes it with a single
+ * flush instead of one write per event.
+ */
+public class EnrollmentEventLog implements EnrollmentListener, Closeable {
+
+    public static final Path DEFAULT_LOG = Paths.get("data", "enrollment-events.log");
+
+    private static final int BUFFER_SIZE = 1 << 16;
+
+    private final Writer out;
+    private boolean failed; // Stop trying after the first write error, rather than reporting it per event
+
+    public EnrollmentEventLog(Path file) throws IOException {
+        Files.createDirectories(file.toAbsolutePath().getParent());
+        out = new BufferedWriter(Files.newBufferedWriter(file, StandardCharsets.UTF_8,
+                StandardOpenOption.CREATE, StandardOpenOption.APPEND, StandardOpenOption.WRITE), BUFFER_SIZE);
+    }
+
+    @Override
+    public void onEvent(EnrollmentEvent event) {
+        if (failed) return;
+        try {
+            out.write(Instant.ofEpochMilli(event.getTimestamp()).toString());
+            out.write(' ');
+            out.write(event.getType().name());
+            out.write(' ');
+            out.write(event.getStudent().getRegNo());
+            out.write(' ');
+            out.write(event.getCourse().getCode());
+            out.write(System.lineSeparator());
+        } catch (IOException e) {
+            fail(e);
+        }
+    }
+
+    @Override
+    public void onBatchEnd() {
+        if (failed) return;
+        try {
+            out.flush();
+        } catch (IOException e) {
+            fail(e);
+        }
+    }
+
+    @Override
+    public void close() throws IOException {
+        out.close();
+    }
+
+    private void fail(IOException e) {
+        failed = true;
+        System.err.println("Enrollment event log disabled after a write error: " + e.getMessage());
+    }
+}
@@ -0,0 +1,92 @@
+// File: src/edu/ccrm/io/ImportReport.java
+package edu.ccrm.io;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Summary of a streaming import: how many rows were loaded, how fast, and which rows were rejected and why.
+ * Counters are updated concurrently by the parser threads.
+ */
+public class ImportReport {
+
+    // Only the first rejections are kept in detail so a badly broken file can't exhaust the heap
+    private static final int MAX_RECORDED_BAD_ROWS = 1000;
+
+    /**
+     * A rejected input line.
+     */
+    public static class BadRow {
+        private final long lineNumber;
+        private final String reason;
+
+        BadRow(long lineNumber, String reason) {
+            this.lineNumber = lineNumber;
+            this.reason = reason;
+        }
+
+        public long getLineNumber() { return lineNumber; }
+        public String getReason() { return reason; }
+
+        @Override
+        public String toString() {
+            return "line " + lineNumber + ": " + reason;
+        }
+    }
+
+    private final LongAdder importedCount = new LongAdder();
+    private final AtomicLong badRowCount = new AtomicLong();
+    private final Queue<BadRow> badRows = new ConcurrentLinkedQueue<>();
+    private volatile long elapsedNanos;
+
+    void recordImported() {
+        importedCount.increment();
+    }
+
+    void recordBadRow(long lineNumber, String reason) {
+        if (badRowCount.incrementAndGet() <= MAX_RECORDED_BAD_ROWS) {
+            badRows.add(new BadRow(lineNumber, reason));
+        }
+    }
+
+    void finish(long elapsedNanos) {
+        this.elapsedNanos = elapsedNanos;
+    }
+
+    public long getImportedCount() {
+        return importedCount.sum();
+    }
+
+    public long getBadRowCount() {
+        return badRowCount.get();
+    }
+
+    /**
+     * @return The recorded bad rows in line order (at most the first 1000).
+     */
+    public List<BadRow> getBadRows() {
+        List<BadRow> sorted = new ArrayList<>(badRows);
+        sorted.sort(Comparator.comparingLong(BadRow::getLineNumber));
+        return sorted;
+    }
+
+    public long getElapsedMillis() {
+        return elapsedNanos / 1_000_000;
+    }
+
+    public double getRowsPerSecond() {
+        long rows = getImportedCount() + getBadRowCount();
+        return elapsedNanos == 0 ? 0 : rows * 1_000_000_000.0 / elapsedNanos;
+    }
+
+    @Override
+    public String toString() {
+        return String.format("Imported %d students, rejected %d rows in %d ms (%.0f rows/sec)",
+                getImportedCount(), getBadRowCount(), getElapsedMillis(), getRowsPerSecond());
+    }
+}
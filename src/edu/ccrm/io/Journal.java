@@ -0,0 +1,634 @@
+// File: src/edu/ccrm/io/Journal.java
+package edu.ccrm.io;
+
+import edu.ccrm.config.DataStore;
+import edu.ccrm.config.MutationLog;
+import edu.ccrm.domain.Course;
+import edu.ccrm.domain.Grade;
+import edu.ccrm.domain.Instructor;
+import edu.ccrm.domain.Person;
+import edu.ccrm.domain.RequisiteType;
+import edu.ccrm.domain.Semester;
+import edu.ccrm.domain.Student;
+import edu.ccrm.domain.StudentStatus;
+import edu.ccrm.domain.TimeSlot;
+
+import java.io.BufferedInputStream;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.Closeable;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+import java.util.zip.CRC32;
+
+/**
+ * Append-only write-ahead journal of every DataStore change.
+ * <p>
+ * Records are framed as [length][sequence][type][payload][crc32] and appended to numbered segment
+ * files. Writers that arrive while a flush is in progress share the next fsync (group commit):
+ * the first waiter becomes the leader, writes everything appended so far and forces it to disk,
+ * and every writer whose record was in that batch returns without an fsync of its own.
+ * <p>
+ * At startup the journal is replayed on top of the latest snapshot; saving a snapshot lets the
+ * segments it covers be deleted.
+ */
+public class Journal implements MutationLog, Closeable {
+
+    public static final Path DEFAULT_DIRECTORY = Paths.get("data", "journal");
+
+    private static final long SEGMENT_SIZE_LIMIT = 64L << 20;
+    private static final int MAX_RECORD_LENGTH = 64 << 20;
+    private static final String SEGMENT_PREFIX = "segment-";
+    private static final String SEGMENT_SUFFIX = ".log";
+
+    // --- Record types ---
+    private static final byte ADD_STUDENT = 1;
+    private static final byte REMOVE_STUDENT = 2;
+    private static final byte CLEAR_STUDENTS = 3;
+    private static final byte IMPORT_STUDENTS = 4;
+    private static final byte ADD_COURSE = 5;
+    private static final byte REMOVE_COURSE = 6;
+    private static final byte ADD_INSTRUCTOR = 7;
+    private static final byte REMOVE_INSTRUCTOR = 8;
+    private static final byte ENROLL = 9;
+    private static final byte UNENROLL = 10;
+    private static final byte GRADE = 11;
+    private static final byte STUDENT_STATUS = 12;
+    private static final byte ASSIGN_INSTRUCTOR = 13;
+    private static final byte ADD_REQUISITE = 14;
+    private static final byte REMOVE_REQUISITE = 15;
+
+    private final Path directory;
+
+    // Guards the pending buffer and sequence numbering
+    private final Object appendLock = new Object();
+    private ByteBuffer pending = ByteBuffer.allocate(64 * 1024);
+    private long lastSequence;
+    private boolean closed;
+
+    // Held by the group leader while it writes and forces a batch
+    private final Object syncLock = new Object();
+    private ByteBuffer spare = ByteBuffer.allocate(64 * 1024);
+    private FileChannel segment;
+    private long segmentSize;
+    private volatile long durableSequence;
+    private volatile IOException failure; // Once a write fails, nothing after it can be acknowledged
+
+    private Journal(Path directory) {
+        this.directory = directory;
+    }
+
+    /**
+     * Opens the journal in a directory, creating it if needed. A torn record at the end of the
+     * last segment (from a crash mid-write) is truncated away.
+     */
+    public static Journal open(Path directory) throws IOException {
+        Files.createDirectories(directory);
+        Journal journal = new Journal(directory);
+
+        List<Path> segments = journal.listSegments();
+        long[] last = {0};
+        for (int i = 0; i < segments.size(); i++) {
+            Path file = segments.get(i);
+            long validLength = scanSegment(file, (sequence, type, payload) -> last[0] = sequence);
+            if (validLength < Files.size(file)) {
+                if (i < segments.size() - 1) {
+                    throw new IOException("Journal segment " + file.getFileName() + " is corrupt at byte " + validLength);
+                }
+                System.err.println("Journal: discarding torn record at the end of " + file.getFileName());
+                try (FileChannel channel = FileChannel.open(file, StandardOpenOption.WRITE)) {
+                    channel.truncate(validLength);
+                }
+            }
+        }
+        journal.lastSequence = last[0];
+        journal.durableSequence = last[0];
+
+        Path active = segments.isEmpty() ? journal.segmentPath(1) : segments.get(segments.size() - 1);
+        journal.segment = FileChannel.open(active, StandardOpenOption.CREATE, StandardOpenOption.WRITE, StandardOpenOption.APPEND);
+        journal.segmentSize = journal.segment.size();
+        return journal;
+    }
+
+    /**
+     * Applies every record after the given sequence to the store, in order.
+     * Call this before the journal is attached to the store, so replayed changes are not journaled again.
+     * @param afterSequence The last sequence already reflected in the store (from the snapshot), or 0.
+     * @return The number of records applied.
+     */
+    public long replay(long afterSequence, DataStore dataStore) throws IOException {
+        long[] applied = {0};
+        List<Path> segments = listSegments();
+        for (int i = 0; i < segments.size(); i++) {
+            // Skip whole segments the snapshot already covers
+            if (i + 1 < segments.size() && baseSequence(segments.get(i + 1)) - 1 <= afterSequence) continue;
+            scanSegment(segments.get(i), (sequence, type, payload) -> {
+                if (sequence > afterSequence) {
+                    apply(type, payload, dataStore);
+                    if (payload.available() > 0) { // A record must be read exactly, not guessed at
+                        throw new IOException("Journal record " + sequence + " has " + payload.available() + " unread bytes");
+                    }
+                    applied[0]++;
+                }
+            });
+        }
+
+        // Never hand out a sequence the snapshot already claims to cover
+        synchronized (appendLock) {
+            if (lastSequence < afterSequence) {
+                lastSequence = afterSequence;
+                durableSequence = afterSequence;
+            }
+        }
+        return applied[0];
+    }
+
+    /**
+     * @return The sequence of the most recently appended record (durable or not).
+     */
+    public long lastSequence() {
+        synchronized (appendLock) {
+            return lastSequence;
+        }
+    }
+
+    /**
+     * Starts a new segment and deletes the old ones whose records are all covered by a snapshot.
+     * @param snapshotSequence The last sequence reflected in the snapshot that was just saved.
+     */
+    public void compact(long snapshotSequence) throws IOException {
+        synchronized (syncLock) {
+            if (segmentSize > 0) roll();
+            List<Path> segments = listSegments();
+            int deleted = 0;
+            // The active (last) segment is never deleted
+            for (int i = 0; i + 1 < segments.size(); i++) {
+                if (baseSequence(segments.get(i + 1)) - 1 <= snapshotSequence) {
+                    Files.deleteIfExists(segments.get(i));
+                    deleted++;
+                }
+            }
+            if (deleted > 0) {
+                System.out.println("Journal: compacted " + deleted + " segment(s) covered by the snapshot");
+            }
+        }
+    }
+
+    @Override
+    public void close() throws IOException {
+        long sequence;
+        synchronized (appendLock) {
+            if (closed) return;
+            closed = true; // No appends after this point, so the flush below is the last one
+            sequence = lastSequence;
+        }
+        awaitDurable(sequence);
+        synchronized (syncLock) {
+            segment.close();
+        }
+    }
+
+    // --- MutationLog: append and return the sequence; awaitDurable waits for the group commit that covers it ---
+
+    @Override
+    public long studentAdded(Student student) {
+        return commit(ADD_STUDENT, out -> writeStudent(out, student));
+    }
+
+    @Override
+    public long studentRemoved(Student student) {
+        return commit(REMOVE_STUDENT, out -> out.writeUTF(student.getRegNo()));
+    }
+
+    @Override
+    public long studentsCleared() {
+        return commit(CLEAR_STUDENTS, out -> { });
+    }
+
+    @Override
+    public long studentsImported(List<Student> students) {
+        return commit(IMPORT_STUDENTS, out -> {
+            out.writeInt(students.size());
+            for (Student s : students) {
+                writeStudent(out, s);
+            }
+        });
+    }
+
+    @Override
+    public long studentStatusChanged(Student student) {
+        return commit(STUDENT_STATUS, out -> {
+            out.writeUTF(student.getRegNo());
+            out.writeByte(student.getStatus().ordinal());
+        });
+    }
+
+    @Override
+    public long courseAdded(Course course) {
+        return commit(ADD_COURSE, out -> {
+            out.writeUTF(course.getCode());
+            writeString(out, course.getTitle());
+            out.writeInt(course.getCredits());
+            writeString(out, course.getDepartment());
+            out.writeByte(course.getSemester().ordinal());
+            out.writeInt(course.getInstructor() == null ? -1 : course.getInstructor().getId());
+            out.writeInt(course.getCapacity());
+            out.writeUTF(TimeSlot.formatSchedule(course.getTimeSlots()));
+        });
+    }
+
+    @Override
+    public long courseRemoved(Course course) {
+        return commit(REMOVE_COURSE, out -> out.writeUTF(course.getCode()));
+    }
+
+    @Override
+    public long instructorAssigned(Course course) {
+        return commit(ASSIGN_INSTRUCTOR, out -> {
+            out.writeUTF(course.getCode());
+            out.writeInt(course.getInstructor() == null ? -1 : course.getInstructor().getId());
+        });
+    }
+
+    @Override
+    public long instructorAdded(Instructor instructor) {
+        return commit(ADD_INSTRUCTOR, out -> {
+            writePerson(out, instructor);
+            writeString(out, instructor.getDepartment());
+            writeString(out, instructor.getTitle());
+        });
+    }
+
+    @Override
+    public long instructorRemoved(Instructor instructor) {
+        return commit(REMOVE_INSTRUCTOR, out -> out.writeInt(instructor.getId()));
+    }
+
+    @Override
+    public long enrolled(Student student, Course course) {
+        return commit(ENROLL, out -> {
+            out.writeUTF(student.getRegNo());
+            out.writeUTF(course.getCode());
+        });
+    }
+
+    @Override
+    public long unenrolled(Student student, Course course) {
+        return commit(UNENROLL, out -> {
+            out.writeUTF(student.getRegNo());
+            out.writeUTF(course.getCode());
+        });
+    }
+
+    @Override
+    public long graded(Student student, Course course, Grade grade) {
+        return commit(GRADE, out -> {
+            out.writeUTF(student.getRegNo());
+            out.writeUTF(course.getCode());
+            out.writeByte(grade.ordinal());
+        });
+    }
+
+    @Override
+    public long requisiteAdded(Course course, Course required, RequisiteType type) {
+        return commit(ADD_REQUISITE, out -> {
+            out.writeUTF(course.getCode());
+            out.writeUTF(required.getCode());
+            out.writeByte(type.ordinal());
+        });
+    }
+
+    @Override
+    public long requisiteRemoved(Course course, Course required) {
+        return commit(REMOVE_REQUISITE, out -> {
+            out.writeUTF(course.getCode());
+            out.writeUTF(required.getCode());
+        });
+    }
+
+    // --- Group commit ---
+
+    @FunctionalInterface
+    private interface PayloadWriter {
+        void write(DataOutputStream out) throws IOException;
+    }
+
+    // Only appends to the pending buffer, so callers may hold their own locks; the fsync waits in awaitDurable
+    private long commit(byte type, PayloadWriter payloadWriter) {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream(64);
+        try (DataOutputStream out = new DataOutputStream(bytes)) {
+            payloadWriter.write(out);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e); // In-memory stream; only a too-long string can get here
+        }
+        return append(type, bytes.toByteArray());
+    }
+
+    private long append(byte type, byte[] payload) {
+        synchronized (appendLock) {
+            if (closed) {
+                throw new IllegalStateException("Journal is closed");
+            }
+            long sequence = ++lastSequence;
+            int length = Long.BYTES + 1 + payload.length;
+            int needed = Integer.BYTES + length + Integer.BYTES;
+            if (pending.remaining() < needed) {
+                ByteBuffer grown = ByteBuffer.allocate(Math.max(pending.capacity() * 2, pending.position() + needed));
+                pending.flip();
+                grown.put(pending);
+                pending = grown;
+            }
+            pending.putInt(length);
+            int bodyStart = pending.position();
+            pending.putLong(sequence).put(type).put(payload);
+            CRC32 crc = new CRC32();
+            crc.update(pending.array(), bodyStart, length);
+            pending.putInt((int) crc.getValue());
+            return sequence;
+        }
+    }
+
+    @Override
+    public void awaitDurable(long sequence) {
+        if (durableSequence >= sequence) return;
+        synchronized (syncLock) {
+            // Another leader's batch may have covered us while we waited for the lock
+            if (durableSequence >= sequence) return;
+            if (failure != null) {
+                throw new UncheckedIOException("Journal is unavailable after an earlier write failure", failure);
+            }
+
+            ByteBuffer batch;
+            long batchSequence;
+            synchronized (appendLock) {
+                batch = pending;
+                pending = spare;
+                batchSequence = lastSequence;
+            }
+            spare = batch;
+
+            batch.flip();
+            try {
+                while (batch.hasRemaining()) {
+                    segmentSize += segment.write(batch);
+                }
+                segment.force(false);
+                durableSequence = batchSequence;
+                if (segmentSize >= SEGMENT_SIZE_LIMIT) roll();
+            } catch (IOException e) {
+                failure = e;
+                throw new UncheckedIOException("Failed to write journal", e);
+            } finally {
+                batch.clear();
+            }
+        }
+    }
+
+    // Callers hold syncLock. Everything still pending has a sequence above durableSequence.
+    private void roll() throws IOException {
+        segment.force(false);
+        segment.close();
+        segment = FileChannel.open(segmentPath(durableSequence + 1), StandardOpenOption.CREATE,
+                StandardOpenOption.WRITE, StandardOpenOption.APPEND);
+        segmentSize = segment.size();
+    }
+
+    // --- Segments and reading ---
+
+    @FunctionalInterface
+    private interface RecordHandler {
+        void handle(long sequence, byte type, DataInputStream payload) throws IOException;
+    }
+
+    /**
+     * Reads every intact record in a segment.
+     * @return The length of the valid prefix; shorter than the file if it ends in a torn or corrupt record.
+     */
+    private static long scanSegment(Path file, RecordHandler handler) throws IOException {
+        long validLength = 0;
+        try (DataInputStream in = new DataInputStream(new BufferedInputStream(Files.newInputStream(file), 1 << 16))) {
+            while (true) {
+                int length;
+                try {
+                    length = in.readInt();
+                } catch (EOFException e) {
+                    return validLength; // Clean end of segment
+                }
+                if (length <= Long.BYTES || length > MAX_RECORD_LENGTH) {
+                    return validLength;
+                }
+                byte[] body = new byte[length];
+                int storedCrc;
+                try {
+                    in.readFully(body);
+                    storedCrc = in.readInt();
+                } catch (EOFException e) {
+                    return validLength;
+                }
+                CRC32 crc = new CRC32();
+                crc.update(body);
+                if ((int) crc.getValue() != storedCrc) {
+                    return validLength;
+                }
+
+                ByteBuffer header = ByteBuffer.wrap(body);
+                long sequence = header.getLong();
+                byte type = header.get();
+                handler.handle(sequence, type, new DataInputStream(
+                        new ByteArrayInputStream(body, Long.BYTES + 1, length - Long.BYTES - 1)));
+                validLength += Integer.BYTES + length + Integer.BYTES;
+            }
+        }
+    }
+
+    private List<Path> listSegments() throws IOException {
+        try (Stream<Path> files = Files.list(directory)) {
+            return files
+                    .filter(p -> p.getFileName().toString().startsWith(SEGMENT_PREFIX)
+                            && p.getFileName().toString().endsWith(SEGMENT_SUFFIX))
+                    .sorted((a, b) -> Long.compare(baseSequence(a), baseSequence(b)))
+                    .collect(Collectors.toList());
+        }
+    }
+
+    private Path segmentPath(long baseSequence) {
+        return directory.resolve(String.format("%s%020d%s", SEGMENT_PREFIX, baseSequence, SEGMENT_SUFFIX));
+    }
+
+    private static long baseSequence(Path segment) {
+        String name = segment.getFileName().toString();
+        return Long.parseLong(name.substring(SEGMENT_PREFIX.length(), name.length() - SEGMENT_SUFFIX.length()));
+    }
+
+    // --- Applying records during replay ---
+
+    private static void apply(byte type, DataInputStream in, DataStore dataStore) throws IOException {
+        switch (type) {
+            case ADD_STUDENT:
+                dataStore.addStudent(readStudent(in));
+                break;
+            case REMOVE_STUDENT:
+                dataStore.removeStudent(in.readUTF());
+                break;
+            case CLEAR_STUDENTS:
+                dataStore.clearStudents();
+                break;
+            case IMPORT_STUDENTS: {
+                int count = in.readInt();
+                List<Student> students = new ArrayList<>(count);
+                for (int i = 0; i < count; i++) {
+                    students.add(readStudent(in));
+                }
+                dataStore.addStudents(students);
+                break;
+            }
+            case ADD_COURSE: {
+                String code = in.readUTF();
+                String title = readString(in);
+                int credits = in.readInt();
+                String department = readString(in);
+                Semester semester = Semester.values()[in.readByte()];
+                Instructor instructor = findInstructor(dataStore, in.readInt());
+                int capacity = in.readInt();
+                String schedule = in.readUTF();
+                dataStore.addCourse(new Course.Builder(code, title)
+                        .credits(credits)
+                        .department(department)
+                        .semester(semester)
+                        .instructor(instructor)
+                        .capacity(capacity)
+                        .timeSlots(TimeSlot.parseSchedule(schedule))
+                        .build());
+                break;
+            }
+            case REMOVE_COURSE:
+                dataStore.removeCourse(in.readUTF());
+                break;
+            case ADD_INSTRUCTOR: {
+                int id = in.readInt();
+                String fullName = readString(in);
+                String email = readString(in);
+                LocalDate dob = LocalDate.ofEpochDay(in.readLong());
+                dataStore.addInstructor(new Instructor(id, fullName, email, dob, readString(in), readString(in)));
+                break;
+            }
+            case REMOVE_INSTRUCTOR:
+                dataStore.removeInstructor(in.readInt());
+                break;
+            case ENROLL:
+            case UNENROLL: {
+                Optional<Student> student = dataStore.findStudentByRegNo(in.readUTF());
+                Optional<Course> course = dataStore.findCourseByCode(in.readUTF());
+                if (student.isPresent() && course.isPresent()) {
+                    // The rules passed when the record was written, so they are not re-run here
+                    synchronized (student.get()) {
+                        if (type == ENROLL) {
+                            student.get().enrollInCourse(course.get());
+                            dataStore.recordEnrollment(student.get(), course.get());
+                        } else {
+                            student.get().unenrollFromCourse(course.get());
+                            dataStore.removeEnrollment(student.get(), course.get());
+                        }
+                    }
+                }
+                break;
+            }
+            case STUDENT_STATUS: {
+                Optional<Student> student = dataStore.findStudentByRegNo(in.readUTF());
+                StudentStatus status = StudentStatus.values()[in.readByte()];
+                student.ifPresent(s -> dataStore.updateStudentStatus(s, status));
+                break;
+            }
+            case ASSIGN_INSTRUCTOR: {
+                Optional<Course> course = dataStore.findCourseByCode(in.readUTF());
+                Instructor instructor = findInstructor(dataStore, in.readInt());
+                course.ifPresent(c -> dataStore.assignInstructor(c, instructor));
+                break;
+            }
+            case GRADE: {
+                Optional<Student> student = dataStore.findStudentByRegNo(in.readUTF());
+                Optional<Course> course = dataStore.findCourseByCode(in.readUTF());
+                Grade grade = Grade.values()[in.readByte()];
+                if (student.isPresent() && course.isPresent()) {
+                    synchronized (student.get()) {
+                        if (student.get().isEnrolledIn(course.get())) {
+                            dataStore.recordGrade(student.get(), course.get(), grade);
+                        }
+                    }
+                }
+                break;
+            }
+            case ADD_REQUISITE:
+            case REMOVE_REQUISITE: {
+                Optional<Course> course = dataStore.findCourseByCode(in.readUTF());
+                Optional<Course> required = dataStore.findCourseByCode(in.readUTF());
+                if (course.isPresent() && required.isPresent()) {
+                    if (type == ADD_REQUISITE) {
+                        dataStore.addRequisite(course.get(), required.get(), RequisiteType.values()[in.readByte()]);
+                    } else {
+                        dataStore.removeRequisite(course.get(), required.get());
+                    }
+                }
+                break;
+            }
+            default:
+                throw new IOException("Unknown journal record type " + type);
+        }
+    }
+
+    private static Instructor findInstructor(DataStore dataStore, int id) {
+        return dataStore.findPersonById(id)
+                .filter(p -> p instanceof Instructor)
+                .map(p -> (Instructor) p)
+                .orElse(null);
+    }
+
+    // --- Field encoding ---
+
+    private static void writeStudent(DataOutputStream out, Student student) throws IOException {
+        writePerson(out, student);
+        out.writeUTF(student.getRegNo());
+        out.writeByte(student.getStatus().ordinal());
+    }
+
+    private static Student readStudent(DataInputStream in) throws IOException {
+        int id = in.readInt();
+        String fullName = readString(in);
+        String email = readString(in);
+        LocalDate dob = LocalDate.ofEpochDay(in.readLong());
+        Student student = new Student(id, fullName, email, dob, in.readUTF());
+        student.setStatus(StudentStatus.values()[in.readByte()]);
+        return student;
+    }
+
+    private static void writePerson(DataOutputStream out, Person person) throws IOException {
+        out.writeInt(person.getId());
+        writeString(out, person.getFullName());
+        writeString(out, person.getEmail());
+        out.writeLong(person.getDateOfBirth().toEpochDay());
+    }
+
+    private static void writeString(DataOutputStream out, String value) throws IOException {
+        out.writeBoolean(value != null);
+        if (value != null) out.writeUTF(value);
+    }
+
+    private static String readString(DataInputStream in) throws IOException {
+        return in.readBoolean() ? in.readUTF() : null;
+    }
+}
@@ -0,0 +1,130 @@
+// File: src/edu/ccrm/io/RetentionPolicy.java
+package edu.ccrm.io;
+
+import java.time.LocalDateTime;
+import java.time.temporal.IsoFields;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Decides which backups to keep once a new one has been written.
+ * A backup is kept if any rule wants it: one of the last N, the newest of each of the last D days,
+ * the newest of each of the last W weeks. The newest backup is always kept. An optional byte budget
+ * then drops the oldest remaining backups until the backup folder fits.
+ * <p>
+ * A rule set to 0 is switched off; with every rule off nothing is pruned.
+ */
+public class RetentionPolicy {
+
+    public static final RetentionPolicy KEEP_ALL = new Builder().build();
+
+    private final int keepLast;
+    private final int keepDaily;
+    private final int keepWeekly;
+    private final long maxBytes;
+
+    private RetentionPolicy(Builder builder) {
+        this.keepLast = builder.keepLast;
+        this.keepDaily = builder.keepDaily;
+        this.keepWeekly = builder.keepWeekly;
+        this.maxBytes = builder.maxBytes;
+    }
+
+    /**
+     * Reads the policy from system properties (ccrm.backup.keepLast, keepDaily, keepWeekly, maxBytes).
+     * Without any of them set: last 10 backups, one per day for a week, one per week for a month.
+     */
+    public static RetentionPolicy fromSystemProperties() {
+        return new Builder()
+                .keepLast(Integer.getInteger("ccrm.backup.keepLast", 10))
+                .keepDaily(Integer.getInteger("ccrm.backup.keepDaily", 7))
+                .keepWeekly(Integer.getInteger("ccrm.backup.keepWeekly", 4))
+                .maxBytes(Long.getLong("ccrm.backup.maxBytes", 0L))
+                .build();
+    }
+
+    public int getKeepLast() { return keepLast; }
+    public int getKeepDaily() { return keepDaily; }
+    public int getKeepWeekly() { return keepWeekly; }
+    public long getMaxBytes() { return maxBytes; }
+
+    public boolean isKeepAll() {
+        return keepLast <= 0 && keepDaily <= 0 && keepWeekly <= 0 && maxBytes <= 0;
+    }
+
+    /**
+     * Applies the count and calendar rules (not the byte budget).
+     * @param backups Every backup, oldest first.
+     * @return The names of the backups to keep.
+     */
+    public Set<String> selectToKeep(List<BackupManifest> backups) {
+        Set<String> keep = new HashSet<>();
+        if (backups.isEmpty()) {
+            return keep;
+        }
+        if (keepLast <= 0 && keepDaily <= 0 && keepWeekly <= 0) {
+            backups.forEach(b -> keep.add(b.getName()));
+            return keep;
+        }
+
+        keep.add(backups.get(backups.size() - 1).getName());
+        Set<Object> days = new HashSet<>();
+        Set<Object> weeks = new HashSet<>();
+        // Walk newest to oldest, so the first backup seen in a day or week is that period's newest
+        for (int i = backups.size() - 1, n = 0; i >= 0; i--, n++) {
+            BackupManifest backup = backups.get(i);
+            LocalDateTime created = backup.getCreated();
+            if (n < keepLast) {
+                keep.add(backup.getName());
+            }
+            if (days.size() < keepDaily && days.add(created.toLocalDate())) {
+                keep.add(backup.getName());
+            }
+            String week = created.get(IsoFields.WEEK_BASED_YEAR) + "-W" + created.get(IsoFields.WEEK_OF_WEEK_BASED_YEAR);
+            if (weeks.size() < keepWeekly && weeks.add(week)) {
+                keep.add(backup.getName());
+            }
+        }
+        return keep;
+    }
+
+    @Override
+    public String toString() {
+        if (isKeepAll()) return "keep all";
+        return String.format("keep last %d, daily %d, weekly %d%s", keepLast, keepDaily, keepWeekly,
+                maxBytes > 0 ? ", at most " + maxBytes + " bytes" : "");
+    }
+
+    // --- Builder ---
+    public static class Builder {
+        private int keepLast;
+        private int keepDaily;
+        private int keepWeekly;
+        private long maxBytes;
+
+        public Builder keepLast(int keepLast) {
+            this.keepLast = keepLast;
+            return this;
+        }
+
+        public Builder keepDaily(int keepDaily) {
+            this.keepDaily = keepDaily;
+            return this;
+        }
+
+        public Builder keepWeekly(int keepWeekly) {
+            this.keepWeekly = keepWeekly;
+            return this;
+        }
+
+        public Builder maxBytes(long maxBytes) {
+            this.maxBytes = maxBytes;
+            return this;
+        }
+
+        public RetentionPolicy build() {
+            return new RetentionPolicy(this);
+        }
+    }
+}
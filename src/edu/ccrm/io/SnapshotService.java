@@ -0,0 +1,613 @@
+// File: src/edu/ccrm/io/SnapshotService.java
+package edu.ccrm.io;
+
+import edu.ccrm.config.DataStore;
+import edu.ccrm.domain.Course;
+import edu.ccrm.domain.Grade;
+import edu.ccrm.domain.Instructor;
+import edu.ccrm.domain.Person;
+import edu.ccrm.domain.RequisiteType;
+import edu.ccrm.domain.Semester;
+import edu.ccrm.domain.Student;
+import edu.ccrm.domain.StudentStatus;
+import edu.ccrm.domain.TimeSlot;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.stream.Stream;
+import java.util.zip.CRC32;
+
+/**
+ * Saves and loads the whole DataStore as a versioned binary snapshot.
+ * <p>
+ * Layout: a fixed-size header holding the record counts, the section offsets and the last
+ * journal sequence the snapshot reflects; then the instructor, student, course, enrollment,
+ * requisite and completion sections made of fixed-width records; then a string table. Every string is stored once and referenced by its index, so repeated values
+ * such as departments cost four bytes per use. Each section and the header carry a CRC32.
+ * The file is written sequentially and read back through a memory-mapped buffer.
+ * <p>
+ * A mapping holds its file until it is garbage-collected, and on Windows a mapped file cannot be
+ * replaced. So a save never overwrites: each one is moved into place under the next generation
+ * name (ccrm.snapshot.1, ccrm.snapshot.2, ...), loads read the newest generation, and older
+ * generations are deleted once they are no longer mapped. The bare path counts as generation 0.
+ * <p>
+ * The journal sequence lets startup replay only newer journal records, and lets a save compact
+ * the journal. A course's capacity is 0 for unlimited, and its meeting times are one string in
+ * the form TimeSlot.parseSchedule reads (no string when unscheduled). The completion section
+ * lists the courses students passed and have since left.
+ */
+public class SnapshotService {
+
+    public static final Path DEFAULT_SNAPSHOT = Paths.get("data", "ccrm.snapshot");
+
+    private static final int MAGIC = 0x4343524D; // "CCRM"
+    private static final int VERSION = 1;
+
+    private static final int HEADER_SIZE = 112; // counts, offsets and journal sequence, plus the header CRC
+    private static final int INSTRUCTOR_RECORD = 24; // id, name, email, dob, department, title
+    private static final int STUDENT_RECORD = 21; // id, regNo, name, email, dob, status
+    private static final int COURSE_RECORD = 29; // code, title, credits, department, semester, instructorId, capacity, schedule
+    private static final int ENROLLMENT_RECORD = 9; // student ordinal, course ordinal, grade
+    private static final int REQUISITE_RECORD = 9; // course ordinal, required course ordinal, type
+    private static final int COMPLETION_RECORD = 8; // student ordinal, course ordinal
+    private static final byte NO_GRADE = -1;
+    private static final int NO_STRING = -1;
+    private static final int NO_INSTRUCTOR = -1;
+
+    private static final int WRITE_BUFFER_SIZE = 1 << 20;
+
+    private final Journal journal; // May be null when running without a journal
+
+    public SnapshotService() {
+        this(null);
+    }
+
+    public SnapshotService(Journal journal) {
+        this.journal = journal;
+    }
+
+    /**
+     * Writes a snapshot of the store. The file is written next to the target and moved into place as
+     * the next generation, so a crash mid-write never leaves a truncated snapshot behind and a
+     * generation that is still mapped is never replaced.
+     */
+    public void saveSnapshot(DataStore dataStore, Path path) {
+        long start = System.nanoTime();
+        try {
+            Files.createDirectories(path.toAbsolutePath().getParent());
+            Path tmp = path.resolveSibling(path.getFileName() + ".tmp");
+            // Everything journaled up to here is already applied, so the snapshot will include it
+            long sequence = journal == null ? 0 : journal.lastSequence();
+            Counts counts = write(dataStore, tmp, sequence);
+            long generation = latestGeneration(path) + 1;
+            Path file = generationFile(path, generation);
+            Files.move(tmp, file, StandardCopyOption.ATOMIC_MOVE);
+            deleteGenerationsBefore(path, generation);
+            System.out.printf("Snapshot saved to %s: %s in %d ms%n",
+                    file.toAbsolutePath(), counts, (System.nanoTime() - start) / 1_000_000);
+            if (journal != null) {
+                journal.compact(sequence);
+            }
+        } catch (IOException e) {
+            System.err.println("Failed to save snapshot: " + e.getMessage());
+        }
+    }
+
+    /**
+     * Replaces the contents of the store with a snapshot.
+     * @return The last journal sequence the snapshot reflects (0 if none), or -1 if the snapshot is
+     *         missing, unreadable or fails its checksums; the store is then left untouched.
+     */
+    public long loadSnapshot(DataStore dataStore, Path path) {
+        long start = System.nanoTime();
+        try {
+            long generation = latestGeneration(path);
+            if (generation < 0) {
+                return -1;
+            }
+            Path file = generationFile(path, generation);
+            Counts counts = read(dataStore, file);
+            System.out.printf("Snapshot loaded from %s: %s in %d ms%n",
+                    file.toAbsolutePath(), counts, (System.nanoTime() - start) / 1_000_000);
+            return counts.sequence;
+        } catch (IOException e) {
+            System.err.println("Failed to load snapshot: " + e.getMessage());
+            return -1;
+        }
+    }
+
+    /**
+     * Whether any generation of the snapshot exists.
+     */
+    public static boolean exists(Path path) throws IOException {
+        return latestGeneration(path) >= 0;
+    }
+
+    // --- Generations ---
+
+    private static Path generationFile(Path path, long generation) {
+        return generation == 0 ? path : path.resolveSibling(path.getFileName() + "." + generation);
+    }
+
+    // -1 if there is no snapshot at all
+    private static long latestGeneration(Path path) throws IOException {
+        long latest = Files.exists(path) ? 0 : -1;
+        Path directory = path.toAbsolutePath().getParent();
+        if (!Files.isDirectory(directory)) {
+            return latest;
+        }
+        try (Stream<Path> files = Files.list(directory)) {
+            return Math.max(latest, files.mapToLong(file -> generationOf(path, file)).max().orElse(-1));
+        }
+    }
+
+    // -1 unless the file is a numbered generation of the snapshot
+    private static long generationOf(Path path, Path file) {
+        String prefix = path.getFileName() + ".";
+        String name = file.getFileName().toString();
+        // Up to 18 digits, so the number always fits a long
+        if (!name.startsWith(prefix) || name.length() == prefix.length() || name.length() - prefix.length() > 18) {
+            return -1;
+        }
+        for (int i = prefix.length(); i < name.length(); i++) {
+            if (!Character.isDigit(name.charAt(i))) {
+                return -1;
+            }
+        }
+        return Long.parseLong(name.substring(prefix.length()));
+    }
+
+    // Best effort: a generation this process still has mapped cannot be deleted on Windows, so it is
+    // left for a later save to clean up
+    private static void deleteGenerationsBefore(Path path, long generation) throws IOException {
+        List<Path> stale = new ArrayList<>();
+        if (generation > 0 && Files.exists(path)) {
+            stale.add(path);
+        }
+        try (Stream<Path> files = Files.list(path.toAbsolutePath().getParent())) {
+            files.filter(file -> {
+                long n = generationOf(path, file);
+                return n >= 0 && n < generation;
+            }).forEach(stale::add);
+        }
+        for (Path file : stale) {
+            try {
+                Files.deleteIfExists(file);
+            } catch (IOException e) {
+                System.err.println("Could not delete old snapshot " + file.getFileName() + " yet: " + e.getMessage());
+            }
+        }
+    }
+
+    // --- Writing ---
+
+    private Counts write(DataStore dataStore, Path path, long sequence) throws IOException {
+        // Capture the record lists once so counts and ordinals stay consistent while others keep writing
+        List<Instructor> instructors = new ArrayList<>(dataStore.getInstructors());
+        List<Student> students = new ArrayList<>(dataStore.getStudents());
+        List<Course> courses = new ArrayList<>(dataStore.getCourses());
+        StringTable strings = new StringTable();
+        Counts counts = new Counts(instructors.size(), students.size(), courses.size());
+        counts.sequence = sequence;
+
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.CREATE,
+                StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.WRITE)) {
+            SectionWriter out = new SectionWriter(channel, HEADER_SIZE);
+
+            long instructorsOffset = out.position();
+            for (Instructor i : instructors) {
+                out.ensure(INSTRUCTOR_RECORD);
+                putPerson(out.buffer, strings, i);
+                out.buffer.putInt(strings.indexOf(i.getDepartment()));
+                out.buffer.putInt(strings.indexOf(i.getTitle()));
+            }
+            out.endSection();
+
+            long studentsOffset = out.position();
+            for (Student s : students) {
+                out.ensure(STUDENT_RECORD);
+                out.buffer.putInt(s.getId());
+                out.buffer.putInt(strings.indexOf(s.getRegNo()));
+                out.buffer.putInt(strings.indexOf(s.getFullName()));
+                out.buffer.putInt(strings.indexOf(s.getEmail()));
+                out.buffer.putInt((int) s.getDateOfBirth().toEpochDay());
+                out.buffer.put((byte) s.getStatus().ordinal());
+            }
+            out.endSection();
+
+            long coursesOffset = out.position();
+            Map<Course, Integer> courseOrdinals = new HashMap<>(courses.size() * 2);
+            for (Course c : courses) {
+                courseOrdinals.put(c, courseOrdinals.size());
+                out.ensure(COURSE_RECORD);
+                out.buffer.putInt(strings.indexOf(c.getCode()));
+                out.buffer.putInt(strings.indexOf(c.getTitle()));
+                out.buffer.putInt(c.getCredits());
+                out.buffer.putInt(strings.indexOf(c.getDepartment()));
+                out.buffer.put((byte) c.getSemester().ordinal());
+                out.buffer.putInt(c.getInstructor() == null ? NO_INSTRUCTOR : c.getInstructor().getId());
+                out.buffer.putInt(c.getCapacity());
+                out.buffer.putInt(c.isScheduled() ? strings.indexOf(TimeSlot.formatSchedule(c.getTimeSlots())) : NO_STRING);
+            }
+            out.endSection();
+
+            long enrollmentsOffset = out.position();
+            for (int studentOrdinal = 0; studentOrdinal < students.size(); studentOrdinal++) {
+                Student student = students.get(studentOrdinal);
+                for (Course c : student.getEnrolledCourses()) {
+                    Integer courseOrdinal = courseOrdinals.get(c);
+                    if (courseOrdinal == null) continue; // Course added after the capture above
+                    out.ensure(ENROLLMENT_RECORD);
+                    out.buffer.putInt(studentOrdinal);
+                    out.buffer.putInt(courseOrdinal);
+                    out.buffer.put(student.getGrade(c).map(g -> (byte) g.ordinal()).orElse(NO_GRADE));
+                    counts.enrollments++;
+                }
+            }
+            out.endSection();
+
+            long requisitesOffset = out.position();
+            for (Course c : courses) {
+                for (Map.Entry<String, RequisiteType> requisite : dataStore.getRequisites(c.getCode()).entrySet()) {
+                    Integer requiredOrdinal = dataStore.findCourseByCode(requisite.getKey()).map(courseOrdinals::get).orElse(null);
+                    if (requiredOrdinal == null) continue; // Course added after the capture above
+                    out.ensure(REQUISITE_RECORD);
+                    out.buffer.putInt(courseOrdinals.get(c));
+                    out.buffer.putInt(requiredOrdinal);
+                    out.buffer.put((byte) requisite.getValue().ordinal());
+                    counts.requisites++;
+                }
+            }
+            out.endSection();
+
+            long completionsOffset = out.position();
+            for (int studentOrdinal = 0; studentOrdinal < students.size(); studentOrdinal++) {
+                for (Course c : students.get(studentOrdinal).getCompletedCourses()) {
+                    Integer courseOrdinal = courseOrdinals.get(c);
+                    if (courseOrdinal == null) continue; // Course added after the capture above
+                    out.ensure(COMPLETION_RECORD);
+                    out.buffer.putInt(studentOrdinal);
+                    out.buffer.putInt(courseOrdinal);
+                    counts.completions++;
+                }
+            }
+            out.endSection();
+
+            long stringsOffset = out.position();
+            for (String value : strings.values) {
+                out.putString(value);
+            }
+            out.endSection();
+            counts.strings = strings.values.size();
+
+            // The header goes in last, once every count and offset is known
+            ByteBuffer header = ByteBuffer.allocate(HEADER_SIZE);
+            header.putInt(MAGIC).putInt(VERSION)
+                    .putInt(counts.instructors).putInt(counts.students).putInt(counts.courses).putInt(counts.strings)
+                    .putLong(counts.enrollments).putLong(counts.sequence)
+                    .putLong(instructorsOffset).putLong(studentsOffset).putLong(coursesOffset)
+                    .putLong(enrollmentsOffset).putLong(stringsOffset)
+                    .putInt(counts.requisites).putLong(requisitesOffset)
+                    .putInt(counts.completions).putLong(completionsOffset);
+            header.putLong(crc(header.duplicate().flip()));
+            header.flip();
+            long position = 0;
+            while (header.hasRemaining()) {
+                position += channel.write(header, position);
+            }
+            channel.force(true);
+        }
+        return counts;
+    }
+
+    private static void putPerson(ByteBuffer buffer, StringTable strings, Person p) {
+        buffer.putInt(p.getId());
+        buffer.putInt(strings.indexOf(p.getFullName()));
+        buffer.putInt(strings.indexOf(p.getEmail()));
+        buffer.putInt((int) p.getDateOfBirth().toEpochDay());
+    }
+
+    // --- Reading ---
+
+    private Counts read(DataStore dataStore, Path path) throws IOException {
+        ByteBuffer file = mapFile(path);
+        long size = file.capacity();
+        if (file.getInt(0) != MAGIC) {
+            throw new IOException("Not a CCRM snapshot");
+        }
+        int version = file.getInt(Integer.BYTES);
+        if (version != VERSION) {
+            throw new IOException("Unsupported snapshot version " + version);
+        }
+        ByteBuffer header = file.duplicate().limit(HEADER_SIZE - Long.BYTES);
+        if (crc(header.duplicate()) != file.getLong(HEADER_SIZE - Long.BYTES)) {
+            throw new IOException("Snapshot header checksum mismatch");
+        }
+        header.position(2 * Integer.BYTES);
+        Counts counts = new Counts(header.getInt(), header.getInt(), header.getInt());
+        counts.strings = header.getInt();
+        counts.enrollments = header.getLong();
+        counts.sequence = header.getLong();
+        long instructorsOffset = header.getLong();
+        long studentsOffset = header.getLong();
+        long coursesOffset = header.getLong();
+        long enrollmentsOffset = header.getLong();
+        long stringsOffset = header.getLong();
+        counts.requisites = header.getInt();
+        long requisitesOffset = header.getLong();
+        counts.completions = header.getInt();
+        long completionsOffset = header.getLong();
+
+        // Verify every section before touching the store, so a corrupt file changes nothing
+        ByteBuffer instructorsSection = section(file, instructorsOffset, (long) counts.instructors * INSTRUCTOR_RECORD, "instructors");
+        ByteBuffer studentsSection = section(file, studentsOffset, (long) counts.students * STUDENT_RECORD, "students");
+        ByteBuffer coursesSection = section(file, coursesOffset, (long) counts.courses * COURSE_RECORD, "courses");
+        ByteBuffer enrollmentsSection = section(file, enrollmentsOffset, counts.enrollments * ENROLLMENT_RECORD, "enrollments");
+        ByteBuffer requisitesSection = section(file, requisitesOffset, (long) counts.requisites * REQUISITE_RECORD, "requisites");
+        ByteBuffer completionsSection = section(file, completionsOffset, (long) counts.completions * COMPLETION_RECORD, "completions");
+        ByteBuffer stringsSection = section(file, stringsOffset, size - Long.BYTES - stringsOffset, "strings");
+
+        String[] strings = readStrings(stringsSection, counts.strings);
+        Semester[] semesters = Semester.values();
+        StudentStatus[] statuses = StudentStatus.values();
+        Grade[] grades = Grade.values();
+        RequisiteType[] requisiteTypes = RequisiteType.values();
+
+        // Build the records and reject duplicates before the store is cleared, as the store would refuse them
+        Set<Integer> personIds = new HashSet<>((counts.instructors + counts.students) * 2);
+        Map<Integer, Instructor> instructorsById = new HashMap<>(counts.instructors * 2);
+        for (int n = 0; n < counts.instructors; n++) {
+            Instructor instructor = new Instructor(instructorsSection.getInt(), string(strings, instructorsSection.getInt()),
+                    string(strings, instructorsSection.getInt()), LocalDate.ofEpochDay(instructorsSection.getInt()),
+                    string(strings, instructorsSection.getInt()), string(strings, instructorsSection.getInt()));
+            if (!personIds.add(instructor.getId())) {
+                throw new IOException("Snapshot holds person id " + instructor.getId() + " more than once");
+            }
+            instructorsById.put(instructor.getId(), instructor);
+        }
+
+        Set<String> regNos = new HashSet<>(counts.students * 2);
+        Student[] students = new Student[counts.students];
+        for (int n = 0; n < counts.students; n++) {
+            int id = studentsSection.getInt();
+            String regNo = string(strings, studentsSection.getInt());
+            Student student = new Student(id, string(strings, studentsSection.getInt()), string(strings, studentsSection.getInt()),
+                    LocalDate.ofEpochDay(studentsSection.getInt()), regNo);
+            student.setStatus(statuses[studentsSection.get()]);
+            if (!personIds.add(id)) {
+                throw new IOException("Snapshot holds person id " + id + " more than once");
+            }
+            if (!regNos.add(DataStore.key(regNo))) {
+                throw new IOException("Snapshot holds student " + regNo + " more than once");
+            }
+            students[n] = student;
+        }
+
+        Set<String> codes = new HashSet<>(counts.courses * 2);
+        Course[] courses = new Course[counts.courses];
+        for (int n = 0; n < counts.courses; n++) {
+            String code = string(strings, coursesSection.getInt());
+            String title = string(strings, coursesSection.getInt());
+            Course course = new Course.Builder(code, title)
+                    .credits(coursesSection.getInt())
+                    .department(string(strings, coursesSection.getInt()))
+                    .semester(semesters[coursesSection.get()])
+                    .instructor(instructorsById.get(coursesSection.getInt()))
+                    .capacity(coursesSection.getInt())
+                    .timeSlots(TimeSlot.parseSchedule(string(strings, coursesSection.getInt())))
+                    .build();
+            if (!codes.add(DataStore.key(code))) {
+                throw new IOException("Snapshot holds course " + code + " more than once");
+            }
+            courses[n] = course;
+        }
+
+        dataStore.clear();
+        for (Instructor instructor : instructorsById.values()) {
+            dataStore.addInstructor(instructor);
+        }
+        for (Student student : students) {
+            if (!dataStore.addStudent(student)) {
+                throw new IOException("Student " + student.getRegNo() + " was added while the snapshot was loading");
+            }
+        }
+        for (Course course : courses) {
+            if (!dataStore.addCourse(course)) {
+                throw new IOException("Course " + course.getCode() + " was added while the snapshot was loading");
+            }
+        }
+
+        // Count each student's enrollments first, so their course arrays are allocated once at the right size
+        int[] enrollmentCounts = new int[students.length];
+        for (long n = 0; n < counts.enrollments; n++) {
+            enrollmentCounts[enrollmentsSection.getInt((int) (n * ENROLLMENT_RECORD))]++;
+        }
+        for (int n = 0; n < students.length; n++) {
+            students[n].ensureCourseCapacity(enrollmentCounts[n]);
+        }
+
+        // Snapshot enrollments were valid when written, so they are restored without re-running the rules
+        for (long n = 0; n < counts.enrollments; n++) {
+            Student student = students[enrollmentsSection.getInt()];
+            Course course = courses[enrollmentsSection.getInt()];
+            student.enrollInCourse(course);
+            dataStore.recordEnrollment(student, course);
+            byte grade = enrollmentsSection.get();
+            if (grade != NO_GRADE) {
+                dataStore.recordGrade(student, course, grades[grade]);
+            }
+        }
+
+        for (int n = 0; n < counts.requisites; n++) {
+            Course course = courses[requisitesSection.getInt()];
+            Course required = courses[requisitesSection.getInt()];
+            dataStore.addRequisite(course, required, requisiteTypes[requisitesSection.get()]);
+        }
+
+        for (int n = 0; n < counts.completions; n++) {
+            Student student = students[completionsSection.getInt()];
+            student.addCompletedCourse(courses[completionsSection.getInt()]);
+        }
+        return counts;
+    }
+
+    // The mapping outlives the channel; generations keep it from ever blocking a save
+    private static MappedByteBuffer mapFile(Path path) throws IOException {
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            long size = channel.size();
+            if (size < HEADER_SIZE) {
+                throw new IOException("Snapshot is truncated");
+            }
+            if (size > Integer.MAX_VALUE) {
+                throw new IOException("Snapshot is larger than 2 GB and cannot be mapped in one piece");
+            }
+            return channel.map(FileChannel.MapMode.READ_ONLY, 0, size);
+        }
+    }
+
+    private static ByteBuffer section(ByteBuffer file, long offset, long length, String name) throws IOException {
+        if (offset < HEADER_SIZE || length < 0 || offset + length + Long.BYTES > file.capacity()) {
+            throw new IOException("Snapshot " + name + " section is out of bounds");
+        }
+        ByteBuffer section = file.duplicate().position((int) offset).limit((int) (offset + length)).slice();
+        if (crc(section.duplicate()) != file.getLong((int) (offset + length))) {
+            throw new IOException("Snapshot " + name + " section checksum mismatch");
+        }
+        return section;
+    }
+
+    private static String[] readStrings(ByteBuffer section, int count) {
+        String[] strings = new String[count];
+        byte[] scratch = new byte[256];
+        for (int n = 0; n < count; n++) {
+            int length = section.getInt();
+            if (length > scratch.length) {
+                scratch = new byte[Math.max(length, scratch.length * 2)];
+            }
+            section.get(scratch, 0, length);
+            strings[n] = new String(scratch, 0, length, StandardCharsets.UTF_8);
+        }
+        return strings;
+    }
+
+    private static String string(String[] strings, int index) {
+        return index == NO_STRING ? null : strings[index];
+    }
+
+    private static long crc(ByteBuffer bytes) {
+        CRC32 crc = new CRC32();
+        crc.update(bytes);
+        return crc.getValue();
+    }
+
+    // --- Helpers ---
+
+    /**
+     * Assigns each distinct string an index in first-seen order.
+     */
+    private static final class StringTable {
+        private final Map<String, Integer> indexes = new HashMap<>();
+        private final List<String> values = new ArrayList<>();
+
+        int indexOf(String value) {
+            if (value == null) return NO_STRING;
+            Integer index = indexes.get(value);
+            if (index == null) {
+                index = values.size();
+                indexes.put(value, index);
+                values.add(value);
+            }
+            return index;
+        }
+    }
+
+    /**
+     * Sequential writer over a channel that keeps a running CRC32 of the current section.
+     */
+    private static final class SectionWriter {
+        private final FileChannel channel;
+        private final ByteBuffer buffer = ByteBuffer.allocateDirect(WRITE_BUFFER_SIZE);
+        private final CRC32 crc = new CRC32();
+        private long flushed;
+
+        SectionWriter(FileChannel channel, long start) {
+            this.channel = channel;
+            this.flushed = start;
+        }
+
+        long position() {
+            return flushed + buffer.position();
+        }
+
+        void ensure(int bytes) throws IOException {
+            if (buffer.remaining() < bytes) flush(true);
+        }
+
+        void putString(String value) throws IOException {
+            byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+            ensure(Integer.BYTES);
+            buffer.putInt(bytes.length);
+            for (int offset = 0; offset < bytes.length; ) {
+                ensure(1);
+                int chunk = Math.min(buffer.remaining(), bytes.length - offset);
+                buffer.put(bytes, offset, chunk);
+                offset += chunk;
+            }
+        }
+
+        // Appends the section's CRC, which is itself not covered by the checksum
+        void endSection() throws IOException {
+            flush(true);
+            buffer.putLong(crc.getValue());
+            flush(false);
+            crc.reset();
+        }
+
+        private void flush(boolean checksum) throws IOException {
+            buffer.flip();
+            if (checksum) crc.update(buffer.duplicate());
+            while (buffer.hasRemaining()) {
+                flushed += channel.write(buffer, flushed);
+            }
+            buffer.clear();
+        }
+    }
+
+    private static final class Counts {
+        private final int instructors;
+        private final int students;
+        private final int courses;
+        private int strings;
+        private long enrollments;
+        private int requisites;
+        private int completions;
+        private long sequence; // Last journal sequence reflected in the snapshot
+
+        Counts(int instructors, int students, int courses) {
+            this.instructors = instructors;
+            this.students = students;
+            this.courses = courses;
+        }
+
+        @Override
+        public String toString() {
+            return students + " students, " + courses + " courses, " + instructors + " instructors, "
+                    + enrollments + " enrollments, " + requisites + " requisites, " + completions + " completions, " + strings + " distinct strings";
+        }
+    }
+}
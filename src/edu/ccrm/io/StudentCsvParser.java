@@ -0,0 +1,98 @@
+// File: src/edu/ccrm/io/StudentCsvParser.java
+package edu.ccrm.io;
+
+import edu.ccrm.domain.Student;
+
+import java.time.DateTimeException;
+import java.time.LocalDate;
+
+/**
+ * Parses one student CSV line (id,regNo,fullName,email,dateOfBirth) without String.split,
+ * regular expressions or LocalDate.parse. Numeric fields are read straight from the line's
+ * characters; only the three text fields are copied out.
+ */
+public final class StudentCsvParser {
+
+    private static final int FIELD_COUNT = 5;
+
+    private StudentCsvParser() {
+    }
+
+    /**
+     * @throws IllegalArgumentException with a human-readable reason if the line is malformed.
+     */
+    public static Student parse(String line) {
+        // Locate the four separators without splitting the line into an array
+        int c0 = line.indexOf(',');
+        int c1 = c0 < 0 ? -1 : line.indexOf(',', c0 + 1);
+        int c2 = c1 < 0 ? -1 : line.indexOf(',', c1 + 1);
+        int c3 = c2 < 0 ? -1 : line.indexOf(',', c2 + 1);
+        if (c3 < 0) {
+            throw new IllegalArgumentException("expected " + FIELD_COUNT + " comma-separated fields");
+        }
+
+        int dobEnd = line.indexOf(',', c3 + 1);
+        if (dobEnd < 0) dobEnd = line.length();
+
+        int id = parseInt(line, 0, c0);
+        String regNo = text(line, c0 + 1, c1, "registration number");
+        String fullName = text(line, c1 + 1, c2, "name");
+        String email = line.substring(c2 + 1, c3);
+        LocalDate dob = parseDate(line, c3 + 1, dobEnd);
+        return new Student(id, fullName, email, dob, regNo);
+    }
+
+    private static String text(String line, int from, int to, String field) {
+        if (from == to) {
+            throw new IllegalArgumentException("missing " + field);
+        }
+        return line.substring(from, to);
+    }
+
+    private static int parseInt(String line, int from, int to) {
+        if (from == to) {
+            throw new IllegalArgumentException("missing id");
+        }
+        long value = 0;
+        for (int i = from; i < to; i++) {
+            char c = line.charAt(i);
+            if (c < '0' || c > '9') {
+                throw new IllegalArgumentException("id is not a number: '" + line.substring(from, to) + "'");
+            }
+            value = value * 10 + (c - '0');
+            if (value > Integer.MAX_VALUE) {
+                throw new IllegalArgumentException("id is out of range: '" + line.substring(from, to) + "'");
+            }
+        }
+        return (int) value;
+    }
+
+    // Expects ISO yyyy-MM-dd, the format LocalDate.toString() writes on export
+    private static LocalDate parseDate(String line, int from, int to) {
+        if (to - from != 10 || line.charAt(from + 4) != '-' || line.charAt(from + 7) != '-') {
+            throw new IllegalArgumentException("date of birth is not yyyy-MM-dd: '" + line.substring(from, to) + "'");
+        }
+        int year = digits(line, from, from + 4);
+        int month = digits(line, from + 5, from + 7);
+        int day = digits(line, from + 8, from + 10);
+        if (year < 0 || month < 0 || day < 0) {
+            throw new IllegalArgumentException("date of birth is not yyyy-MM-dd: '" + line.substring(from, to) + "'");
+        }
+        try {
+            return LocalDate.of(year, month, day);
+        } catch (DateTimeException e) {
+            throw new IllegalArgumentException("invalid date of birth: " + e.getMessage());
+        }
+    }
+
+    // Returns -1 instead of throwing so the caller can build one message for the whole date
+    private static int digits(String line, int from, int to) {
+        int value = 0;
+        for (int i = from; i < to; i++) {
+            char c = line.charAt(i);
+            if (c < '0' || c > '9') return -1;
+            value = value * 10 + (c - '0');
+        }
+        return value;
+    }
+}
@@ -0,0 +1,91 @@
+// File: src/edu/ccrm/service/CourseQuery.java
+package edu.ccrm.service;
+
+import edu.ccrm.domain.Semester;
+import edu.ccrm.domain.Student;
+
+/**
+ * Predicates for a course search; every predicate that is set must match. Build with the Builder.
+ */
+public final class CourseQuery {
+
+    private final String department;
+    private final Semester semester;
+    private final Integer instructorId;
+    private final Integer maxCredits;
+    private final Student openTo;
+    private final String after;
+    private final int limit;
+
+    private CourseQuery(Builder builder) {
+        this.department = builder.department;
+        this.semester = builder.semester;
+        this.instructorId = builder.instructorId;
+        this.maxCredits = builder.maxCredits;
+        this.openTo = builder.openTo;
+        this.after = builder.after;
+        this.limit = builder.limit;
+    }
+
+    public String getDepartment() { return department; }
+    public Semester getSemester() { return semester; }
+    public Integer getInstructorId() { return instructorId; }
+    public Integer getMaxCredits() { return maxCredits; }
+    public Student getOpenTo() { return openTo; }
+    public String getAfter() { return after; }
+    public int getLimit() { return limit; }
+
+    public static class Builder {
+        private String department;
+        private Semester semester;
+        private Integer instructorId;
+        private Integer maxCredits;
+        private Student openTo;
+        private String after;
+        private int limit = StudentQuery.DEFAULT_LIMIT;
+
+        public Builder department(String department) {
+            this.department = department;
+            return this;
+        }
+
+        public Builder semester(Semester semester) {
+            this.semester = semester;
+            return this;
+        }
+
+        public Builder instructorId(Integer instructorId) {
+            this.instructorId = instructorId;
+            return this;
+        }
+
+        public Builder maxCredits(Integer maxCredits) {
+            this.maxCredits = maxCredits;
+            return this;
+        }
+
+        // Courses the student is not enrolled in and still has free credits for in that semester
+        public Builder openTo(Student student) {
+            this.openTo = student;
+            return this;
+        }
+
+        // The cursor from the previous page, or null for the first page
+        public Builder after(String after) {
+            this.after = after;
+            return this;
+        }
+
+        public Builder limit(int limit) {
+            if (limit < 1 || limit > StudentQuery.MAX_LIMIT) {
+                throw new IllegalArgumentException("Page size must be between 1 and " + StudentQuery.MAX_LIMIT);
+            }
+            this.limit = limit;
+            return this;
+        }
+
+        public CourseQuery build() {
+            return new CourseQuery(this);
+        }
+    }
+}
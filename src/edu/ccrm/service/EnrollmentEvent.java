@@ -0,0 +1,45 @@
+// File: src/edu/ccrm/service/EnrollmentEvent.java
+package edu.ccrm.service;
+
+import edu.ccrm.domain.Course;
+import edu.ccrm.domain.Student;
+
+/**
+ * Something that happened in the enrollment service. Events hold references rather than formatted
+ * text, so publishing one costs a single small allocation on the caller's thread.
+ */
+public class EnrollmentEvent {
+
+    public enum Type {
+        ENROLLED,
+        UNENROLLED,
+        REJECTED_DUPLICATE,
+        REJECTED_OVER_LIMIT,
+        REJECTED_REQUISITE,
+        REJECTED_SCHEDULE_CONFLICT,
+        WAITLISTED, // The course was full; the student joined its waitlist
+        WAITLIST_DROPPED // A waitlisted student could no longer take the seat offered (e.g. over the credit limit)
+    }
+
+    private final Type type;
+    private final Student student;
+    private final Course course;
+    private final long timestamp; // Epoch millis
+
+    public EnrollmentEvent(Type type, Student student, Course course) {
+        this.type = type;
+        this.student = student;
+        this.course = course;
+        this.timestamp = System.currentTimeMillis();
+    }
+
+    public Type getType() { return type; }
+    public Student getStudent() { return student; }
+    public Course getCourse() { return course; }
+    public long getTimestamp() { return timestamp; }
+
+    @Override
+    public String toString() {
+        return "EnrollmentEvent [" + type + " " + student.getRegNo() + " " + course.getCode() + "]";
+    }
+}
@@ -0,0 +1,132 @@
+// File: src/edu/ccrm/service/EnrollmentEventBus.java
+package edu.ccrm.service;
+
+import edu.ccrm.util.RingBuffer;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Delivers enrollment events to listeners on a background thread.
+ * <p>
+ * Publishing puts the event in a lock-free ring buffer and returns at once; a single dispatcher
+ * thread drains it in batches and hands each batch to every listener. If the buffer is ever full
+ * (listeners far behind), the event is dropped and counted rather than slowing the caller down.
+ */
+public class EnrollmentEventBus implements EnrollmentEventPublisher, AutoCloseable {
+
+    private static final int DEFAULT_CAPACITY = 1 << 16;
+    private static final int MAX_BATCH = 1024;
+    private static final long IDLE_PARK_NANOS = TimeUnit.MILLISECONDS.toNanos(1);
+
+    private final RingBuffer<EnrollmentEvent> buffer;
+    private final List<EnrollmentListener> listeners = new CopyOnWriteArrayList<>();
+    private final LongAdder dropped = new LongAdder();
+    private final Thread dispatcher;
+    private volatile boolean running = true;
+    private volatile long delivered; // Events taken from the buffer and handed to every listener
+
+    public EnrollmentEventBus() {
+        this(DEFAULT_CAPACITY);
+    }
+
+    public EnrollmentEventBus(int capacity) {
+        buffer = new RingBuffer<>(capacity);
+        dispatcher = new Thread(this::dispatchLoop, "enrollment-events");
+        dispatcher.setDaemon(true);
+        dispatcher.start();
+    }
+
+    public void subscribe(EnrollmentListener listener) {
+        listeners.add(listener);
+    }
+
+    public void unsubscribe(EnrollmentListener listener) {
+        listeners.remove(listener);
+    }
+
+    @Override
+    public void publish(EnrollmentEvent event) {
+        if (!running || !buffer.offer(event)) {
+            dropped.increment();
+        }
+    }
+
+    /**
+     * @return Events dropped because the buffer was full or the bus was closed.
+     */
+    public long getDroppedCount() {
+        return dropped.sum();
+    }
+
+    /**
+     * Waits until every event published before this call has been delivered, e.g. so the CLI's
+     * messages appear before its next prompt.
+     * @return false if the timeout passed first.
+     */
+    public boolean flush(long timeout, TimeUnit unit) {
+        long target = buffer.producedCount();
+        long deadline = System.nanoTime() + unit.toNanos(timeout);
+        while (delivered < target) {
+            if (System.nanoTime() - deadline > 0 || !dispatcher.isAlive()) {
+                return false;
+            }
+            LockSupport.unpark(dispatcher);
+            Thread.onSpinWait();
+        }
+        return true;
+    }
+
+    /**
+     * Delivers the events still buffered, then stops the dispatcher.
+     */
+    @Override
+    public void close() {
+        running = false;
+        LockSupport.unpark(dispatcher);
+        try {
+            dispatcher.join(TimeUnit.SECONDS.toMillis(5));
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private void dispatchLoop() {
+        EnrollmentEvent[] batch = new EnrollmentEvent[MAX_BATCH];
+        while (true) {
+            int size = 0;
+            EnrollmentEvent event;
+            while (size < MAX_BATCH && (event = buffer.poll()) != null) {
+                batch[size++] = event;
+            }
+            if (size == 0) {
+                if (!running && buffer.consumedCount() == buffer.producedCount()) {
+                    return;
+                }
+                LockSupport.parkNanos(IDLE_PARK_NANOS);
+                continue;
+            }
+            for (EnrollmentListener listener : listeners) {
+                deliver(listener, batch, size);
+            }
+            Arrays.fill(batch, 0, size, null);
+            delivered += size; // Only this thread writes it
+        }
+    }
+
+    // One failing listener must not stop the others or kill the dispatcher
+    private static void deliver(EnrollmentListener listener, EnrollmentEvent[] batch, int size) {
+        try {
+            for (int i = 0; i < size; i++) {
+                listener.onEvent(batch[i]);
+            }
+            listener.onBatchEnd();
+        } catch (RuntimeException e) {
+            System.err.println("Enrollment listener failed: " + e);
+        }
+    }
+}
@@ -0,0 +1,12 @@
+// File: src/edu/ccrm/service/EnrollmentEventPublisher.java
+package edu.ccrm.service;
+
+/**
+ * Where the enrollment service sends its events. Implementations must not block the caller.
+ */
+public interface EnrollmentEventPublisher {
+
+    EnrollmentEventPublisher NONE = event -> { };
+
+    void publish(EnrollmentEvent event);
+}
@@ -0,0 +1,16 @@
+// File: src/edu/ccrm/service/EnrollmentListener.java
+package edu.ccrm.service;
+
+/**
+ * Subscribes to enrollment events. Listeners are called on the event bus's dispatcher thread,
+ * one at a time and in publication order, so they need no locking of their own.
+ */
+public interface EnrollmentListener {
+
+    void onEvent(EnrollmentEvent event);
+
+    /**
+     * Called after each batch of events has been delivered, e.g. to flush buffered output once per batch.
+     */
+    default void onBatchEnd() { }
+}
@@ -0,0 +1,25 @@
+// File: src/edu/ccrm/service/EnrollmentRequest.java
+package edu.ccrm.service;
+
+/**
+ * One (student, course) pair in a bulk enrollment batch.
+ * Identifies both sides by key so a batch can be built straight from raw input rows.
+ */
+public class EnrollmentRequest {
+
+    private final String regNo;
+    private final String courseCode;
+
+    public EnrollmentRequest(String regNo, String courseCode) {
+        this.regNo = regNo;
+        this.courseCode = courseCode;
+    }
+
+    public String getRegNo() { return regNo; }
+    public String getCourseCode() { return courseCode; }
+
+    @Override
+    public String toString() {
+        return "EnrollmentRequest [RegNo=" + regNo + ", Course=" + courseCode + "]";
+    }
+}
@@ -0,0 +1,44 @@
+// File: src/edu/ccrm/service/EnrollmentResult.java
+package edu.ccrm.service;
+
+/**
+ * The outcome of one request in a bulk enrollment batch.
+ * Rule failures are reported as a status instead of an exception, so one bad row
+ * does not abort the rest of the batch.
+ */
+public class EnrollmentResult {
+
+    public enum Status {
+        SUCCESS,
+        DUPLICATE,
+        OVER_LIMIT,
+        MISSING_REQUISITE, // The message lists the missing courses
+        SCHEDULE_CONFLICT, // The message names the clashing course
+        WAITLISTED, // The course was full; the message gives the waitlist position
+        NOT_FOUND
+    }
+
+    private final EnrollmentRequest request;
+    private final Status status;
+    private final String message;
+
+    public EnrollmentResult(EnrollmentRequest request, Status status, String message) {
+        this.request = request;
+        this.status = status;
+        this.message = message;
+    }
+
+    public EnrollmentRequest getRequest() { return request; }
+    public Status getStatus() { return status; }
+    public String getMessage() { return message; }
+
+    public boolean isSuccess() {
+        return status == Status.SUCCESS;
+    }
+
+    @Override
+    public String toString() {
+        return "EnrollmentResult [" + request.getRegNo() + " -> " + request.getCourseCode() + ": " + status
+                + (message == null ? "" : " (" + message + ")") + "]";
+    }
+}
@@ -3,10 +3,14 @@ package edu.ccrm.service;
 
 import edu.ccrm.domain.Course;
 import edu.ccrm.domain.Student;
+import edu.ccrm.exception.CourseFullException;
 import edu.ccrm.exception.DuplicateEnrollmentException;
 import edu.ccrm.exception.MaxCreditLimitExceededException;
+import edu.ccrm.exception.PrerequisiteNotMetException;
+import edu.ccrm.exception.ScheduleConflictException;
 
 import java.util.List;
+import java.util.Optional;
 
 /**
  * An interface defining the contract for enrollment operations.
@@ -14,11 +18,40 @@ import java.util.List;
  */
 public interface EnrollmentService{
 
-    void enrollStudent(Student student, Course course) throws MaxCreditLimitExceededException, DuplicateEnrollmentException;
+    /**
+     * Enrolls a student if the rules pass and the course has a free seat.
+     * @throws PrerequisiteNotMetException if the student is missing a prerequisite or co-requisite.
+     * @throws ScheduleConflictException if the course meets when the student already has a class.
+     * @throws CourseFullException if the course is full; the student is then on its waitlist.
+     */
+    void enrollStudent(Student student, Course course) throws MaxCreditLimitExceededException,
+            DuplicateEnrollmentException, PrerequisiteNotMetException, ScheduleConflictException, CourseFullException;
 
-    void unenrollStudent(Student student, Course course);
+    /**
+     * Enrolls many (student, course) pairs in one call.
+     * Rule failures are reported per request rather than thrown. Requests for capacity-limited courses
+     * claim seats and waitlist places in input order, as if they had been made one at a time.
+     * @return One result per request, in the same order as the input.
+     */
+    List<EnrollmentResult> enrollAll(List<EnrollmentRequest> requests);
+
+    /**
+     * Unenrolls a student, promoting the head of the course's waitlist into the freed seat.
+     * A student who is only waitlisted is taken off the waitlist.
+     * @return false if the student was neither enrolled nor waitlisted, so nothing changed.
+     */
+    boolean unenrollStudent(Student student, Course course);
+
+    /**
+     * Removes a student from the store, with their enrollments and waitlist places, and promotes
+     * waitlisted students into the seats they held.
+     * @return The removed student, or empty if no student has the regNo.
+     */
+    Optional<Student> removeStudent(String regNo);
 
     List<Student> findStudentsByCourse(String courseCode);
 
+    int countStudentsByCourse(String courseCode);
+
     List<Course> findCoursesByStudent(String studentRegNo);
 }
\ No newline at end of file
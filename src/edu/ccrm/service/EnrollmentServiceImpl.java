@@ -1,77 +1,356 @@
 // File: src/edu/ccrm/service/EnrollmentServiceImpl.java
 package edu.ccrm.service;
 
+import edu.ccrm.config.DataStore;
 import edu.ccrm.domain.Course;
 import edu.ccrm.domain.Student;
+import edu.ccrm.exception.CourseFullException;
 import edu.ccrm.exception.DuplicateEnrollmentException;
 import edu.ccrm.exception.MaxCreditLimitExceededException;
+import edu.ccrm.exception.PrerequisiteNotMetException;
+import edu.ccrm.exception.ScheduleConflictException;
 
 import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
 import java.util.List;
-import java.util.stream.Collectors;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.atomic.LongAccumulator;
 
 /**
  * Concrete implementation of the EnrollmentService.
  * This class handles the business logic for enrollments.
+ * It is safe for concurrent callers: each enrollment change locks only the student involved,
+ * so requests for different students run in parallel.
+ * <p>
+ * Seats in a course with a capacity are claimed with a compare-and-set on the course's counter,
+ * inside the student's lock but without any course-wide lock, so a rush on one course neither
+ * oversells it nor slows enrollments elsewhere. Students who find it full join its waitlist.
+ * A freed seat goes to the head of the waitlist; the promotion runs after the unenrolling
+ * student's lock is released, so two students' locks are never held at once.
+ * Prerequisites and co-requisites are checked against the DataStore's cached transitive closures,
+ * so a deep chain of requirements costs no more to check than a direct one, and time clashes
+ * against the student's timetable, in O(log n) of their bookings.
+ * Enrollments are journaled under the student's lock but waited for after it is released, so the
+ * journal's group commit can cover other students' changes in the same fsync.
+ * It does no console I/O: every outcome is published as an EnrollmentEvent for listeners to report.
  */
 public class EnrollmentServiceImpl implements EnrollmentService {
 
     // For now, we manage data in memory. Later, this could be a database.
-    private final List<Student> allStudents;
-    private final List<Course> allCourses;
+    private final DataStore dataStore;
+    private final EnrollmentEventPublisher events;
 
     // A constant for a business rule
-    private static final int MAX_CREDITS_PER_SEMESTER = 18;
+    public static final int MAX_CREDITS_PER_SEMESTER = 18;
 
-    public EnrollmentServiceImpl(List<Student> students, List<Course> courses) {
-        this.allStudents = students;
-        this.allCourses = courses;
+    private static final CompletableFuture<Void> DONE = CompletableFuture.completedFuture(null);
+    // The common pool, as parallel streams use. With a single worker every hand-off costs a context
+    // switch, so batch requests then run inline; their predecessors always come first, so in input order.
+    private static final Executor BATCH_EXECUTOR = ForkJoinPool.getCommonPoolParallelism() > 1
+            ? ForkJoinPool.commonPool() : Runnable::run;
+
+    public EnrollmentServiceImpl(DataStore dataStore) {
+        this(dataStore, EnrollmentEventPublisher.NONE);
+    }
+
+    public EnrollmentServiceImpl(DataStore dataStore, EnrollmentEventPublisher events) {
+        this.dataStore = dataStore;
+        this.events = events;
     }
 
     @Override
-    public void enrollStudent(Student student, Course course) throws MaxCreditLimitExceededException, DuplicateEnrollmentException {
+    public void enrollStudent(Student student, Course course) throws MaxCreditLimitExceededException,
+            DuplicateEnrollmentException, PrerequisiteNotMetException, ScheduleConflictException, CourseFullException {
+        EnrollmentResult.Status status;
+        LongAccumulator tickets = newTickets();
+        // Hold the student's lock so the checks and the enrollment happen as one step.
+        synchronized (student) {
+            status = checkAndEnroll(student, course, tickets);
+        }
+        dataStore.awaitDurable(tickets.get());
+
+        switch (status) {
+            case DUPLICATE:
+                events.publish(new EnrollmentEvent(EnrollmentEvent.Type.REJECTED_DUPLICATE, student, course));
+                throw new DuplicateEnrollmentException("Student " + student.getRegNo() + " is already enrolled in course " + course.getCode());
+            case OVER_LIMIT:
+                events.publish(new EnrollmentEvent(EnrollmentEvent.Type.REJECTED_OVER_LIMIT, student, course));
+                throw new MaxCreditLimitExceededException("Cannot enroll. Exceeds max credit limit of " + MAX_CREDITS_PER_SEMESTER + " for the semester.");
+            case MISSING_REQUISITE: {
+                events.publish(new EnrollmentEvent(EnrollmentEvent.Type.REJECTED_REQUISITE, student, course));
+                List<String> missing = dataStore.findUnmetRequisites(student, course);
+                throw new PrerequisiteNotMetException("Cannot enroll in " + course.getCode() + ". Missing requisites: "
+                        + String.join(", ", missing), missing);
+            }
+            case SCHEDULE_CONFLICT: {
+                events.publish(new EnrollmentEvent(EnrollmentEvent.Type.REJECTED_SCHEDULE_CONFLICT, student, course));
+                String clash = student.findScheduleConflict(course).map(Course::getCode).orElse(null);
+                throw new ScheduleConflictException("Cannot enroll in " + course.getCode() + ". It clashes with "
+                        + clash + " in the student's timetable.", clash);
+            }
+            case WAITLISTED: {
+                // A seat may have been freed while this student was joining; the drain hands it over
+                promoteWaitlisted(course);
+                int position = waitlistPosition(course, student);
+                if (position == 0) {
+                    return; // Promoted straight away
+                }
+                throw new CourseFullException("Course " + course.getCode() + " is full. Student " + student.getRegNo()
+                        + " is number " + position + " on the waitlist.", position);
+            }
+            case NOT_FOUND:
+                throw new IllegalArgumentException("Student " + student.getRegNo() + " or course " + course.getCode()
+                        + " is no longer stored");
+            default:
+                break; // The ENROLLED event was published with the change
+        }
+    }
+
+    @Override
+    public List<EnrollmentResult> enrollAll(List<EnrollmentRequest> requests) {
+        // A request can only see the effects of the student's earlier requests and, for a course with a
+        // capacity, of earlier requests for its seats and waitlist. So each request runs after just
+        // those two predecessors; everything else runs in parallel, and no thread blocks while waiting.
+        EnrollmentResult[] results = new EnrollmentResult[requests.size()];
+        LongAccumulator tickets = newTickets();
+        Map<String, CompletableFuture<Void>> lastByStudent = new HashMap<>();
+        Map<String, CompletableFuture<Void>> lastByLimitedCourse = new HashMap<>();
+        CompletableFuture<?>[] done = new CompletableFuture<?>[requests.size()];
+        for (int i = 0; i < requests.size(); i++) {
+            EnrollmentRequest request = requests.get(i);
+            String studentKey = DataStore.key(request.getRegNo());
+            String courseKey = isCapacityLimited(request.getCourseCode()) ? DataStore.key(request.getCourseCode()) : null;
+            CompletableFuture<Void> after = lastByStudent.getOrDefault(studentKey, DONE);
+            if (courseKey != null) {
+                after = CompletableFuture.allOf(after, lastByLimitedCourse.getOrDefault(courseKey, DONE));
+            }
+            int position = i;
+            CompletableFuture<Void> task = after.thenRunAsync(() -> enrollOne(requests.get(position), position, results, tickets),
+                    BATCH_EXECUTOR);
+            lastByStudent.put(studentKey, task);
+            if (courseKey != null) {
+                lastByLimitedCourse.put(courseKey, task);
+            }
+            done[i] = task;
+        }
+        try {
+            CompletableFuture.allOf(done).join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof RuntimeException) throw (RuntimeException) e.getCause();
+            throw e;
+        }
+        dataStore.awaitDurable(tickets.get()); // Once for the whole batch
+
+        // Hand any seats freed meanwhile to the waitlists the batch joined, now no student lock is held
+        Set<Course> waitlisted = new LinkedHashSet<>();
+        for (int i = 0; i < results.length; i++) {
+            if (results[i].getStatus() == EnrollmentResult.Status.WAITLISTED) {
+                dataStore.findCourseByCode(requests.get(i).getCourseCode()).ifPresent(waitlisted::add);
+            }
+        }
+        for (Course course : waitlisted) {
+            promoteWaitlisted(course);
+        }
+        return Arrays.asList(results);
+    }
+
+    private boolean isCapacityLimited(String courseCode) {
+        return dataStore.findCourseByCode(courseCode).map(Course::hasCapacityLimit).orElse(false);
+    }
+
+    // Journal tickets only grow, so waiting for the highest covers every change it was given
+    private static LongAccumulator newTickets() {
+        return new LongAccumulator(Long::max, 0);
+    }
+
+    private void enrollOne(EnrollmentRequest request, int position, EnrollmentResult[] results, LongAccumulator tickets) {
+        Optional<Student> studentOpt = dataStore.findStudentByRegNo(request.getRegNo());
+        Optional<Course> courseOpt = dataStore.findCourseByCode(request.getCourseCode());
+        if (studentOpt.isEmpty() || courseOpt.isEmpty()) {
+            results[position] = new EnrollmentResult(request, EnrollmentResult.Status.NOT_FOUND,
+                    studentOpt.isEmpty() ? "Student not found" : "Course not found");
+            return;
+        }
+
+        Student student = studentOpt.get();
+        Course course = courseOpt.get();
+        synchronized (student) {
+            EnrollmentResult.Status status = checkAndEnroll(student, course, tickets);
+            String message = null;
+            if (status == EnrollmentResult.Status.WAITLISTED) {
+                message = "Waitlisted at position " + waitlistPosition(course, student);
+            } else if (status == EnrollmentResult.Status.MISSING_REQUISITE) {
+                message = "Missing " + String.join(", ", dataStore.findUnmetRequisites(student, course));
+            } else if (status == EnrollmentResult.Status.SCHEDULE_CONFLICT) {
+                message = "Clashes with " + student.findScheduleConflict(course).map(Course::getCode).orElse(null);
+            }
+            results[position] = new EnrollmentResult(request, status, message);
+        }
+    }
+
+    /**
+     * Applies the enrollment rules and enrolls the student if they pass, adding the journal ticket to
+     * the given ones for the caller to wait on. Callers must hold the student's lock.
+     */
+    private EnrollmentResult.Status checkAndEnroll(Student student, Course course, LongAccumulator tickets) {
+        // A student removed while this request waited for their lock must not take a seat or a waitlist place
+        if (!isStored(student, course)) {
+            return EnrollmentResult.Status.NOT_FOUND;
+        }
+
         // Rule 1: Check if the student is already enrolled in this course.
-        if (student.getEnrolledCourses().contains(course)){
-            throw new DuplicateEnrollmentException("Student " + student.getRegNo() + " is already enrolled in course " + course.getCode());
+        if (student.isEnrolledIn(course)){
+            return EnrollmentResult.Status.DUPLICATE;
         }
 
-        // Rule 2: Check the credit limit.
-        // This demonstrates the Stream API for a calculation.
-        int currentCredits = student.getEnrolledCourses().stream()
-                .filter(c -> c.getSemester() == course.getSemester()) // Only count credits for the same semester
-                .mapToInt(Course::getCredits) // Map each course to its credit value
-                .sum(); // Sum them up
+        // Rule 2: Check prerequisites and co-requisites, including the ones they require in turn.
+        if (!dataStore.findUnmetRequisites(student, course).isEmpty()) {
+            return EnrollmentResult.Status.MISSING_REQUISITE;
+        }
+
+        // Rule 3: Check the course's time slots against the student's timetable.
+        if (student.findScheduleConflict(course).isPresent()) {
+            return EnrollmentResult.Status.SCHEDULE_CONFLICT;
+        }
+
+        // Rule 4: Check the credit limit against the student's running total for the semester.
+        int currentCredits = student.getSemesterCredits(course.getSemester());
 
         if (currentCredits + course.getCredits() > MAX_CREDITS_PER_SEMESTER) {
-            throw new MaxCreditLimitExceededException("Cannot enroll. Exceeds max credit limit of " + MAX_CREDITS_PER_SEMESTER + " for the semester.");
+            return EnrollmentResult.Status.OVER_LIMIT;
+        }
+
+        // Rule 5: Claim a seat. Students already waiting go first, so a newcomer never jumps the queue.
+        if (course.hasCapacityLimit() && (course.getWaitlistSize() > 0 || !course.tryClaimSeat())) {
+            course.joinWaitlist(student);
+            events.publish(new EnrollmentEvent(EnrollmentEvent.Type.WAITLISTED, student, course));
+            return EnrollmentResult.Status.WAITLISTED;
+        }
+
+        // If all rules pass, enroll the student, unless the course was removed since the check above.
+        long ticket = dataStore.logEnrollment(student, course, course.hasCapacityLimit());
+        if (ticket == DataStore.NOT_RECORDED) {
+            if (course.hasCapacityLimit()) course.releaseSeat();
+            return EnrollmentResult.Status.NOT_FOUND;
+        }
+        tickets.accumulate(ticket);
+        student.enrollInCourse(course);
+        events.publish(new EnrollmentEvent(EnrollmentEvent.Type.ENROLLED, student, course));
+        return EnrollmentResult.Status.SUCCESS;
+    }
+
+    // --- Waitlist ---
+
+    /**
+     * Moves waitlisted students into free seats, head first, until the course is full or nobody
+     * is waiting. Each promotion claims the seat before taking the student off the waitlist, so
+     * concurrent drains never hand out more seats than exist. Callers must not hold a student's lock.
+     */
+    private void promoteWaitlisted(Course course) {
+        while (course.getWaitlistSize() > 0 && course.tryClaimSeat()) {
+            Student next = course.pollWaitlist();
+            if (next == null) {
+                course.releaseSeat(); // Another drain took the last waiting student
+                continue;
+            }
+            long ticket;
+            synchronized (next) {
+                ticket = promote(next, course);
+            }
+            if (ticket == DataStore.NOT_RECORDED) {
+                course.releaseSeat();
+            } else {
+                dataStore.awaitDurable(ticket);
+            }
         }
+    }
 
-        // If all rules pass, enroll the student.
+    // Re-checks the rules, since the student may have changed courses while waiting. Callers hold the student's lock.
+    // Returns the journal ticket, or NOT_RECORDED if the student was not promoted and the caller keeps the seat.
+    private long promote(Student student, Course course) {
+        if (!isStored(student, course) || student.isEnrolledIn(course)) {
+            return DataStore.NOT_RECORDED;
+        }
+        if (student.getSemesterCredits(course.getSemester()) + course.getCredits() > MAX_CREDITS_PER_SEMESTER
+                || !dataStore.findUnmetRequisites(student, course).isEmpty()
+                || student.findScheduleConflict(course).isPresent()) {
+            events.publish(new EnrollmentEvent(EnrollmentEvent.Type.WAITLIST_DROPPED, student, course));
+            return DataStore.NOT_RECORDED;
+        }
+        long ticket = dataStore.logEnrollment(student, course, true);
+        if (ticket == DataStore.NOT_RECORDED) {
+            return ticket; // Removed meanwhile; the caller releases the seat
+        }
         student.enrollInCourse(course);
-        System.out.println("Enrollment successful for " + student.getFullName() + " in " + course.getTitle());
+        events.publish(new EnrollmentEvent(EnrollmentEvent.Type.ENROLLED, student, course));
+        return ticket;
+    }
+
+    private boolean isStored(Student student, Course course) {
+        return dataStore.findStudentByRegNo(student.getRegNo()).orElse(null) == student
+                && dataStore.findCourseByCode(course.getCode()).orElse(null) == course;
+    }
+
+    // 1-based, or 0 if the student is not on the waitlist
+    private static int waitlistPosition(Course course, Student student) {
+        List<Student> waitlist = course.getWaitlist();
+        for (int i = 0; i < waitlist.size(); i++) {
+            if (waitlist.get(i) == student) return i + 1;
+        }
+        return 0;
+    }
+
+    @Override
+    public boolean unenrollStudent(Student student, Course course) {
+        boolean wasEnrolled;
+        long ticket = DataStore.NOT_RECORDED;
+        synchronized (student) {
+            wasEnrolled = student.isEnrolledIn(course);
+            if (wasEnrolled) {
+                student.unenrollFromCourse(course);
+                ticket = dataStore.removeEnrollment(student, course); // Frees the seat
+                events.publish(new EnrollmentEvent(EnrollmentEvent.Type.UNENROLLED, student, course));
+            }
+        }
+        dataStore.awaitDurable(ticket);
+        if (wasEnrolled) {
+            promoteWaitlisted(course);
+            return true;
+        }
+        return course.leaveWaitlist(student);
     }
 
     @Override
-    public void unenrollStudent(Student student, Course course) {
-        student.unenrollFromCourse(course);
-        System.out.println("Unenrolled " + student.getFullName() + " from " + course.getTitle());
+    public Optional<Student> removeStudent(String regNo) {
+        Optional<Student> removed = dataStore.removeStudent(regNo);
+        // The store freed the seats under the student's lock; hand them on now it is released
+        removed.ifPresent(student -> student.getEnrolledCourses().forEach(this::promoteWaitlisted));
+        return removed;
     }
 
     @Override
     public List<Student> findStudentsByCourse(String courseCode) {
-        // This demonstrates filtering with a Lambda expression.
-        return allStudents.stream()
-                .filter(student -> student.getEnrolledCourses().stream()
-                        .anyMatch(course -> course.getCode().equalsIgnoreCase(courseCode)))
-                .collect(Collectors.toList());
+        // The roster index already holds exactly the enrolled students.
+        return new ArrayList<>(dataStore.getRoster(courseCode));
+    }
+
+    @Override
+    public int countStudentsByCourse(String courseCode) {
+        return dataStore.getEnrollmentCount(courseCode);
     }
 
     @Override
     public List<Course> findCoursesByStudent(String studentRegNo) {
-        // Find the student first, then return their  courses.
-        return allStudents.stream()
-                .filter(student -> student.getRegNo().equalsIgnoreCase(studentRegNo))
-                .findFirst() //Find the first match
+        // Find the student through the regNo index, then return their courses.
+        return dataStore.findStudentByRegNo(studentRegNo)
                 .map(Student::getEnrolledCourses) // If found, get their list of courses
                 .orElse(new ArrayList<>()); // If not found, return an empty list
     }
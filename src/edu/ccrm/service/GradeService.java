@@ -0,0 +1,29 @@
+// File: src/edu/ccrm/service/GradeService.java
+package edu.ccrm.service;
+
+import edu.ccrm.domain.Course;
+import edu.ccrm.domain.Grade;
+import edu.ccrm.domain.Student;
+import edu.ccrm.domain.Transcript;
+import edu.ccrm.exception.NotEnrolledException;
+
+import java.util.Optional;
+
+/**
+ * The contract for recording grades and reading GPAs and transcripts.
+ */
+public interface GradeService {
+
+    /**
+     * Records the grade for a course the student is enrolled in, replacing any earlier grade.
+     */
+    void recordGrade(Student student, Course course, Grade grade) throws NotEnrolledException;
+
+    Optional<Transcript> getTranscript(String studentRegNo);
+
+    /**
+     * Rebuilds every student's GPA sums from their recorded grades, in parallel.
+     * @return The number of students processed.
+     */
+    int recomputeAllGpas();
+}
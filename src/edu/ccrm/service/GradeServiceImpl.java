@@ -0,0 +1,51 @@
+// File: src/edu/ccrm/service/GradeServiceImpl.java
+package edu.ccrm.service;
+
+import edu.ccrm.config.DataStore;
+import edu.ccrm.domain.Course;
+import edu.ccrm.domain.Grade;
+import edu.ccrm.domain.Student;
+import edu.ccrm.domain.Transcript;
+import edu.ccrm.exception.NotEnrolledException;
+
+import java.util.Optional;
+
+/**
+ * Concrete implementation of the GradeService.
+ * Like enrollment, a grade change locks only the student involved, so grading different students
+ * runs in parallel, and the check and the change happen as one step.
+ */
+public class GradeServiceImpl implements GradeService {
+
+    private final DataStore dataStore;
+
+    public GradeServiceImpl(DataStore dataStore) {
+        this.dataStore = dataStore;
+    }
+
+    @Override
+    public void recordGrade(Student student, Course course, Grade grade) throws NotEnrolledException {
+        synchronized (student) {
+            if (!student.isEnrolledIn(course)) {
+                throw new NotEnrolledException("Student " + student.getRegNo() + " is not enrolled in course " + course.getCode());
+            }
+            dataStore.recordGrade(student, course, grade);
+        }
+    }
+
+    @Override
+    public Optional<Transcript> getTranscript(String studentRegNo) {
+        return dataStore.findStudentByRegNo(studentRegNo).map(Student::getTranscript);
+    }
+
+    @Override
+    public int recomputeAllGpas() {
+        // Each student's sums are independent and guarded by its own lock, so the work splits cleanly across cores
+        return dataStore.getStudents().parallelStream()
+                .mapToInt(s -> {
+                    s.recomputeGpa();
+                    return 1;
+                })
+                .sum();
+    }
+}
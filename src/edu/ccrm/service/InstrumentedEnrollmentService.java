@@ -0,0 +1,187 @@
+// File: src/edu/ccrm/service/InstrumentedEnrollmentService.java
+package edu.ccrm.service;
+
+import edu.ccrm.domain.Course;
+import edu.ccrm.domain.Student;
+import edu.ccrm.exception.CourseFullException;
+import edu.ccrm.exception.DuplicateEnrollmentException;
+import edu.ccrm.exception.MaxCreditLimitExceededException;
+import edu.ccrm.exception.PrerequisiteNotMetException;
+import edu.ccrm.exception.ScheduleConflictException;
+
+import javax.management.JMException;
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+import java.lang.management.ManagementFactory;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+/**
+ * Decorates an EnrollmentService with per-operation call counts, error counts by exception type and
+ * latency histograms (p50/p99/p99.9). Recording is lock-free, so it adds no contention to the
+ * service it wraps. The metrics can be published as JMX MBeans.
+ */
+public class InstrumentedEnrollmentService implements EnrollmentService {
+
+    public static final String ENROLL = "enrollStudent";
+    public static final String ENROLL_ALL = "enrollAll";
+    public static final String UNENROLL = "unenrollStudent";
+    public static final String REMOVE_STUDENT = "removeStudent";
+    public static final String FIND_STUDENTS_BY_COURSE = "findStudentsByCourse";
+    public static final String COUNT_STUDENTS_BY_COURSE = "countStudentsByCourse";
+    public static final String FIND_COURSES_BY_STUDENT = "findCoursesByStudent";
+
+    private final EnrollmentService delegate;
+    private final OperationMetrics enroll = new OperationMetrics(ENROLL);
+    private final OperationMetrics enrollAll = new OperationMetrics(ENROLL_ALL);
+    private final OperationMetrics unenroll = new OperationMetrics(UNENROLL);
+    private final OperationMetrics removeStudent = new OperationMetrics(REMOVE_STUDENT);
+    private final OperationMetrics findStudentsByCourse = new OperationMetrics(FIND_STUDENTS_BY_COURSE);
+    private final OperationMetrics countStudentsByCourse = new OperationMetrics(COUNT_STUDENTS_BY_COURSE);
+    private final OperationMetrics findCoursesByStudent = new OperationMetrics(FIND_COURSES_BY_STUDENT);
+    private final Map<String, OperationMetrics> metrics = new LinkedHashMap<>();
+
+    public InstrumentedEnrollmentService(EnrollmentService delegate) {
+        this.delegate = delegate;
+        for (OperationMetrics m : List.of(enroll, enrollAll, unenroll, removeStudent, findStudentsByCourse, countStudentsByCourse, findCoursesByStudent)) {
+            metrics.put(m.getOperation(), m);
+        }
+    }
+
+    /**
+     * @return The metrics of every operation, in a fixed order.
+     */
+    public Collection<OperationMetrics> getMetrics() {
+        return Collections.unmodifiableCollection(metrics.values());
+    }
+
+    /**
+     * Publishes each operation's metrics on the platform MBean server, e.g. for JConsole.
+     */
+    public void registerMBeans() {
+        MBeanServer server = ManagementFactory.getPlatformMBeanServer();
+        for (OperationMetrics m : metrics.values()) {
+            try {
+                ObjectName name = new ObjectName("edu.ccrm:type=EnrollmentService,operation=" + m.getOperation());
+                if (!server.isRegistered(name)) {
+                    server.registerMBean(m, name);
+                }
+            } catch (JMException e) {
+                System.err.println("Could not register metrics MBean for " + m.getOperation() + ": " + e.getMessage());
+            }
+        }
+    }
+
+    @Override
+    public void enrollStudent(Student student, Course course) throws MaxCreditLimitExceededException,
+            DuplicateEnrollmentException, PrerequisiteNotMetException, ScheduleConflictException, CourseFullException {
+        long start = System.nanoTime();
+        try {
+            delegate.enrollStudent(student, course);
+        } catch (MaxCreditLimitExceededException | DuplicateEnrollmentException | PrerequisiteNotMetException
+                | ScheduleConflictException | CourseFullException | RuntimeException e) {
+            enroll.recordError(e.getClass().getSimpleName());
+            throw e;
+        } finally {
+            enroll.recordLatency(System.nanoTime() - start);
+        }
+    }
+
+    /**
+     * Records one latency sample for the whole batch, and an error per rejected request under the
+     * exception the single-enrollment call would have thrown.
+     */
+    @Override
+    public List<EnrollmentResult> enrollAll(List<EnrollmentRequest> requests) {
+        long start = System.nanoTime();
+        try {
+            List<EnrollmentResult> results = delegate.enrollAll(requests);
+            for (EnrollmentResult result : results) {
+                switch (result.getStatus()) {
+                    case DUPLICATE: enrollAll.recordError(DuplicateEnrollmentException.class.getSimpleName()); break;
+                    case OVER_LIMIT: enrollAll.recordError(MaxCreditLimitExceededException.class.getSimpleName()); break;
+                    case MISSING_REQUISITE: enrollAll.recordError(PrerequisiteNotMetException.class.getSimpleName()); break;
+                    case SCHEDULE_CONFLICT: enrollAll.recordError(ScheduleConflictException.class.getSimpleName()); break;
+                    case WAITLISTED: enrollAll.recordError(CourseFullException.class.getSimpleName()); break;
+                    case NOT_FOUND: enrollAll.recordError("NotFound"); break;
+                    default: break;
+                }
+            }
+            return results;
+        } catch (RuntimeException e) {
+            enrollAll.recordError(e.getClass().getSimpleName());
+            throw e;
+        } finally {
+            enrollAll.recordLatency(System.nanoTime() - start);
+        }
+    }
+
+    @Override
+    public boolean unenrollStudent(Student student, Course course) {
+        long start = System.nanoTime();
+        try {
+            return delegate.unenrollStudent(student, course);
+        } catch (RuntimeException e) {
+            unenroll.recordError(e.getClass().getSimpleName());
+            throw e;
+        } finally {
+            unenroll.recordLatency(System.nanoTime() - start);
+        }
+    }
+
+    @Override
+    public Optional<Student> removeStudent(String regNo) {
+        long start = System.nanoTime();
+        try {
+            return delegate.removeStudent(regNo);
+        } catch (RuntimeException e) {
+            removeStudent.recordError(e.getClass().getSimpleName());
+            throw e;
+        } finally {
+            removeStudent.recordLatency(System.nanoTime() - start);
+        }
+    }
+
+    @Override
+    public List<Student> findStudentsByCourse(String courseCode) {
+        long start = System.nanoTime();
+        try {
+            return delegate.findStudentsByCourse(courseCode);
+        } catch (RuntimeException e) {
+            findStudentsByCourse.recordError(e.getClass().getSimpleName());
+            throw e;
+        } finally {
+            findStudentsByCourse.recordLatency(System.nanoTime() - start);
+        }
+    }
+
+    @Override
+    public int countStudentsByCourse(String courseCode) {
+        long start = System.nanoTime();
+        try {
+            return delegate.countStudentsByCourse(courseCode);
+        } catch (RuntimeException e) {
+            countStudentsByCourse.recordError(e.getClass().getSimpleName());
+            throw e;
+        } finally {
+            countStudentsByCourse.recordLatency(System.nanoTime() - start);
+        }
+    }
+
+    @Override
+    public List<Course> findCoursesByStudent(String studentRegNo) {
+        long start = System.nanoTime();
+        try {
+            return delegate.findCoursesByStudent(studentRegNo);
+        } catch (RuntimeException e) {
+            findCoursesByStudent.recordError(e.getClass().getSimpleName());
+            throw e;
+        } finally {
+            findCoursesByStudent.recordLatency(System.nanoTime() - start);
+        }
+    }
+}
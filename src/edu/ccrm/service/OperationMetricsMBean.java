@@ -0,0 +1,34 @@
+// File: src/edu/ccrm/service/OperationMetricsMBean.java
+package edu.ccrm.service;
+
+import java.util.Map;
+
+/**
+ * JMX view of one enrollment service operation (registered as edu.ccrm:type=EnrollmentService,operation=...).
+ * Latencies are in microseconds.
+ */
+public interface OperationMetricsMBean {
+
+    String getOperation();
+
+    long getCount();
+
+    long getErrorCount();
+
+    /**
+     * @return Error counts keyed by exception type, e.g. DuplicateEnrollmentException.
+     */
+    Map<String, Long> getErrorsByType();
+
+    double getMeanMicros();
+
+    double getP50Micros();
+
+    double getP99Micros();
+
+    double getP999Micros();
+
+    double getMaxMicros();
+
+    void reset();
+}
@@ -0,0 +1,35 @@
+// File: src/edu/ccrm/service/Page.java
+package edu.ccrm.service;
+
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * One page of query results, plus the cursor to pass as {@code after} to fetch the next page.
+ */
+public final class Page<T> {
+
+    private final List<T> items;
+    private final String nextCursor;
+
+    Page(List<T> items, String nextCursor) {
+        this.items = Collections.unmodifiableList(items);
+        this.nextCursor = nextCursor;
+    }
+
+    public List<T> getItems() {
+        return items;
+    }
+
+    /**
+     * @return The cursor for the next page, or null if this is the last one. The next page may
+     *         still turn out empty if nothing after this one matches.
+     */
+    public String getNextCursor() {
+        return nextCursor;
+    }
+
+    public boolean hasMore() {
+        return nextCursor != null;
+    }
+}
@@ -0,0 +1,235 @@
+// File: src/edu/ccrm/service/QueryService.java
+package edu.ccrm.service;
+
+import edu.ccrm.config.DataStore;
+import edu.ccrm.domain.Course;
+import edu.ccrm.domain.Semester;
+import edu.ccrm.domain.Student;
+import edu.ccrm.domain.StudentStatus;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.NoSuchElementException;
+import java.util.Optional;
+import java.util.PriorityQueue;
+import java.util.TreeMap;
+import java.util.function.Function;
+import java.util.function.Predicate;
+
+/**
+ * Filtered, paginated student and course searches over the DataStore's secondary indexes.
+ * <p>
+ * Each query is driven by its most selective index: the smallest matching group (status,
+ * department, semester or instructor) or, for enrollment predicates, the rosters of the matching
+ * courses when they hold fewer students. The remaining predicates are checked per candidate.
+ * Results come in primary-key order (regNo or course code), and the cursor is the last key
+ * returned, so each page starts with an O(log n) seek instead of skipping earlier pages.
+ */
+public class QueryService {
+
+    private final DataStore dataStore;
+
+    public QueryService(DataStore dataStore) {
+        this.dataStore = dataStore;
+    }
+
+    // --- Students ---
+
+    public Page<Student> findStudents(StudentQuery query) {
+        String after = DataStore.key(query.getAfter());
+        List<Course> courses = query.hasCoursePredicate()
+                ? matchingCourses(query.getDepartment(), query.getSemester(), query.getCourseCode())
+                : null;
+        if (courses != null && courses.isEmpty()) {
+            return new Page<>(Collections.emptyList(), null); // No course can satisfy the enrollment predicates
+        }
+
+        Iterator<Student> candidates;
+        long statusSize = query.getStatus() == null ? Long.MAX_VALUE : dataStore.countStudentsByStatus(query.getStatus());
+        long rosterSize = courses == null ? Long.MAX_VALUE : totalRosterSize(courses);
+        if (rosterSize < statusSize && rosterSize < dataStore.getStudents().size()) {
+            candidates = rosterUnion(courses, after);
+        } else if (query.getStatus() != null) {
+            candidates = tail(dataStore.getStudentsByStatus(query.getStatus()), after).values().iterator();
+        } else {
+            List<NavigableMap<String, Student>> groups = new ArrayList<>();
+            for (StudentStatus status : StudentStatus.values()) {
+                groups.add(dataStore.getStudentsByStatus(status)); // Together the groups hold every student
+            }
+            candidates = merge(groups, after);
+        }
+        return page(candidates, studentFilter(query, courses), query.getLimit(), s -> DataStore.key(s.getRegNo()));
+    }
+
+    private static Predicate<Student> studentFilter(StudentQuery query, List<Course> courses) {
+        return s -> (query.getStatus() == null || s.getStatus() == query.getStatus())
+                && (courses == null || isEnrolledInAny(s, courses))
+                && (query.getMinGpa() == null || s.getCumulativeGpa() >= query.getMinGpa());
+    }
+
+    // Probes the few matching courses directly, otherwise walks the student's own course list
+    private static boolean isEnrolledInAny(Student student, List<Course> courses) {
+        if (courses.size() <= 4) {
+            for (Course c : courses) {
+                if (student.isEnrolledIn(c)) return true;
+            }
+            return false;
+        }
+        List<Course> enrolled = student.getEnrolledCourses();
+        for (Course c : enrolled) {
+            if (courses.contains(c)) return true;
+        }
+        return false;
+    }
+
+    private long totalRosterSize(List<Course> courses) {
+        long total = 0;
+        for (Course c : courses) {
+            total += dataStore.getEnrollmentCount(c.getCode());
+        }
+        return total;
+    }
+
+    // Rosters are unordered, so the students after the cursor are sorted here; chosen only when they are few
+    private Iterator<Student> rosterUnion(List<Course> courses, String after) {
+        TreeMap<String, Student> union = new TreeMap<>();
+        for (Course c : courses) {
+            for (Student s : dataStore.getRoster(c.getCode())) {
+                String key = DataStore.key(s.getRegNo());
+                if (after == null || key.compareTo(after) > 0) {
+                    union.put(key, s);
+                }
+            }
+        }
+        return union.values().iterator();
+    }
+
+    private List<Course> matchingCourses(String department, Semester semester, String courseCode) {
+        List<Course> courses = new ArrayList<>();
+        if (courseCode != null) {
+            Optional<Course> course = dataStore.findCourseByCode(courseCode);
+            course.filter(courseFilter(department, semester, null, null, null)).ifPresent(courses::add);
+            return courses;
+        }
+        CourseQuery query = new CourseQuery.Builder().department(department).semester(semester).build();
+        courseCandidates(query, null).forEachRemaining(c -> {
+            if (courseFilter(department, semester, null, null, null).test(c)) courses.add(c);
+        });
+        return courses;
+    }
+
+    // --- Courses ---
+
+    public Page<Course> findCourses(CourseQuery query) {
+        String after = DataStore.key(query.getAfter());
+        Predicate<Course> filter = courseFilter(query.getDepartment(), query.getSemester(),
+                query.getInstructorId(), query.getMaxCredits(), query.getOpenTo());
+        return page(courseCandidates(query, after), filter, query.getLimit(), c -> DataStore.key(c.getCode()));
+    }
+
+    // The smallest index group among the given predicates, or every course in code order
+    private Iterator<Course> courseCandidates(CourseQuery query, String after) {
+        NavigableMap<String, Course> best = null;
+        int bestSize = Integer.MAX_VALUE;
+        if (query.getDepartment() != null && dataStore.countCoursesByDepartment(query.getDepartment()) < bestSize) {
+            best = dataStore.getCoursesByDepartment(query.getDepartment());
+            bestSize = dataStore.countCoursesByDepartment(query.getDepartment());
+        }
+        if (query.getSemester() != null && dataStore.countCoursesBySemester(query.getSemester()) < bestSize) {
+            best = dataStore.getCoursesBySemester(query.getSemester());
+            bestSize = dataStore.countCoursesBySemester(query.getSemester());
+        }
+        if (query.getInstructorId() != null && dataStore.countCoursesByInstructor(query.getInstructorId()) < bestSize) {
+            best = dataStore.getCoursesByInstructor(query.getInstructorId());
+        }
+        if (best != null) {
+            return tail(best, after).values().iterator();
+        }
+        List<NavigableMap<String, Course>> groups = new ArrayList<>();
+        for (Semester semester : Semester.values()) {
+            groups.add(dataStore.getCoursesBySemester(semester)); // Together the groups hold every course
+        }
+        return merge(groups, after);
+    }
+
+    private static Predicate<Course> courseFilter(String department, Semester semester, Integer instructorId,
+                                                  Integer maxCredits, Student openTo) {
+        return c -> (department == null || department.equalsIgnoreCase(c.getDepartment()))
+                && (semester == null || c.getSemester() == semester)
+                && (instructorId == null || (c.getInstructor() != null && c.getInstructor().getId() == instructorId))
+                && (maxCredits == null || c.getCredits() <= maxCredits)
+                && (openTo == null || isOpenTo(c, openTo));
+    }
+
+    // Has a free seat, is not already taken, and fits in the student's remaining credits for the course's semester
+    private static boolean isOpenTo(Course course, Student student) {
+        if (!course.hasOpenSeat()) return false;
+        synchronized (student) {
+            return !student.isEnrolledIn(course)
+                    && student.getSemesterCredits(course.getSemester()) + course.getCredits()
+                        <= EnrollmentServiceImpl.MAX_CREDITS_PER_SEMESTER;
+        }
+    }
+
+    // --- Paging ---
+
+    private static <T> Page<T> page(Iterator<T> candidates, Predicate<T> filter, int limit, Function<T, String> key) {
+        List<T> items = new ArrayList<>(limit);
+        while (items.size() < limit && candidates.hasNext()) {
+            T candidate = candidates.next();
+            if (filter.test(candidate)) {
+                items.add(candidate);
+            }
+        }
+        boolean more = items.size() == limit && candidates.hasNext();
+        return new Page<>(items, more ? key.apply(items.get(items.size() - 1)) : null);
+    }
+
+    private static <T> NavigableMap<String, T> tail(NavigableMap<String, T> map, String after) {
+        return after == null ? map : map.tailMap(after, false);
+    }
+
+    // Walks several key-ordered maps as one, in key order
+    private static <T> Iterator<T> merge(List<NavigableMap<String, T>> maps, String after) {
+        PriorityQueue<Head<T>> heads = new PriorityQueue<>(Comparator.comparing((Head<T> h) -> h.current.getKey()));
+        for (NavigableMap<String, T> map : maps) {
+            Head<T> head = new Head<>(tail(map, after).entrySet().iterator());
+            if (head.advance()) heads.add(head);
+        }
+        return new Iterator<T>() {
+            @Override
+            public boolean hasNext() {
+                return !heads.isEmpty();
+            }
+
+            @Override
+            public T next() {
+                Head<T> head = heads.poll();
+                if (head == null) throw new NoSuchElementException();
+                T value = head.current.getValue();
+                if (head.advance()) heads.add(head);
+                return value;
+            }
+        };
+    }
+
+    private static final class Head<T> {
+        final Iterator<Map.Entry<String, T>> entries;
+        Map.Entry<String, T> current;
+
+        Head(Iterator<Map.Entry<String, T>> entries) {
+            this.entries = entries;
+        }
+
+        boolean advance() {
+            if (!entries.hasNext()) return false;
+            current = entries.next();
+            return true;
+        }
+    }
+}
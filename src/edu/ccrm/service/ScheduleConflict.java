@@ -0,0 +1,34 @@
+// File: src/edu/ccrm/service/ScheduleConflict.java
+package edu.ccrm.service;
+
+import edu.ccrm.domain.Course;
+import edu.ccrm.domain.Student;
+import edu.ccrm.domain.TimeSlot;
+
+/**
+ * Two of a student's enrolled courses that meet at overlapping times in the same semester.
+ * The courses are ordered by code.
+ */
+public class ScheduleConflict {
+
+    private final Student student;
+    private final Course first;
+    private final Course second;
+
+    public ScheduleConflict(Student student, Course a, Course b) {
+        boolean ordered = a.getCode().compareTo(b.getCode()) <= 0;
+        this.student = student;
+        this.first = ordered ? a : b;
+        this.second = ordered ? b : a;
+    }
+
+    public Student getStudent() { return student; }
+    public Course getFirst() { return first; }
+    public Course getSecond() { return second; }
+
+    @Override
+    public String toString() {
+        return student.getRegNo() + ": " + first.getCode() + " (" + TimeSlot.formatSchedule(first.getTimeSlots()) + ") clashes with "
+                + second.getCode() + " (" + TimeSlot.formatSchedule(second.getTimeSlots()) + ")";
+    }
+}
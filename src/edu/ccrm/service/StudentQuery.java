@@ -0,0 +1,103 @@
+// File: src/edu/ccrm/service/StudentQuery.java
+package edu.ccrm.service;
+
+import edu.ccrm.domain.Semester;
+import edu.ccrm.domain.StudentStatus;
+
+/**
+ * Predicates for a student search; every predicate that is set must match.
+ * The department, semester and course predicates describe one enrolled course: a student matches
+ * if at least one course they are enrolled in satisfies all of them together. Build with the Builder.
+ */
+public final class StudentQuery {
+
+    public static final int DEFAULT_LIMIT = 20;
+    public static final int MAX_LIMIT = 1000;
+
+    private final StudentStatus status;
+    private final String department;
+    private final Semester semester;
+    private final String courseCode;
+    private final Double minGpa;
+    private final String after;
+    private final int limit;
+
+    private StudentQuery(Builder builder) {
+        this.status = builder.status;
+        this.department = builder.department;
+        this.semester = builder.semester;
+        this.courseCode = builder.courseCode;
+        this.minGpa = builder.minGpa;
+        this.after = builder.after;
+        this.limit = builder.limit;
+    }
+
+    public StudentStatus getStatus() { return status; }
+    public String getDepartment() { return department; }
+    public Semester getSemester() { return semester; }
+    public String getCourseCode() { return courseCode; }
+    public Double getMinGpa() { return minGpa; }
+    public String getAfter() { return after; }
+    public int getLimit() { return limit; }
+
+    boolean hasCoursePredicate() {
+        return department != null || semester != null || courseCode != null;
+    }
+
+    public static class Builder {
+        private StudentStatus status;
+        private String department;
+        private Semester semester;
+        private String courseCode;
+        private Double minGpa;
+        private String after;
+        private int limit = DEFAULT_LIMIT;
+
+        public Builder status(StudentStatus status) {
+            this.status = status;
+            return this;
+        }
+
+        // Enrolled in a course of this department
+        public Builder department(String department) {
+            this.department = department;
+            return this;
+        }
+
+        // Enrolled in a course in this semester
+        public Builder semester(Semester semester) {
+            this.semester = semester;
+            return this;
+        }
+
+        // Enrolled in this course
+        public Builder courseCode(String courseCode) {
+            this.courseCode = courseCode;
+            return this;
+        }
+
+        // Cumulative GPA of at least this value
+        public Builder minGpa(Double minGpa) {
+            this.minGpa = minGpa;
+            return this;
+        }
+
+        // The cursor from the previous page, or null for the first page
+        public Builder after(String after) {
+            this.after = after;
+            return this;
+        }
+
+        public Builder limit(int limit) {
+            if (limit < 1 || limit > MAX_LIMIT) {
+                throw new IllegalArgumentException("Page size must be between 1 and " + MAX_LIMIT);
+            }
+            this.limit = limit;
+            return this;
+        }
+
+        public StudentQuery build() {
+            return new StudentQuery(this);
+        }
+    }
+}
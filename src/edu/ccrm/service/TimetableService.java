@@ -0,0 +1,58 @@
+// File: src/edu/ccrm/service/TimetableService.java
+package edu.ccrm.service;
+
+import edu.ccrm.config.DataStore;
+import edu.ccrm.domain.Course;
+import edu.ccrm.domain.Student;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.stream.Collectors;
+
+/**
+ * Timetable reports over the whole student body.
+ * Enrollment already refuses clashing courses, so conflicts only appear in enrollments that were
+ * restored, imported or generated without the rules.
+ */
+public class TimetableService {
+
+    private final DataStore dataStore;
+
+    public TimetableService(DataStore dataStore) {
+        this.dataStore = dataStore;
+    }
+
+    /**
+     * Finds every pair of overlapping courses held by any student. Each student's timetable is
+     * independent and guarded by its own lock, so the students are checked in parallel across cores;
+     * a student without an overlap costs one pass over their timetable.
+     * @return The conflicts, ordered by regNo and then by course code.
+     */
+    public List<ScheduleConflict> findAllConflicts() {
+        List<ScheduleConflict> conflicts = dataStore.getStudents().parallelStream()
+                .filter(Student::hasScheduleOverlap)
+                .flatMap(s -> conflictsOf(s).stream())
+                .collect(Collectors.toList());
+        conflicts.sort(Comparator.comparing((ScheduleConflict c) -> c.getStudent().getRegNo())
+                .thenComparing(c -> c.getFirst().getCode())
+                .thenComparing(c -> c.getSecond().getCode()));
+        return conflicts;
+    }
+
+    /**
+     * @return Every pair of the student's enrolled courses that overlap.
+     */
+    public List<ScheduleConflict> conflictsOf(Student student) {
+        List<Course> courses = student.getEnrolledCourses();
+        List<ScheduleConflict> conflicts = new ArrayList<>();
+        for (int i = 0; i < courses.size(); i++) {
+            for (int j = i + 1; j < courses.size(); j++) {
+                if (courses.get(i).conflictsWith(courses.get(j))) {
+                    conflicts.add(new ScheduleConflict(student, courses.get(i), courses.get(j)));
+                }
+            }
+        }
+        return conflicts;
+    }
+}
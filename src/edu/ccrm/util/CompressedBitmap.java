@@ -0,0 +1,474 @@
+// File: src/edu/ccrm/util/CompressedBitmap.java
+package edu.ccrm.util;
+
+import java.util.Arrays;
+import java.util.NoSuchElementException;
+import java.util.PrimitiveIterator;
+import java.util.function.IntConsumer;
+
+/**
+ * A compressed set of non-negative ints, in the style of a Roaring bitmap.
+ * <p>
+ * Values are split by their high 16 bits into chunks. A chunk with few values stores them as a
+ * sorted char array (2 bytes each); once it passes 4096 values it switches to a 65536-bit bitset
+ * (8 KB), which is smaller from that point on. Intersections work chunk by chunk, with word-wise
+ * ANDs between bitsets, so their cost follows the number of chunks and values rather than the
+ * range of ordinals.
+ * <p>
+ * Not thread-safe; callers synchronize or work on a copy.
+ */
+public class CompressedBitmap {
+
+    private static final int ARRAY_MAX = 4096; // Beyond this a bitset chunk is the smaller one
+    private static final int BITSET_WORDS = 1024; // 65536 bits
+
+    private char[] keys = new char[0]; // Sorted high 16 bits of each chunk
+    private Chunk[] chunks = new Chunk[0];
+    private int chunkCount;
+    private int cardinality;
+
+    public CompressedBitmap() {
+    }
+
+    private CompressedBitmap(CompressedBitmap other) {
+        keys = Arrays.copyOf(other.keys, other.chunkCount);
+        chunks = new Chunk[other.chunkCount];
+        for (int i = 0; i < other.chunkCount; i++) {
+            chunks[i] = other.chunks[i].copy();
+        }
+        chunkCount = other.chunkCount;
+        cardinality = other.cardinality;
+    }
+
+    public CompressedBitmap copy() {
+        return new CompressedBitmap(this);
+    }
+
+    /**
+     * @return true if the value was not already present.
+     */
+    public boolean add(int value) {
+        checkValue(value);
+        char high = (char) (value >>> 16);
+        int i = indexOf(high);
+        if (i < 0) {
+            i = -i - 1;
+            insertChunk(i, high, new ArrayChunk());
+        }
+        Chunk chunk = chunks[i];
+        int before = chunk.cardinality();
+        chunks[i] = chunk.add((char) value);
+        if (chunks[i].cardinality() == before) return false;
+        cardinality++;
+        return true;
+    }
+
+    /**
+     * @return true if the value was present.
+     */
+    public boolean remove(int value) {
+        if (value < 0) return false;
+        int i = indexOf((char) (value >>> 16));
+        if (i < 0) return false;
+        Chunk chunk = chunks[i];
+        int before = chunk.cardinality();
+        chunks[i] = chunk.remove((char) value);
+        if (chunks[i].cardinality() == before) return false;
+        cardinality--;
+        if (chunks[i].cardinality() == 0) {
+            removeChunk(i);
+        }
+        return true;
+    }
+
+    public boolean contains(int value) {
+        if (value < 0) return false;
+        int i = indexOf((char) (value >>> 16));
+        return i >= 0 && chunks[i].contains((char) value);
+    }
+
+    public int cardinality() {
+        return cardinality;
+    }
+
+    public boolean isEmpty() {
+        return cardinality == 0;
+    }
+
+    public void clear() {
+        keys = new char[0];
+        chunks = new Chunk[0];
+        chunkCount = 0;
+        cardinality = 0;
+    }
+
+    /**
+     * @return A new bitmap holding the values in both.
+     */
+    public CompressedBitmap and(CompressedBitmap other) {
+        CompressedBitmap result = new CompressedBitmap();
+        int i = 0, j = 0;
+        while (i < chunkCount && j < other.chunkCount) {
+            if (keys[i] < other.keys[j]) {
+                i++;
+            } else if (keys[i] > other.keys[j]) {
+                j++;
+            } else {
+                Chunk chunk = chunks[i].and(other.chunks[j]);
+                if (chunk.cardinality() > 0) {
+                    result.insertChunk(result.chunkCount, keys[i], chunk);
+                    result.cardinality += chunk.cardinality();
+                }
+                i++;
+                j++;
+            }
+        }
+        return result;
+    }
+
+    /**
+     * @return The number of values in both, without building the intersection.
+     */
+    public int andCardinality(CompressedBitmap other) {
+        int count = 0;
+        int i = 0, j = 0;
+        while (i < chunkCount && j < other.chunkCount) {
+            if (keys[i] < other.keys[j]) {
+                i++;
+            } else if (keys[i] > other.keys[j]) {
+                j++;
+            } else {
+                count += chunks[i].andCardinality(other.chunks[j]);
+                i++;
+                j++;
+            }
+        }
+        return count;
+    }
+
+    public void forEach(IntConsumer action) {
+        for (int i = 0; i < chunkCount; i++) {
+            chunks[i].forEach(keys[i] << 16, action);
+        }
+    }
+
+    /**
+     * @return The values in ascending order.
+     */
+    public PrimitiveIterator.OfInt iterator() {
+        return new PrimitiveIterator.OfInt() {
+            private int chunk;
+            private int next = -1; // Last low value taken from the current chunk, -1 before its first
+            private int pending = -1;
+
+            @Override
+            public boolean hasNext() {
+                while (pending < 0 && chunk < chunkCount) {
+                    next = chunks[chunk].nextAfter(next);
+                    if (next < 0) {
+                        chunk++;
+                    } else {
+                        pending = (keys[chunk] << 16) | next;
+                    }
+                }
+                return pending >= 0;
+            }
+
+            @Override
+            public int nextInt() {
+                if (!hasNext()) throw new NoSuchElementException();
+                int value = pending;
+                pending = -1;
+                return value;
+            }
+        };
+    }
+
+    /**
+     * @return Approximate bytes held by the chunks, for footprint reporting.
+     */
+    public long sizeInBytes() {
+        long bytes = keys.length * 2L + chunks.length * 8L;
+        for (int i = 0; i < chunkCount; i++) {
+            bytes += chunks[i].sizeInBytes();
+        }
+        return bytes;
+    }
+
+    private static void checkValue(int value) {
+        if (value < 0) {
+            throw new IllegalArgumentException("Bitmap values must be non-negative: " + value);
+        }
+    }
+
+    private int indexOf(char high) {
+        return Arrays.binarySearch(keys, 0, chunkCount, high);
+    }
+
+    private void insertChunk(int at, char high, Chunk chunk) {
+        if (chunkCount == keys.length) {
+            int capacity = Math.max(4, chunkCount * 2);
+            keys = Arrays.copyOf(keys, capacity);
+            chunks = Arrays.copyOf(chunks, capacity);
+        }
+        System.arraycopy(keys, at, keys, at + 1, chunkCount - at);
+        System.arraycopy(chunks, at, chunks, at + 1, chunkCount - at);
+        keys[at] = high;
+        chunks[at] = chunk;
+        chunkCount++;
+    }
+
+    private void removeChunk(int at) {
+        System.arraycopy(keys, at + 1, keys, at, chunkCount - at - 1);
+        System.arraycopy(chunks, at + 1, chunks, at, chunkCount - at - 1);
+        chunks[--chunkCount] = null;
+    }
+
+    // --- Chunks: the low 16 bits of the values sharing one high half ---
+
+    private abstract static class Chunk {
+        abstract int cardinality();
+        abstract Chunk add(char low); // May return a different representation
+        abstract Chunk remove(char low);
+        abstract boolean contains(char low);
+        abstract Chunk and(Chunk other);
+        abstract int andCardinality(Chunk other);
+        abstract void forEach(int base, IntConsumer action);
+        abstract int nextAfter(int low); // The next low value above the given one (-1 to start), or -1
+        abstract Chunk copy();
+        abstract long sizeInBytes();
+    }
+
+    private static final class ArrayChunk extends Chunk {
+        char[] values;
+        int size;
+
+        ArrayChunk() {
+            this(new char[4], 0);
+        }
+
+        ArrayChunk(char[] values, int size) {
+            this.values = values;
+            this.size = size;
+        }
+
+        @Override int cardinality() { return size; }
+
+        @Override
+        Chunk add(char low) {
+            int i = Arrays.binarySearch(values, 0, size, low);
+            if (i >= 0) return this;
+            if (size == ARRAY_MAX) {
+                return toBitset().add(low);
+            }
+            i = -i - 1;
+            if (size == values.length) {
+                values = Arrays.copyOf(values, Math.min(ARRAY_MAX, Math.max(4, size * 2)));
+            }
+            System.arraycopy(values, i, values, i + 1, size - i);
+            values[i] = low;
+            size++;
+            return this;
+        }
+
+        @Override
+        Chunk remove(char low) {
+            int i = Arrays.binarySearch(values, 0, size, low);
+            if (i < 0) return this;
+            System.arraycopy(values, i + 1, values, i, size - i - 1);
+            size--;
+            return this;
+        }
+
+        @Override
+        boolean contains(char low) {
+            return Arrays.binarySearch(values, 0, size, low) >= 0;
+        }
+
+        @Override
+        Chunk and(Chunk other) {
+            char[] result = new char[Math.min(size, other.cardinality())];
+            int n = 0;
+            if (other instanceof ArrayChunk) {
+                ArrayChunk o = (ArrayChunk) other;
+                int i = 0, j = 0;
+                while (i < size && j < o.size) {
+                    if (values[i] < o.values[j]) i++;
+                    else if (values[i] > o.values[j]) j++;
+                    else { result[n++] = values[i]; i++; j++; }
+                }
+            } else {
+                for (int i = 0; i < size; i++) {
+                    if (other.contains(values[i])) result[n++] = values[i];
+                }
+            }
+            return new ArrayChunk(result, n);
+        }
+
+        @Override
+        int andCardinality(Chunk other) {
+            int n = 0;
+            if (other instanceof ArrayChunk) {
+                ArrayChunk o = (ArrayChunk) other;
+                int i = 0, j = 0;
+                while (i < size && j < o.size) {
+                    if (values[i] < o.values[j]) i++;
+                    else if (values[i] > o.values[j]) j++;
+                    else { n++; i++; j++; }
+                }
+            } else {
+                for (int i = 0; i < size; i++) {
+                    if (other.contains(values[i])) n++;
+                }
+            }
+            return n;
+        }
+
+        @Override
+        void forEach(int base, IntConsumer action) {
+            for (int i = 0; i < size; i++) {
+                action.accept(base | values[i]);
+            }
+        }
+
+        @Override
+        int nextAfter(int low) {
+            if (low >= (1 << 16) - 1) return -1;
+            int i = low < 0 ? 0 : Arrays.binarySearch(values, 0, size, (char) (low + 1));
+            if (i < 0) i = -i - 1;
+            return i < size ? values[i] : -1;
+        }
+
+        @Override
+        Chunk copy() {
+            return new ArrayChunk(Arrays.copyOf(values, Math.max(size, 1)), size);
+        }
+
+        @Override
+        long sizeInBytes() {
+            return 16 + values.length * 2L;
+        }
+
+        private BitsetChunk toBitset() {
+            BitsetChunk bitset = new BitsetChunk();
+            for (int i = 0; i < size; i++) {
+                bitset.add(values[i]);
+            }
+            return bitset;
+        }
+    }
+
+    private static final class BitsetChunk extends Chunk {
+        final long[] words;
+        int size;
+
+        BitsetChunk() {
+            this(new long[BITSET_WORDS], 0);
+        }
+
+        BitsetChunk(long[] words, int size) {
+            this.words = words;
+            this.size = size;
+        }
+
+        @Override int cardinality() { return size; }
+
+        @Override
+        Chunk add(char low) {
+            long bit = 1L << low;
+            if ((words[low >>> 6] & bit) == 0) {
+                words[low >>> 6] |= bit;
+                size++;
+            }
+            return this;
+        }
+
+        @Override
+        Chunk remove(char low) {
+            long bit = 1L << low;
+            if ((words[low >>> 6] & bit) != 0) {
+                words[low >>> 6] &= ~bit;
+                size--;
+                if (size <= ARRAY_MAX / 2) { // Hysteresis, so a chunk at the boundary does not flip on every change
+                    return toArray();
+                }
+            }
+            return this;
+        }
+
+        @Override
+        boolean contains(char low) {
+            return (words[low >>> 6] & (1L << low)) != 0;
+        }
+
+        @Override
+        Chunk and(Chunk other) {
+            if (other instanceof ArrayChunk) {
+                return other.and(this);
+            }
+            long[] o = ((BitsetChunk) other).words;
+            long[] result = new long[BITSET_WORDS];
+            int n = 0;
+            for (int w = 0; w < BITSET_WORDS; w++) {
+                result[w] = words[w] & o[w];
+                n += Long.bitCount(result[w]);
+            }
+            BitsetChunk bitset = new BitsetChunk(result, n);
+            return n > ARRAY_MAX ? bitset : bitset.toArray();
+        }
+
+        @Override
+        int andCardinality(Chunk other) {
+            if (other instanceof ArrayChunk) {
+                return other.andCardinality(this);
+            }
+            long[] o = ((BitsetChunk) other).words;
+            int n = 0;
+            for (int w = 0; w < BITSET_WORDS; w++) {
+                n += Long.bitCount(words[w] & o[w]);
+            }
+            return n;
+        }
+
+        @Override
+        void forEach(int base, IntConsumer action) {
+            for (int w = 0; w < BITSET_WORDS; w++) {
+                long word = words[w];
+                while (word != 0) {
+                    action.accept(base | (w << 6) | Long.numberOfTrailingZeros(word));
+                    word &= word - 1;
+                }
+            }
+        }
+
+        @Override
+        int nextAfter(int low) {
+            int from = low + 1;
+            if (from >= 1 << 16) return -1;
+            int w = from >>> 6;
+            long word = words[w] & (-1L << from);
+            while (true) {
+                if (word != 0) return (w << 6) | Long.numberOfTrailingZeros(word);
+                if (++w == BITSET_WORDS) return -1;
+                word = words[w];
+            }
+        }
+
+        @Override
+        Chunk copy() {
+            return new BitsetChunk(words.clone(), size);
+        }
+
+        @Override
+        long sizeInBytes() {
+            return 16 + BITSET_WORDS * 8L;
+        }
+
+        private ArrayChunk toArray() {
+            char[] values = new char[Math.max(size, 1)];
+            int[] n = {0};
+            forEach(0, v -> values[n[0]++] = (char) v);
+            return new ArrayChunk(values, size);
+        }
+    }
+}
@@ -0,0 +1,409 @@
+// File: src/edu/ccrm/util/DatasetGenerator.java
+package edu.ccrm.util;
+
+import edu.ccrm.config.DataStore;
+import edu.ccrm.domain.Course;
+import edu.ccrm.domain.Instructor;
+import edu.ccrm.domain.Semester;
+import edu.ccrm.domain.Student;
+import edu.ccrm.service.EnrollmentServiceImpl;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.stream.IntStream;
+
+/**
+ * Generates a synthetic dataset for load and scale testing: instructors, courses across departments
+ * and semesters, students, and a skewed enrollment distribution (a few popular courses, a long tail).
+ * <p>
+ * Generation is deterministic: the same seed and sizes always give the same data. Every student
+ * draws from its own random stream derived from the seed and its index, so students can be
+ * generated in parallel without changing the result. Enrollments obey the same rules as the
+ * enrollment service (no duplicates, at most 18 credits per semester).
+ * <p>
+ * Usage: java edu.ccrm.util.DatasetGenerator [--students N] [--courses N] [--instructors N]
+ * [--per-student N] [--skew S] [--seed N] [--out DIR]
+ */
+public class DatasetGenerator {
+
+    private static final String[] DEPARTMENTS = {
+            "Computer Science", "Mathematics", "Physics", "Chemistry", "Biology", "Economics",
+            "History", "Philosophy", "Literature", "Psychology", "Engineering", "Music"
+    };
+    private static final String[] DEPARTMENT_PREFIXES = {
+            "CS", "MA", "PH", "CH", "BI", "EC", "HI", "PL", "LI", "PS", "EN", "MU"
+    };
+    private static final String[] TOPICS = {
+            "Foundations of", "Advanced", "Topics in", "Introduction to", "Applied", "Seminar in", "Methods in"
+    };
+    private static final String[] FIRST_NAMES = {
+            "Alice", "Bob", "Carmen", "Deepak", "Elena", "Farid", "Grace", "Hiro", "Ines", "Jamal",
+            "Kira", "Liam", "Mei", "Nikhil", "Olga", "Pablo", "Quinn", "Rosa", "Sven", "Tara"
+    };
+    private static final String[] LAST_NAMES = {
+            "Johnson", "Smith", "Garcia", "Patel", "Kim", "Nguyen", "Okafor", "Rossi", "Silva", "Moller",
+            "Cohen", "Sato", "Novak", "Haddad", "Larsen", "Mendes", "Ivanova", "Walsh", "Chen", "Diaz"
+    };
+    private static final String[] TITLES = {"Lecturer", "Assistant Professor", "Associate Professor", "Professor"};
+    private static final int[] CREDIT_CHOICES = {1, 2, 3, 3, 3, 4, 4, 5}; // Mostly 3-4 credit courses
+
+    private static final int BATCH_SIZE = 8192; // Students added to the store per call
+    private static final long GOLDEN_GAMMA = 0x9E3779B97F4A7C15L;
+    private static final LocalDate STUDENT_BIRTH_BASE = LocalDate.of(1998, 1, 1);
+    private static final LocalDate INSTRUCTOR_BIRTH_BASE = LocalDate.of(1955, 1, 1);
+
+    private final long seed;
+    private final int studentCount;
+    private final int courseCount;
+    private final int instructorCount;
+    private final int enrollmentsPerStudent;
+    private final int idBase;
+
+    // Course attributes, fixed by the seed and shared by every student's draws
+    private final int[] courseCredits;
+    private final int[] courseSemesters;
+    private final double[] popularity; // Cumulative Zipf weights over courses in random rank order
+
+    private DatasetGenerator(Builder builder) {
+        this.seed = builder.seed;
+        this.studentCount = builder.students;
+        this.courseCount = builder.courses;
+        this.instructorCount = builder.instructors;
+        this.enrollmentsPerStudent = builder.enrollmentsPerStudent;
+        this.idBase = builder.idBase;
+
+        SplittableRandom random = new SplittableRandom(seed);
+        courseCredits = new int[courseCount];
+        courseSemesters = new int[courseCount];
+        int semesters = Semester.values().length;
+        for (int c = 0; c < courseCount; c++) {
+            courseCredits[c] = CREDIT_CHOICES[random.nextInt(CREDIT_CHOICES.length)];
+            courseSemesters[c] = random.nextInt(semesters);
+        }
+
+        // Rank the courses in a random order, so the popular ones are spread over the departments
+        int[] rankToCourse = IntStream.range(0, courseCount).toArray();
+        for (int i = courseCount - 1; i > 0; i--) {
+            int j = random.nextInt(i + 1);
+            int tmp = rankToCourse[i];
+            rankToCourse[i] = rankToCourse[j];
+            rankToCourse[j] = tmp;
+        }
+        double[] weights = new double[courseCount];
+        for (int rank = 0; rank < courseCount; rank++) {
+            weights[rankToCourse[rank]] = 1.0 / Math.pow(rank + 1, builder.skew);
+        }
+        popularity = new double[courseCount];
+        double total = 0;
+        for (int c = 0; c < courseCount; c++) {
+            total += weights[c];
+            popularity[c] = total;
+        }
+    }
+
+    // --- Into the DataStore ---
+
+    /**
+     * Adds the whole dataset to the store. Students are generated and enrolled in parallel batches.
+     * Everything goes through the DataStore, so an attached journal records it all; for very large
+     * datasets, generate before attaching the journal and save a snapshot instead.
+     * @return The number of enrollments made.
+     */
+    public long populate(DataStore dataStore) {
+        long start = System.nanoTime();
+        List<Instructor> instructors = new ArrayList<>(instructorCount);
+        for (int i = 0; i < instructorCount; i++) {
+            Instructor instructor = instructor(i);
+            if (dataStore.addInstructor(instructor)) {
+                instructors.add(instructor);
+            }
+        }
+        Course[] courses = new Course[courseCount];
+        for (int c = 0; c < courseCount; c++) {
+            Course course = course(c, instructors.isEmpty() ? null : instructors.get(c % instructors.size()));
+            dataStore.addCourse(course);
+            courses[c] = dataStore.findCourseByCode(course.getCode()).orElse(course);
+        }
+
+        LongAdder enrollments = new LongAdder();
+        int batches = (studentCount + BATCH_SIZE - 1) / BATCH_SIZE;
+        IntStream.range(0, batches).parallel().forEach(b -> {
+            int from = b * BATCH_SIZE;
+            int to = Math.min(studentCount, from + BATCH_SIZE);
+            List<Student> batch = new ArrayList<>(to - from);
+            for (int s = from; s < to; s++) {
+                batch.add(student(s));
+            }
+            boolean[] added = dataStore.addStudents(batch);
+
+            int[] chosen = new int[enrollmentsPerStudent * 2];
+            for (int k = 0; k < added.length; k++) {
+                if (!added[k]) continue;
+                Student student = batch.get(k);
+                int count = chooseCourses(from + k, chosen);
+                synchronized (student) {
+                    student.ensureCourseCapacity(count);
+                    for (int i = 0; i < count; i++) {
+                        student.enrollInCourse(courses[chosen[i]]);
+                        dataStore.recordEnrollment(student, courses[chosen[i]]);
+                    }
+                }
+                enrollments.add(count);
+            }
+        });
+
+        System.out.printf("Generated %d instructors, %d courses, %d students and %d enrollments in %d ms%n",
+                instructors.size(), courseCount, studentCount, enrollments.sum(), (System.nanoTime() - start) / 1_000_000);
+        return enrollments.sum();
+    }
+
+    // --- As CSV files in the export / import formats ---
+
+    /**
+     * Streams the dataset to students_export.csv, courses_export.csv, instructors_export.csv and
+     * enrollments_export.csv in a directory, in the same formats the export writes. Nothing is kept
+     * in memory beyond one line, so any size can be generated.
+     * @return The number of enrollment lines written.
+     */
+    public long writeCsv(Path directory) throws IOException {
+        long start = System.nanoTime();
+        Files.createDirectories(directory);
+
+        try (Writer out = writer(directory.resolve("instructors_export.csv"))) {
+            for (int i = 0; i < instructorCount; i++) {
+                Instructor instructor = instructor(i);
+                out.write(instructor.getId() + "," + instructor.getFullName() + "," + instructor.getEmail() + ","
+                        + instructor.getDateOfBirth() + "," + instructor.getDepartment() + "," + instructor.getTitle());
+                out.write(System.lineSeparator());
+            }
+        }
+        try (Writer out = writer(directory.resolve("courses_export.csv"))) {
+            for (int c = 0; c < courseCount; c++) {
+                Course course = course(c, null);
+                out.write(course.getCode() + "," + course.getTitle() + "," + course.getCredits() + ","
+                        + course.getDepartment() + "," + course.getSemester().name() + ",");
+                if (instructorCount > 0) {
+                    out.write(Integer.toString(instructorId(c % instructorCount)));
+                }
+                out.write(System.lineSeparator());
+            }
+        }
+
+        long enrollments = 0;
+        int[] chosen = new int[enrollmentsPerStudent * 2];
+        try (Writer students = writer(directory.resolve("students_export.csv"));
+             Writer enrolled = writer(directory.resolve("enrollments_export.csv"))) {
+            for (int s = 0; s < studentCount; s++) {
+                Student student = student(s);
+                students.write(student.getId() + "," + student.getRegNo() + "," + student.getFullName() + ","
+                        + student.getEmail() + "," + student.getDateOfBirth());
+                students.write(System.lineSeparator());
+
+                int count = chooseCourses(s, chosen);
+                for (int i = 0; i < count; i++) {
+                    enrolled.write(student.getRegNo());
+                    enrolled.write(',');
+                    enrolled.write(courseCode(chosen[i]));
+                    enrolled.write(System.lineSeparator());
+                }
+                enrollments += count;
+            }
+        }
+
+        System.out.printf("Wrote %d instructors, %d courses, %d students and %d enrollments to %s in %d ms%n",
+                instructorCount, courseCount, studentCount, enrollments, directory.toAbsolutePath(),
+                (System.nanoTime() - start) / 1_000_000);
+        return enrollments;
+    }
+
+    private static Writer writer(Path file) throws IOException {
+        return new BufferedWriter(Files.newBufferedWriter(file, StandardCharsets.UTF_8), 1 << 16);
+    }
+
+    // --- Record factories (pure functions of the seed and index) ---
+
+    private Instructor instructor(int index) {
+        SplittableRandom random = randomFor(-1 - index);
+        int department = index % DEPARTMENTS.length;
+        String first = FIRST_NAMES[random.nextInt(FIRST_NAMES.length)];
+        String last = LAST_NAMES[random.nextInt(LAST_NAMES.length)];
+        return new Instructor(instructorId(index), "Prof. " + first + " " + last,
+                "instructor" + index + "@example.edu", INSTRUCTOR_BIRTH_BASE.plusDays(random.nextInt(365 * 30)),
+                DEPARTMENTS[department], TITLES[random.nextInt(TITLES.length)]);
+    }
+
+    private Course course(int index, Instructor instructor) {
+        int department = index % DEPARTMENTS.length;
+        return new Course.Builder(courseCode(index),
+                TOPICS[index % TOPICS.length] + " " + DEPARTMENTS[department] + " " + (index / DEPARTMENTS.length + 1))
+                .credits(courseCredits[index])
+                .department(DEPARTMENTS[department])
+                .semester(Semester.values()[courseSemesters[index]])
+                .instructor(instructor)
+                .build();
+    }
+
+    private Student student(int index) {
+        SplittableRandom random = randomFor(index);
+        String first = FIRST_NAMES[random.nextInt(FIRST_NAMES.length)];
+        String last = LAST_NAMES[random.nextInt(LAST_NAMES.length)];
+        return new Student(idBase + instructorCount + index, first + " " + last,
+                "student" + index + "@example.edu", STUDENT_BIRTH_BASE.plusDays(random.nextInt(365 * 8)), regNo(index));
+    }
+
+    private int instructorId(int index) {
+        return idBase + index;
+    }
+
+    // Department prefix plus a number unique within the department, e.g. "CS1000", "MA1000", "CS1001"
+    private static String courseCode(int index) {
+        return DEPARTMENT_PREFIXES[index % DEPARTMENTS.length] + (1000 + index / DEPARTMENTS.length);
+    }
+
+    // Zero-padded so generated numbers never collide with hand-entered ones like "S001"
+    private static String regNo(int index) {
+        String digits = Integer.toString(index + 1);
+        StringBuilder sb = new StringBuilder(10).append('G');
+        for (int i = digits.length(); i < 9; i++) sb.append('0');
+        return sb.append(digits).toString();
+    }
+
+    /**
+     * Picks a student's courses from the skewed distribution, skipping duplicates and any course
+     * that would take a semester over the credit limit.
+     * @return How many course indexes were written to chosen.
+     */
+    private int chooseCourses(int studentIndex, int[] chosen) {
+        if (courseCount == 0) return 0;
+        SplittableRandom random = randomFor(studentIndex).split(); // Independent of the name draws
+        int target = Math.max(1, enrollmentsPerStudent - 2 + random.nextInt(5)); // Mean enrollmentsPerStudent
+        target = Math.min(target, Math.min(chosen.length, courseCount));
+        int[] credits = new int[Semester.values().length];
+        int count = 0;
+        for (int attempt = 0; count < target && attempt < target * 4; attempt++) {
+            int course = sampleCourse(random);
+            if (contains(chosen, count, course)) continue;
+            int semester = courseSemesters[course];
+            if (credits[semester] + courseCredits[course] > EnrollmentServiceImpl.MAX_CREDITS_PER_SEMESTER) continue;
+            credits[semester] += courseCredits[course];
+            chosen[count++] = course;
+        }
+        return count;
+    }
+
+    // Inverse-CDF sampling: binary search for the first cumulative weight above a uniform draw
+    private int sampleCourse(SplittableRandom random) {
+        double u = random.nextDouble() * popularity[courseCount - 1];
+        int low = 0, high = courseCount - 1;
+        while (low < high) {
+            int mid = (low + high) >>> 1;
+            if (popularity[mid] > u) high = mid;
+            else low = mid + 1;
+        }
+        return low;
+    }
+
+    private static boolean contains(int[] values, int length, int value) {
+        for (int i = 0; i < length; i++) {
+            if (values[i] == value) return true;
+        }
+        return false;
+    }
+
+    private SplittableRandom randomFor(long index) {
+        return new SplittableRandom(seed + GOLDEN_GAMMA * (index + 1));
+    }
+
+    // --- Builder ---
+    public static class Builder {
+        private long seed = 42;
+        private int students = 10_000;
+        private int courses = 1_000;
+        private int instructors = 200;
+        private int enrollmentsPerStudent = 5;
+        private double skew = 1.0; // Zipf exponent: 0 is uniform, higher concentrates on a few courses
+        private int idBase = 1_000_000; // Clear of the ids people type in by hand
+
+        public Builder seed(long seed) {
+            this.seed = seed;
+            return this;
+        }
+
+        public Builder students(int students) {
+            this.students = students;
+            return this;
+        }
+
+        public Builder courses(int courses) {
+            this.courses = courses;
+            return this;
+        }
+
+        public Builder instructors(int instructors) {
+            this.instructors = instructors;
+            return this;
+        }
+
+        public Builder enrollmentsPerStudent(int enrollmentsPerStudent) {
+            this.enrollmentsPerStudent = enrollmentsPerStudent;
+            return this;
+        }
+
+        public Builder skew(double skew) {
+            this.skew = skew;
+            return this;
+        }
+
+        public Builder idBase(int idBase) {
+            this.idBase = idBase;
+            return this;
+        }
+
+        public DatasetGenerator build() {
+            if (students < 0 || courses < 0 || instructors < 0 || enrollmentsPerStudent < 1 || skew < 0) {
+                throw new IllegalArgumentException("Dataset sizes must not be negative, and at least one enrollment per student");
+            }
+            if ((long) idBase + instructors + students > Integer.MAX_VALUE) {
+                throw new IllegalArgumentException("Too many records for the id space starting at " + idBase);
+            }
+            return new DatasetGenerator(this);
+        }
+    }
+
+    // --- Command line ---
+
+    public static void main(String[] args) throws IOException {
+        Builder builder = new Builder();
+        Path out = Paths.get("data");
+        try {
+            for (int i = 0; i < args.length; i++) {
+                String value = i + 1 < args.length ? args[i + 1] : null;
+                switch (args[i]) {
+                    case "--students": builder.students(Integer.parseInt(value)); i++; break;
+                    case "--courses": builder.courses(Integer.parseInt(value)); i++; break;
+                    case "--instructors": builder.instructors(Integer.parseInt(value)); i++; break;
+                    case "--per-student": builder.enrollmentsPerStudent(Integer.parseInt(value)); i++; break;
+                    case "--skew": builder.skew(Double.parseDouble(value)); i++; break;
+                    case "--seed": builder.seed(Long.parseLong(value)); i++; break;
+                    case "--out": out = Paths.get(value); i++; break;
+                    default: throw new IllegalArgumentException("Unknown option " + args[i]);
+                }
+            }
+            builder.build().writeCsv(out);
+        } catch (IllegalArgumentException | NullPointerException e) {
+            System.err.println("Invalid arguments: " + e.getMessage());
+            System.err.println("Usage: java edu.ccrm.util.DatasetGenerator [--students N] [--courses N] [--instructors N]"
+                    + " [--per-student N] [--skew S] [--seed N] [--out DIR]");
+        }
+    }
+}
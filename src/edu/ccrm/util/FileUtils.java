@@ -2,29 +2,72 @@
 package edu.ccrm.util;
 
 import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.DirectoryStream;
 import java.nio.file.Files;
 import java.nio.file.Path;
-import java.util.stream.Stream;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
 
 public class FileUtils {
 
     /**
      * Recursively calculates the size of a directory.
+     * Subdirectories are walked in parallel on the common fork/join pool.
      * @param path The directory path.
      * @return The total size in bytes.
      */
     public static long calculateDirectorySize(Path path) throws IOException {
-        try (Stream<Path> walk = Files.walk(path)) {
-            return walk
-                .filter(Files::isRegularFile)
-                .mapToLong(p -> {
+        if (!Files.isDirectory(path)) {
+            return Files.isRegularFile(path) ? Files.size(path) : 0L;
+        }
+        try {
+            return ForkJoinPool.commonPool().invoke(new DirectorySizeTask(path));
+        } catch (UncheckedIOException e) {
+            throw e.getCause();
+        }
+    }
+
+    // Sums the files in one directory and forks a task per subdirectory
+    private static class DirectorySizeTask extends RecursiveTask<Long> {
+        private static final long serialVersionUID = 1L;
+
+        private final transient Path directory;
+
+        DirectorySizeTask(Path directory) {
+            this.directory = directory;
+        }
+
+        @Override
+        protected Long compute() {
+            long size = 0;
+            List<DirectorySizeTask> subdirectories = new ArrayList<>();
+            try (DirectoryStream<Path> entries = Files.newDirectoryStream(directory)) {
+                for (Path entry : entries) {
+                    BasicFileAttributes attributes;
                     try {
-                        return Files.size(p);
+                        attributes = Files.readAttributes(entry, BasicFileAttributes.class);
                     } catch (IOException e) {
-                        return 0L;
+                        continue; // Deleted while we were walking
+                    }
+                    if (attributes.isDirectory()) {
+                        DirectorySizeTask task = new DirectorySizeTask(entry);
+                        task.fork();
+                        subdirectories.add(task);
+                    } else if (attributes.isRegularFile()) {
+                        size += attributes.size();
                     }
-                })
-                .sum();
+                }
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+            for (DirectorySizeTask task : subdirectories) {
+                size += task.join();
+            }
+            return size;
         }
     }
-}
\ No newline at end of file
+}
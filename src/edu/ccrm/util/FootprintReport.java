@@ -0,0 +1,122 @@
+// File: src/edu/ccrm/util/FootprintReport.java
+package edu.ccrm.util;
+
+import edu.ccrm.config.DataStore;
+import edu.ccrm.domain.Course;
+import edu.ccrm.domain.Semester;
+import edu.ccrm.domain.Student;
+
+import java.lang.management.ManagementFactory;
+import java.lang.management.MemoryMXBean;
+import java.time.LocalDate;
+
+/**
+ * Measures how many heap bytes each record takes, by filling the heap and comparing the live size
+ * after full collections. Reports the bare Student and Course objects (with their strings, dates
+ * and enrollment state), and the whole DataStore per student including its lookup maps and indexes.
+ * <p>
+ * The numbers are averages over many records, so run it with enough students (100k or more) for
+ * the per-record cost to dwarf the noise, and with a heap large enough to hold them.
+ * <p>
+ * Usage: java edu.ccrm.util.FootprintReport [--students N] [--courses N] [--per-student N]
+ */
+public class FootprintReport {
+
+    private static final MemoryMXBean MEMORY = ManagementFactory.getMemoryMXBean();
+
+    private final int students;
+    private final int courses;
+    private final int perStudent;
+
+    public FootprintReport(int students, int courses, int perStudent) {
+        this.students = students;
+        this.courses = courses;
+        this.perStudent = perStudent;
+    }
+
+    public void run() {
+        System.out.printf("Footprint of %,d students, %,d courses, about %d enrollments per student%n",
+                students, courses, perStudent);
+
+        // --- Bare courses ---
+        long base = liveBytes();
+        Course[] courseArray = new Course[Math.max(courses, 1)];
+        Semester[] semesters = Semester.values();
+        for (int c = 0; c < courseArray.length; c++) {
+            courseArray[c] = new Course.Builder("FP" + c, "Footprint Course " + c)
+                    .department("Department " + (c % 12))
+                    .semester(semesters[c % semesters.length])
+                    .credits(3)
+                    .build();
+        }
+        report("Course", liveBytes() - base, courseArray.length);
+
+        // --- Bare students, without and then with enrollments ---
+        base = liveBytes();
+        Student[] studentArray = new Student[students];
+        LocalDate birthBase = LocalDate.of(1998, 1, 1);
+        for (int s = 0; s < students; s++) {
+            studentArray[s] = new Student(s + 1, "Student " + s, "student" + s + "@example.edu",
+                    birthBase.plusDays(s % 2920), "F" + s);
+        }
+        report("Student, not enrolled", liveBytes() - base, students);
+        for (int s = 0; s < students; s++) {
+            for (int k = 0; k < perStudent; k++) {
+                studentArray[s].enrollInCourse(courseArray[(s * 7 + k * 131) % courseArray.length]);
+            }
+        }
+        report("Student, " + perStudent + " enrollments", liveBytes() - base, students);
+        studentArray = null;
+        courseArray = null;
+
+        // --- The whole store, generated the way the load tests generate it ---
+        DataStore dataStore = DataStore.getInstance();
+        dataStore.clear();
+        base = liveBytes();
+        new DatasetGenerator.Builder().students(students).courses(courses).enrollmentsPerStudent(perStudent)
+                .build().populate(dataStore);
+        report("DataStore, per student", liveBytes() - base, students);
+        dataStore.clear();
+    }
+
+    private static void report(String what, long bytes, int count) {
+        System.out.printf("  %-28s %8.1f bytes each  (%,d MB total)%n", what, (double) bytes / count, bytes >> 20);
+    }
+
+    // Several collections, so objects freed by finalizers or reference processing are gone too
+    private static long liveBytes() {
+        long used = Long.MAX_VALUE;
+        for (int i = 0; i < 4; i++) {
+            System.gc();
+            used = Math.min(used, MEMORY.getHeapMemoryUsage().getUsed());
+        }
+        return used;
+    }
+
+    // --- Command line ---
+
+    public static void main(String[] args) {
+        int students = 1_000_000;
+        int courses = 1_000;
+        int perStudent = 5;
+        try {
+            for (int i = 0; i < args.length; i++) {
+                String value = i + 1 < args.length ? args[i + 1] : null;
+                switch (args[i]) {
+                    case "--students": students = Integer.parseInt(value); i++; break;
+                    case "--courses": courses = Integer.parseInt(value); i++; break;
+                    case "--per-student": perStudent = Integer.parseInt(value); i++; break;
+                    default: throw new IllegalArgumentException("Unknown option " + args[i]);
+                }
+            }
+            if (students < 1 || courses < 1 || perStudent < 1) {
+                throw new IllegalArgumentException("Counts must be positive");
+            }
+        } catch (IllegalArgumentException | NullPointerException e) {
+            System.err.println("Invalid arguments: " + e.getMessage());
+            System.err.println("Usage: java edu.ccrm.util.FootprintReport [--students N] [--courses N] [--per-student N]");
+            return;
+        }
+        new FootprintReport(students, courses, perStudent).run();
+    }
+}
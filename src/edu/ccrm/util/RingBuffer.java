@@ -0,0 +1,92 @@
+// File: src/edu/ccrm/util/RingBuffer.java
+package edu.ccrm.util;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+/**
+ * A bounded, lock-free queue for many producers and a single consumer.
+ * <p>
+ * Producers claim a slot with one compare-and-set on the tail and never block: when the buffer is
+ * full, {@link #offer} returns false straight away. Each slot carries a sequence number that tells
+ * the consumer when the slot has been filled and producers when it has been emptied again.
+ */
+public class RingBuffer<T> {
+
+    private final int mask;
+    private final AtomicReferenceArray<T> slots;
+    private final AtomicLongArray sequences;
+    private final AtomicLong tail = new AtomicLong(); // Next position a producer will claim
+    private volatile long head; // Next position the consumer will take; written by the consumer only
+
+    /**
+     * @param capacity Rounded up to a power of two.
+     */
+    public RingBuffer(int capacity) {
+        int size = Integer.highestOneBit(Math.max(2, capacity - 1)) << 1;
+        mask = size - 1;
+        slots = new AtomicReferenceArray<>(size);
+        sequences = new AtomicLongArray(size);
+        for (int i = 0; i < size; i++) {
+            sequences.set(i, i);
+        }
+    }
+
+    /**
+     * Adds an element unless the buffer is full. Safe to call from any thread.
+     * @return false if the buffer was full and the element was not added.
+     */
+    public boolean offer(T element) {
+        while (true) {
+            long position = tail.get();
+            int index = (int) position & mask;
+            long difference = sequences.get(index) - position;
+            if (difference == 0) {
+                if (tail.compareAndSet(position, position + 1)) {
+                    slots.set(index, element);
+                    sequences.set(index, position + 1); // Publishes the element to the consumer
+                    return true;
+                }
+            } else if (difference < 0) {
+                return false; // The consumer has not emptied this slot yet: full
+            }
+            // Otherwise another producer claimed the slot first; retry with the new tail
+        }
+    }
+
+    /**
+     * Takes the oldest element. Must only be called from the single consumer thread.
+     * @return The element, or null if none is ready.
+     */
+    public T poll() {
+        long position = head;
+        int index = (int) position & mask;
+        if (sequences.get(index) != position + 1) {
+            return null;
+        }
+        T element = slots.get(index);
+        slots.set(index, null);
+        sequences.set(index, position + mask + 1); // Frees the slot for the producer one lap ahead
+        head = position + 1;
+        return element;
+    }
+
+    /**
+     * @return How many elements have been added so far.
+     */
+    public long producedCount() {
+        return tail.get();
+    }
+
+    /**
+     * @return How many elements the consumer has taken so far.
+     */
+    public long consumedCount() {
+        return head;
+    }
+
+    public int capacity() {
+        return mask + 1;
+    }
+}
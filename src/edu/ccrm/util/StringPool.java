@@ -0,0 +1,36 @@
+// File: src/edu/ccrm/util/StringPool.java
+package edu.ccrm.util;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * A flyweight pool for the strings that repeat across many records, such as departments and
+ * instructor titles: every equal value resolves to one shared instance, so a million courses in
+ * twelve departments hold twelve department strings.
+ * <p>
+ * Pooled strings are never released, so only values from a small, bounded set belong here.
+ * Names, emails and other per-record values should not be pooled.
+ */
+public final class StringPool {
+
+    private static final Map<String, String> POOL = new ConcurrentHashMap<>();
+
+    private StringPool() {
+    }
+
+    /**
+     * @return The pooled instance equal to value, or null for null.
+     */
+    public static String intern(String value) {
+        if (value == null) return null;
+        String pooled = POOL.get(value); // Lock-free on the common, already-pooled path
+        if (pooled != null) return pooled;
+        pooled = POOL.putIfAbsent(value, value);
+        return pooled == null ? value : pooled;
+    }
+
+    public static int size() {
+        return POOL.size();
+    }
+}